@@ -0,0 +1,176 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * This class creates the fixtures of the JMH benchmarks: 'realistic' boards, which are ragged, holed stacks that are
+   generated from seeds such that the results are comparable between runs, and placements on them from which a
+   tetromino's rotation has a given outcome.
+
+ * Composition:
+     (a). Enums (1)
+     (b). Fields (2)
+         (i). Static Fields (2)
+     (c). Public Methods (2)
+     (d). Auxiliaries (1)
+*/
+public class BoardFixtures
+{
+    
+// (a). Enums (1) ======================================================================================================
+    
+    /*
+     * The outcome of rotating a tetromino: it's rotated directly, it's rotated only after being kicked, or it can't be
+       rotated (after every kick has been tried).
+    */
+    public enum Rotation
+    { Direct, Kicked, Blocked }
+    
+    
+    
+// (b). Fields (2) =====================================================================================================
+    
+    
+// (b)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The dimensions of the boards.
+    public static final int S_NUM_ROWS = TetrisGame.S_NUM_ROWS;
+    public static final int S_NUM_COLUMNS = TetrisGame.S_NUM_COLUMNS;
+    
+    
+    
+// (c). Public Methods (2) =============================================================================================
+    
+    /*
+     * This method fills the given engine with a 'realistic' stack: i.e. each column is filled to a (random) height
+       of between a_height - 2 and a_height, and each row of the stack is left with at least one hole (so that none of
+       its rows are full), except for the given number of consecutive rows (which begin two rows above the floor).
+       
+     * Parameters:
+         > a_engine: the engine to fill; it's reset beforehand.
+         > a_seed: the seed from which the stack is generated.
+         > a_height: the (maximum) height of the stack.
+         > a_num_full_rows: the number of rows that are full.
+    */
+    public static void FillStack(TetrisEngine a_engine, long a_seed, int a_height, int a_num_full_rows)
+    {
+        a_engine.Reset();
+        
+        SplittableRandom l_random = new SplittableRandom(a_seed);
+        
+        Tetromino.Type l_types[] = Tetromino.Type.values();
+        
+        // The rows that are to be full.
+        int l_row_full_last = S_NUM_ROWS - 3;
+        int l_row_full_first = l_row_full_last - a_num_full_rows + 1;
+        
+        for (int col = 0; col < S_NUM_COLUMNS; ++col)
+        {
+            int l_height = a_height - l_random.nextInt(3);
+            
+            for (int row = S_NUM_ROWS - 1; row >= S_NUM_ROWS - l_height; --row)
+            { a_engine.SetCell(col, row, l_types[l_random.nextInt(l_types.length)]); }
+        }
+        
+        for (int row = S_NUM_ROWS - a_height; row < S_NUM_ROWS; ++row)
+        {
+            if (row >= l_row_full_first && row <= l_row_full_last)
+            {
+                for (int col = 0; col < S_NUM_COLUMNS; ++col)
+                { a_engine.SetCell(col, row, l_types[l_random.nextInt(l_types.length)]); }
+            }
+            else if (a_engine.IsRowFull(row))
+            {
+                a_engine.ClearCell(l_random.nextInt(S_NUM_COLUMNS), row);
+            }
+        }
+    }
+    
+    /*
+     * This method searches the given board for a placement of a tetromino whose (clockwise) rotation has the given
+       outcome. If it's Kicked, the placement that needs the largest kick is chosen. The tetrominos' types are tried in
+       order, and the first type with such a placement is used.
+       
+     * Parameters:
+         > a_engine: the board.
+         > a_rotation: the outcome of the rotation.
+         
+     * Return Value:
+         > A tetromino that's at the chosen placement (i.e. its position and rotation index).
+    */
+    public static Tetromino FindRotation(TetrisEngine a_engine, Rotation a_rotation)
+    {
+        // The chosen placement, and the size of the kick that it needs.
+        Tetromino l_chosen = null;
+        int l_kick_chosen = -1;
+        
+        for (Tetromino.Type l_type : Tetromino.Type.values())
+        {
+            Tetromino l_tetromino = new Tetromino(l_type);
+            
+            for (int l_index_rotation = 0; l_index_rotation < Tetromino.S_NUM_ROTATION_INDEXES; ++l_index_rotation)
+            {
+                for (int l_y = 0; l_y < S_NUM_ROWS; ++l_y)
+                {
+                    for (int l_x = 0; l_x < S_NUM_COLUMNS; ++l_x)
+                    {
+                        l_tetromino.SetIndexRotation(l_index_rotation);
+                        l_tetromino.SetPosition(l_x, l_y);
+                        
+                        if (!CanBePlaced(a_engine, l_tetromino))
+                        { continue; }
+                        
+                        Rotation l_rotation;
+                        int l_kick = 0;
+                        
+                        if (!l_tetromino.Rotate(true, true, a_engine))
+                        { l_rotation = Rotation.Blocked; }
+                        else if (l_tetromino.GetX() == l_x && l_tetromino.GetY() == l_y)
+                        { l_rotation = Rotation.Direct; }
+                        else
+                        {
+                            l_rotation = Rotation.Kicked;
+                            l_kick = Math.abs(l_tetromino.GetX() - l_x) + Math.abs(l_tetromino.GetY() - l_y);
+                        }
+                        
+                        if (l_rotation == a_rotation && l_kick > l_kick_chosen)
+                        {
+                            l_kick_chosen = l_kick;
+                            l_chosen = new Tetromino(l_type);
+                            l_chosen.SetIndexRotation(l_index_rotation);
+                            l_chosen.SetPosition(l_x, l_y);
+                        }
+                    }
+                }
+            }
+            
+            // If a placement has been found (and this type's tetromino may therefore be used).
+            if (l_chosen != null)
+            { return l_chosen; }
+        }
+        
+        throw new IllegalStateException("The board has no placement whose rotation is " + a_rotation + ".");
+    }
+    
+    
+    
+// (d). Auxiliaries (1) ================================================================================================
+    
+    /* Auxiliary of FindRotation
+     * This method returns true if each of the given tetromino's tiles are on the board and empty.
+    */
+    private static boolean CanBePlaced(TetrisEngine a_engine, Tetromino a_tetromino)
+    {
+        for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+        {
+            if (!a_engine.CanBeMovedTo(a_tetromino.GetTileX(i), a_tetromino.GetTileY(i)))
+            { return false; }
+        }
+        
+        return true;
+    }
+    
+    
+}
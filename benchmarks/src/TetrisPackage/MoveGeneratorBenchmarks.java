@@ -0,0 +1,82 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * This class holds the JMH benchmark of finding every placement of a tetromino on a stack: MoveGenerator.Generate(...),
+   with or without the tetromino being allowed to fall a row at a time, for each type of tetromino in turn.
+
+ * Composition:
+     (a). Fields (5)
+     (b). Public Methods (2)
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MoveGeneratorBenchmarks
+{
+    
+// (a). Fields (5) =====================================================================================================
+    
+    // A flag that, when true, indicates that the tetromino may fall a row at a time (see MoveGenerator).
+    @Param({ "false", "true" })
+    public boolean f_can_fall;
+    
+    private final TetrisEngine f_engine = new TetrisEngine(BoardFixtures.S_NUM_ROWS, BoardFixtures.S_NUM_COLUMNS);
+    
+    private MoveGenerator f_generator;
+    
+    private final Tetromino f_tetrominos[] = new Tetromino[Tetromino.S_NUM_TYPES];
+    
+    // The index (into f_tetrominos) of the next tetromino whose placements are found.
+    private int f_index;
+    
+    
+    
+// (b). Public Methods (2) =============================================================================================
+    
+    @Setup
+    public void Setup()
+    {
+        f_generator = new MoveGenerator(BoardFixtures.S_NUM_ROWS, BoardFixtures.S_NUM_COLUMNS, f_can_fall);
+        
+        BoardFixtures.FillStack(f_engine, 3, 8, 0);
+        
+        for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+        {
+            f_tetrominos[i] = new Tetromino(Tetromino.Type.values()[i]);
+            f_tetrominos[i].SetPosition((BoardFixtures.S_NUM_COLUMNS - 1) / 2, 1);
+        }
+    }
+    
+    /*
+     * This benchmark finds every placement of a tetromino.
+    */
+    @Benchmark
+    public int Generate()
+    {
+        Tetromino l_tetromino = f_tetrominos[f_index];
+        f_index = (f_index + 1) % Tetromino.S_NUM_TYPES;
+        
+        return f_generator.Generate(f_engine, l_tetromino);
+    }
+    
+    
+}
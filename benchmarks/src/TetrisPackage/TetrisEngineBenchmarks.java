@@ -0,0 +1,82 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * This class holds the JMH benchmarks of clearing lines: TetrisEngine.RemoveFullLines() on a stack with one to four
+   (consecutive) full lines.
+ * As a clear changes the board, each operation first restores the stack from a fixture (by TetrisEngine.CopyFrom(...)),
+   which is cheaper and more precise than a per-invocation @Setup. The cost of the restoration alone is measured by
+   CopyFrom(), which is the baseline that's to be subtracted from RemoveFullLines().
+
+ * Composition:
+     (a). Fields (3)
+     (b). Public Methods (3)
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TetrisEngineBenchmarks
+{
+    
+// (a). Fields (3) =====================================================================================================
+    
+    // The number of full lines in the stack.
+    @Param({ "1", "2", "3", "4" })
+    public int f_num_lines;
+    
+    // The stack, and the engine from which its lines are cleared.
+    private final TetrisEngine f_fixture = new TetrisEngine(BoardFixtures.S_NUM_ROWS, BoardFixtures.S_NUM_COLUMNS);
+    private final TetrisEngine f_engine = new TetrisEngine(BoardFixtures.S_NUM_ROWS, BoardFixtures.S_NUM_COLUMNS);
+    
+    
+    
+// (b). Public Methods (3) =============================================================================================
+    
+    @Setup
+    public void Setup()
+    {
+        BoardFixtures.FillStack(f_fixture, 4, 12, f_num_lines);
+    }
+    
+    /*
+     * This benchmark restores the stack and clears its full lines.
+    */
+    @Benchmark
+    public int RemoveFullLines()
+    {
+        f_engine.CopyFrom(f_fixture);
+        
+        return f_engine.RemoveFullLines();
+    }
+    
+    /*
+     * This benchmark restores the stack only: i.e. it's the baseline of RemoveFullLines().
+    */
+    @Benchmark
+    public long CopyFrom()
+    {
+        f_engine.CopyFrom(f_fixture);
+        
+        return f_engine.GetHash();
+    }
+    
+    
+}
@@ -0,0 +1,86 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * This class holds the JMH benchmark of a tetromino's entire life in a game that's played by a RandomPolicy: from the
+   policy's choice of commands, through the steps that the tetromino falls for, to its lock and the spawn of the next
+   tetromino. When a game is over, the next one (of the next seed) is started within the operation, which is rare
+   enough not to distort the results.
+
+ * Composition:
+     (a). Fields (4)
+     (b). Public Methods (2)
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TetrisGameBenchmarks
+{
+    
+// (a). Fields (4) =====================================================================================================
+    
+    private final TetrisGame f_game = new TetrisGame(GameClock.S_STEP_NANOS_DEFAULT);
+    
+    private final MovePolicy f_policy = new RandomPolicy();
+    
+    private final InputQueue.Command f_commands[] = new InputQueue.Command[MovePolicy.S_MAX_NUM_COMMANDS];
+    
+    // The seed of the current game.
+    private long f_seed;
+    
+    
+    
+// (b). Public Methods (2) =============================================================================================
+    
+    @Setup
+    public void Setup()
+    {
+        f_game.Reset(++f_seed);
+        f_policy.Reset(f_game);
+    }
+    
+    /*
+     * This benchmark plays a tetromino from its spawn to its lock.
+    */
+    @Benchmark
+    public long SpawnToLock()
+    {
+        int l_num_tetrominos = f_game.GetNumTetrominos();
+        
+        int l_num_commands = f_policy.Choose(f_game, f_commands);
+        
+        for (int i = 0; i < l_num_commands; ++i)
+        { f_game.Apply(f_commands[i]); }
+        
+        // Step until the tetromino locks and the next one spawns (or the game is over).
+        while (f_game.GetNumTetrominos() == l_num_tetrominos)
+        {
+            if (!f_game.Step())
+            {
+                Setup();
+                break;
+            }
+        }
+        
+        return f_game.GetNumSteps();
+    }
+    
+    
+}
@@ -0,0 +1,81 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * This class holds the JMH benchmark of drawing a tetromino: TetrisGrid.DrawTetromino(...) followed by
+   TetrisGrid.UnDrawTetromino(...), for each type of tetromino in turn. The grid is never displayed, so the JVM is
+   forked in headless mode.
+
+ * Composition:
+     (a). Fields (4)
+     (b). Public Methods (2)
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TetrisGridBenchmarks
+{
+    
+// (a). Fields (4) =====================================================================================================
+    
+    private TetrisGrid f_grid;
+    
+    private final Tetromino f_tetrominos[] = new Tetromino[Tetromino.S_NUM_TYPES];
+    
+    // The index (into f_tetrominos) of the next tetromino to draw.
+    private int f_index;
+    
+    // The size of each tile (pixels).
+    private static final int s_size_tile = 20;
+    
+    
+    
+// (b). Public Methods (2) =============================================================================================
+    
+    @Setup
+    public void Setup()
+    {
+        f_grid = new TetrisGrid(BoardFixtures.S_NUM_ROWS * s_size_tile, false);
+        
+        for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+        {
+            f_tetrominos[i] = new Tetromino(Tetromino.Type.values()[i]);
+            f_tetrominos[i].SetPosition(BoardFixtures.S_NUM_COLUMNS / 2, BoardFixtures.S_NUM_ROWS / 2);
+        }
+    }
+    
+    /*
+     * This benchmark draws a tetromino onto the grid and then removes it.
+    */
+    @Benchmark
+    public boolean DrawUnDraw()
+    {
+        Tetromino l_tetromino = f_tetrominos[f_index];
+        f_index = (f_index + 1) % Tetromino.S_NUM_TYPES;
+        
+        boolean l_is_drawn = f_grid.DrawTetromino(l_tetromino);
+        
+        f_grid.UnDrawTetromino(l_tetromino);
+        
+        return l_is_drawn;
+    }
+    
+    
+}
@@ -0,0 +1,129 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * This class holds the JMH benchmarks of a tetromino's movement: Tetromino.Move(...) and Tetromino.Rotate(...), the
+   latter from placements whose rotation succeeds directly, succeeds only after a kick, or fails after every kick has
+   been tried (see BoardFixtures.FindRotation(...)).
+
+ * Composition:
+     (a). Public Methods (2)
+     (b). Nested Classes (2)
+         (i). Static Nested Classes (2)
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TetrominoBenchmarks
+{
+    
+// (a). Public Methods (2) =============================================================================================
+    
+    /*
+     * This benchmark moves a tetromino across a stack, one column at a time, reversing its direction whenever it can't
+       be moved.
+    */
+    @Benchmark
+    public boolean Move(MoveState a_state)
+    {
+        if (a_state.f_tetromino.Move(a_state.f_dx, 0, a_state.f_engine))
+        { return true; }
+        
+        a_state.f_dx = -a_state.f_dx;
+        return false;
+    }
+    
+    /*
+     * This benchmark restores a tetromino's placement and then rotates it (clockwise, trying the kicks).
+    */
+    @Benchmark
+    public boolean Rotate(RotateState a_state)
+    {
+        a_state.f_tetromino.SetIndexRotation(a_state.f_index_rotation);
+        a_state.f_tetromino.SetPosition(a_state.f_x, a_state.f_y);
+        
+        return a_state.f_tetromino.Rotate(true, true, a_state.f_engine);
+    }
+    
+    
+    
+// (b). Nested Classes (2) =============================================================================================
+    
+    
+// (b)(i). Static Nested Classes (2) -----------------------------------------------------------------------------------
+    
+    /*
+     * The fixture of Move(...): a T tetromino above a stack.
+    */
+    @State(Scope.Thread)
+    public static class MoveState
+    {
+        
+        private final TetrisEngine f_engine = new TetrisEngine(BoardFixtures.S_NUM_ROWS, BoardFixtures.S_NUM_COLUMNS);
+        
+        private final Tetromino f_tetromino = new Tetromino(Tetromino.Type.T);
+        
+        // The direction in which the tetromino is currently moving.
+        private int f_dx = 1;
+        
+        @Setup
+        public void Setup()
+        {
+            BoardFixtures.FillStack(f_engine, 1, 8, 0);
+            f_tetromino.SetPosition(BoardFixtures.S_NUM_COLUMNS / 2, BoardFixtures.S_NUM_ROWS - 11);
+        }
+        
+    }
+    
+    /*
+     * The fixture of Rotate(...): a placement on a stack whose rotation has the given outcome.
+    */
+    @State(Scope.Thread)
+    public static class RotateState
+    {
+        
+        // The outcome of the rotation.
+        @Param({ "Direct", "Kicked", "Blocked" })
+        public BoardFixtures.Rotation f_rotation;
+        
+        private final TetrisEngine f_engine = new TetrisEngine(BoardFixtures.S_NUM_ROWS, BoardFixtures.S_NUM_COLUMNS);
+        
+        private Tetromino f_tetromino;
+        
+        // The placement from which the tetromino is rotated.
+        private int f_x;
+        private int f_y;
+        private int f_index_rotation;
+        
+        @Setup
+        public void Setup()
+        {
+            BoardFixtures.FillStack(f_engine, 2, 10, 0);
+            
+            f_tetromino = BoardFixtures.FindRotation(f_engine, f_rotation);
+            f_x = f_tetromino.GetX();
+            f_y = f_tetromino.GetY();
+            f_index_rotation = f_tetromino.GetIndexRotation();
+        }
+        
+    }
+    
+    
+}
@@ -0,0 +1,185 @@
+package TetrisPackage;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+
+/*
+ * This class tests that a game is reproduced exactly by its replay: a seeded game is played by a HeuristicPolicy and
+   recorded by a ReplayRecorder (as TetrisFrame records one), and the checksum of its state is taken after each step.
+   The recording is then re-simulated by a ReplayPlayer, which must verify it, and seeked to random steps (backwards
+   and forwards, so that keyframes are both restored and skipped), at each of which its state must match the
+   recorded game's.
+
+ * Composition:
+     (a). Fields (5)
+         (i). Static Fields (4)
+     (b). Public Methods (1)
+     (c). Auxiliaries (2)
+*/
+public class ReplayTest
+{
+    
+// (a). Fields (5) =====================================================================================================
+    
+    // The directory in which the recordings are written.
+    @TempDir
+    Path f_directory;
+    
+    
+// (a)(i). Static Fields (4) -------------------------------------------------------------------------------------------
+    
+    // The seed of the recorded game.
+    private static final long s_seed = 20240917L;
+    
+    // The number of tetrominos after which the recorded game is stopped.
+    private static final int s_max_tetrominos = 120;
+    
+    // The number of tetrominos between keyframes (smaller than the default, so that the recording has many).
+    private static final int s_keyframe_interval = 10;
+    
+    // The number of random steps to which the replay is seeked.
+    private static final int s_num_seeks = 200;
+    
+    
+    
+// (b). Public Methods (1) =============================================================================================
+    
+    /*
+     * This test records a game with the given kind of randomizer, and checks that its replay is verified and that the
+       replay's state matches the game's at random steps.
+    */
+    @ParameterizedTest
+    @EnumSource(PieceRandomizer.Kind.class)
+    public void ReplayMatchesGame(PieceRandomizer.Kind a_kind) throws IOException
+    {
+        Path l_path = f_directory.resolve("replay_" + a_kind + ReplayRecorder.S_EXTENSION);
+        
+        long l_checksums[] = Record(l_path, a_kind);
+        
+        ReplayPlayer l_player = new ReplayPlayer(l_path);
+        
+        assertTrue(l_player.Run(), "The replay wasn't verified.");
+        assertEquals(l_checksums.length - 1, l_player.GetGame().GetNumSteps());
+        assertTrue(l_player.GetNumKeyframes() > 1, "The recording has too few keyframes to test seeking.");
+        
+        SplittableRandom l_random = new SplittableRandom(s_seed);
+        
+        for (int i = 0; i < s_num_seeks; ++i)
+        {
+            int l_step = l_random.nextInt(l_checksums.length);
+            
+            l_player.Seek(l_step);
+            
+            assertEquals(l_step, l_player.GetGame().GetNumSteps());
+            assertEquals(l_checksums[l_step], Checksum(l_player.GetGame()),
+                         "The state differs at step " + l_step + ".");
+        }
+    }
+    
+    
+    
+// (c). Auxiliaries (2) ================================================================================================
+    
+    /* Auxiliary of ReplayMatchesGame(...)
+     * This method plays a game with a HeuristicPolicy and records it to the given file: the commands are applied (and
+       recorded) before the step at which they were chosen, and a keyframe is recorded (if due) after each step.
+       
+     * Parameters:
+         > a_path: the file to which the game is recorded.
+         > a_kind: the kind of the game's randomizer.
+         
+     * Return Value:
+         > The checksum of the game's state at each step (see Checksum(...)), after that step's commands were applied.
+    */
+    private static long[] Record(Path a_path, PieceRandomizer.Kind a_kind) throws IOException
+    {
+        TetrisGame l_game = new TetrisGame(GameClock.S_STEP_NANOS_DEFAULT, a_kind.Create());
+        l_game.Reset(s_seed);
+        
+        MovePolicy l_policy = new HeuristicPolicy();
+        l_policy.Reset(l_game);
+        
+        InputQueue.Command l_commands[] = new InputQueue.Command[MovePolicy.S_MAX_NUM_COMMANDS];
+        
+        long l_checksums[] = new long[1024];
+        
+        // The number of tetrominos that had spawned when the policy last chose.
+        int l_num_tetrominos_chosen = 0;
+        
+        ReplayRecorder l_recorder = new ReplayRecorder(a_path, l_game, s_keyframe_interval);
+        
+        while (true)
+        {
+            int l_num_tetrominos = l_game.GetNumTetrominos();
+            
+            if (l_num_tetrominos > s_max_tetrominos)
+            { break; }
+            
+            // If a tetromino has spawned.
+            if (l_num_tetrominos != l_num_tetrominos_chosen)
+            {
+                l_num_tetrominos_chosen = l_num_tetrominos;
+                
+                int l_num_commands = l_policy.Choose(l_game, l_commands);
+                
+                for (int i = 0; i < l_num_commands; ++i)
+                {
+                    l_recorder.Record(l_game.GetNumSteps(), l_commands[i]);
+                    l_game.Apply(l_commands[i]);
+                }
+            }
+            
+            int l_step = (int)l_game.GetNumSteps();
+            
+            if (l_step == l_checksums.length)
+            { l_checksums = Arrays.copyOf(l_checksums, 2 * l_step); }
+            
+            l_checksums[l_step] = Checksum(l_game);
+            
+            if (!l_game.Step())
+            { break; }
+            
+            l_recorder.Update(l_game);
+        }
+        
+        int l_num_steps = (int)l_game.GetNumSteps();
+        
+        l_checksums = Arrays.copyOf(l_checksums, l_num_steps + 1);
+        l_checksums[l_num_steps] = Checksum(l_game);
+        
+        l_game.Publish();
+        l_recorder.Finish(l_num_steps, l_game.GetSnapshot());
+        
+        return l_checksums;
+    }
+    
+    /* Auxiliary of ReplayMatchesGame(...) and Record(...)
+     * This method returns a checksum of the entire state of the given game (see TetrisGame.WriteState(...)). Unlike
+       GameSnapshot.GetChecksum(), this doesn't depend on when the game's snapshots were published.
+    */
+    private static long Checksum(TetrisGame a_game)
+    {
+        ByteBuffer l_state = ByteBuffer.allocate(TetrisGame.S_STATE_SIZE);
+        a_game.WriteState(l_state);
+        
+        CRC32 l_crc = new CRC32();
+        l_crc.update(l_state.array(), 0, l_state.position());
+        
+        return l_crc.getValue();
+    }
+    
+    
+}
@@ -0,0 +1,106 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class is a '7-bag' randomizer (see PieceRandomizer): i.e. the tetrominos are drawn from a 'bag'
+   that contains one of each type, and the bag is refilled once it's empty. Therefore, each consecutive group of seven
+   tetrominos (starting from the first) contains one of each type, at most 12 tetrominos spawn between two of the same
+   type, and at most two of the same type spawn consecutively.
+ * Drawing a random tetromino from those remaining in the bag is equivalent to shuffling the bag when it's filled.
+
+ * Composition:
+     (a). Fields (5)
+         (i). Static Fields (2)
+     (b). Constructors (1)
+     (c). Public Methods (3)
+*/
+public class BagRandomizer
+    implements PieceRandomizer
+{
+    
+// (a). Fields (5) =====================================================================================================
+    
+    // The generator from which the types are drawn.
+    private SplittableRandom f_random;
+    
+    // The ordinals of the types in the bag: the first f_num_remaining elements are those that remain.
+    private final int f_bag[];
+    
+    // The number of tetrominos that remain in the bag.
+    private int f_num_remaining;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    // The seed that's used until Reset(...) is called.
+    private static final long s_seed_default = 0;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * Creates a randomizer with a default seed: i.e. Reset(...) should be called before the first tetromino is drawn.
+    */
+    public BagRandomizer()
+    {
+        f_bag = new int[s_types.length];
+        
+        Reset(s_seed_default);
+    }
+    
+    
+    
+// (c). Public Methods (3) =============================================================================================
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public void Reset(long a_seed)
+    {
+        f_random = new SplittableRandom(a_seed);
+        
+        // Empty the bag, such that it's filled before the next draw.
+        f_num_remaining = 0;
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Tetromino.Type Next()
+    {
+        // Refill the bag.
+        if (f_num_remaining == 0)
+        {
+            for (int i = 0; i < f_bag.length; ++i)
+            { f_bag[i] = i; }
+            
+            f_num_remaining = f_bag.length;
+        }
+        
+        // Remove a random tetromino from the bag by swapping it with the last one that remains.
+        int l_index = f_random.nextInt(f_num_remaining);
+        int l_ordinal = f_bag[l_index];
+        
+        f_bag[l_index] = f_bag[--f_num_remaining];
+        f_bag[f_num_remaining] = l_ordinal;
+        
+        return s_types[l_ordinal];
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Kind GetKind()
+    {
+        return Kind.Bag;
+    }
+    
+    
+}
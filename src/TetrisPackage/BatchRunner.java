@@ -0,0 +1,596 @@
+package TetrisPackage;
+
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/*
+ * An object of this class plays games headlessly (i.e. without any graphical elements), as quickly as possible: each
+   game is played to completion by a policy (see MovePolicy), with each step simulated immediately rather than in real
+   time. This allows engine changes to be validated, and policies (i.e. bots) to be evaluated, over thousands of games.
+ * The games are distributed across a pool of threads. Each thread has its own game and policy, and claims the next
+   unplayed seed from a shared counter; therefore, the threads share no mutable state (besides the counter), and each
+   game's result depends only on its seed.
+ * A batch can be run from the command line: "java TetrisPackage.BatchRunner [--games n] [--seed s] [--threads t]
+   [--randomizer kind] [--max-tetrominos m] [--policy class]".
+
+ * Composition:
+     (a). Fields (7)
+         (i). Static Fields (2)
+     (b). Constructors (2)
+     (c). Public Methods (4)
+     (d). Nested Classes (2)
+         (i). Static Nested Classes (2)
+*/
+public class BatchRunner
+{
+    
+// (a). Fields (7) =====================================================================================================
+    
+    // The factory that creates a policy for each thread.
+    private final Supplier<MovePolicy> f_policy_factory;
+    
+    // The kind of randomizer used by each game.
+    private final PieceRandomizer.Kind f_randomizer;
+    
+    // The number of threads that play the games.
+    private final int f_num_threads;
+    
+    // The number of tetrominos after which a game is stopped (if it isn't already over).
+    private final int f_max_tetrominos;
+    
+    // The length of each of a game's steps (nanoseconds).
+    private final long f_step_nanos;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The default value of f_max_tetrominos.
+    public static final int S_MAX_TETROMINOS_DEFAULT = 10000;
+    
+    // The default number of games that are played by main(...).
+    private static final int s_num_games_default = 1000;
+    
+    
+    
+// (b). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_policy_factory: the factory that creates a policy for each thread.
+         > a_randomizer: the kind of randomizer used by each game.
+         > a_num_threads: the number of threads that play the games.
+         > a_max_tetrominos: the number of tetrominos after which a game is stopped.
+    */
+    public BatchRunner(Supplier<MovePolicy> a_policy_factory, PieceRandomizer.Kind a_randomizer, int a_num_threads,
+                       int a_max_tetrominos)
+    {
+        if (a_num_threads < 1 || a_max_tetrominos < 1)
+        { throw new IllegalArgumentException("The numbers of threads and tetrominos must be positive."); }
+        
+        f_policy_factory = a_policy_factory;
+        f_randomizer = a_randomizer;
+        f_num_threads = a_num_threads;
+        f_max_tetrominos = a_max_tetrominos;
+        f_step_nanos = GameClock.S_STEP_NANOS_DEFAULT;
+    }
+    
+    /* Constructor
+     * Creates a runner that uses the default randomizer, a thread per processor, and S_MAX_TETROMINOS_DEFAULT.
+     
+     * Parameters:
+         > a_policy_factory: the factory that creates a policy for each thread.
+    */
+    public BatchRunner(Supplier<MovePolicy> a_policy_factory)
+    {
+        this(a_policy_factory, PieceRandomizer.Kind.Uniform, Runtime.getRuntime().availableProcessors(),
+             S_MAX_TETROMINOS_DEFAULT);
+    }
+    
+    
+    
+// (c). Public Methods (4) =============================================================================================
+    
+    /*
+     * This method plays a game with each of the given seeds, and blocks until they're all over.
+     
+     * Parameters:
+         > a_seeds: the seed of each game.
+         
+     * Return Value:
+         > A summary of the results, which are in the same order as a_seeds.
+    */
+    public Summary Run(long a_seeds[]) throws InterruptedException
+    {
+        GameResult l_results[] = new GameResult[a_seeds.length];
+        
+        // The index of the next seed that's to be played.
+        AtomicInteger l_index_next = new AtomicInteger();
+        
+        ExecutorService l_executor = Executors.newFixedThreadPool(f_num_threads, r ->
+        {
+            Thread l_thread = new Thread(r, "BatchRunner");
+            l_thread.setDaemon(true);
+            return l_thread;
+        });
+        
+        long l_time_start = System.nanoTime();
+        
+        try
+        {
+            Future<?> l_futures[] = new Future<?>[f_num_threads];
+            
+            for (int i = 0; i < f_num_threads; ++i)
+            {
+                l_futures[i] = l_executor.submit(() ->
+                {
+                    TetrisGame l_game = new TetrisGame(f_step_nanos, f_randomizer.Create());
+                    MovePolicy l_policy = f_policy_factory.get();
+                    InputQueue.Command l_commands[] = new InputQueue.Command[MovePolicy.S_MAX_NUM_COMMANDS];
+                    
+                    for (int l_index = l_index_next.getAndIncrement(); l_index < a_seeds.length;
+                         l_index = l_index_next.getAndIncrement())
+                    { l_results[l_index] = Play(l_game, l_policy, a_seeds[l_index], f_max_tetrominos, l_commands); }
+                });
+            }
+            
+            // Wait for the threads (which also makes their results visible to this thread).
+            for (Future<?> l_future : l_futures)
+            { l_future.get(); }
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("A game couldn't be played.", e.getCause());
+        }
+        finally
+        {
+            l_executor.shutdownNow();
+        }
+        
+        return new Summary(l_results, System.nanoTime() - l_time_start, f_num_threads);
+    }
+    
+    /*
+     * This method plays a game with each of the given number of consecutive seeds (see Run(long[])).
+     
+     * Parameters:
+         > a_seed_first: the seed of the first game.
+         > a_num_games: the number of games.
+    */
+    public Summary Run(long a_seed_first, int a_num_games) throws InterruptedException
+    {
+        long l_seeds[] = new long[a_num_games];
+        
+        for (int i = 0; i < a_num_games; ++i)
+        { l_seeds[i] = a_seed_first + i; }
+        
+        return Run(l_seeds);
+    }
+    
+    /*
+     * This method plays a single game to completion (on the calling thread): i.e. each time a tetromino spawns, the
+       commands chosen by the policy are applied, and the game is stepped until it's over (or the given number of
+       tetrominos have spawned).
+       
+     * Parameters:
+         > a_game: the game; it's reset with the given seed.
+         > a_policy: the policy that plays the game.
+         > a_seed: the game's seed.
+         > a_max_tetrominos: the number of tetrominos after which the game is stopped.
+         > a_commands: a buffer into which the policy writes its commands (of length MovePolicy.S_MAX_NUM_COMMANDS).
+         
+     * Return Value:
+         > The game's result.
+    */
+    public static GameResult Play(TetrisGame a_game, MovePolicy a_policy, long a_seed, int a_max_tetrominos,
+                                  InputQueue.Command a_commands[])
+    {
+        a_game.Reset(a_seed);
+        a_policy.Reset(a_game);
+        
+        // The number of tetrominos that had spawned when the policy last chose.
+        int l_num_tetrominos_chosen = 0;
+        
+        while (true)
+        {
+            int l_num_tetrominos = a_game.GetNumTetrominos();
+            
+            if (l_num_tetrominos > a_max_tetrominos)
+            { break; }
+            
+            // If a tetromino has spawned.
+            if (l_num_tetrominos != l_num_tetrominos_chosen)
+            {
+                l_num_tetrominos_chosen = l_num_tetrominos;
+                
+                int l_num_commands = a_policy.Choose(a_game, a_commands);
+                
+                for (int i = 0; i < l_num_commands; ++i)
+                { a_game.Apply(a_commands[i]); }
+            }
+            
+            if (!a_game.Step())
+            { break; }
+        }
+        
+        a_game.Publish();
+        GameSnapshot l_snapshot = a_game.GetSnapshot();
+        
+        return new GameResult(a_seed, l_snapshot.GetScore(), l_snapshot.GetNumLinesCleared(), l_snapshot.GetLevel(),
+                              a_game.GetNumTetrominos(), a_game.GetNumSteps(), a_game.IsGameOver());
+    }
+    
+    /*
+     * This method plays a batch of games and prints a summary of the results (see the class description for the
+       arguments).
+    */
+    public static void main(String[] a_args) throws Exception
+    {
+        int l_num_games = s_num_games_default;
+        long l_seed = 1;
+        int l_num_threads = Runtime.getRuntime().availableProcessors();
+        PieceRandomizer.Kind l_randomizer = PieceRandomizer.Kind.Uniform;
+        int l_max_tetrominos = S_MAX_TETROMINOS_DEFAULT;
+        String l_policy = RandomPolicy.class.getName();
+        
+        for (int i = 0; i + 1 < a_args.length; i += 2)
+        {
+            String l_value = a_args[i + 1];
+            
+            switch (a_args[i])
+            {
+                case "--games":
+                    l_num_games = Integer.parseInt(l_value);
+                    break;
+                case "--seed":
+                    l_seed = Long.parseLong(l_value);
+                    break;
+                case "--threads":
+                    l_num_threads = Integer.parseInt(l_value);
+                    break;
+                case "--randomizer":
+                    l_randomizer = PieceRandomizer.Kind.valueOf(l_value);
+                    break;
+                case "--max-tetrominos":
+                    l_max_tetrominos = Integer.parseInt(l_value);
+                    break;
+                case "--policy":
+                    l_policy = l_value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + a_args[i]);
+            }
+        }
+        
+        Class<? extends MovePolicy> l_policy_class = Class.forName(l_policy).asSubclass(MovePolicy.class);
+        
+        Supplier<MovePolicy> l_policy_factory = () ->
+        {
+            try
+            { return l_policy_class.getDeclaredConstructor().newInstance(); }
+            catch (ReflectiveOperationException e)
+            { throw new IllegalStateException("The policy couldn't be created.", e); }
+        };
+        
+        BatchRunner l_runner = new BatchRunner(l_policy_factory, l_randomizer, l_num_threads, l_max_tetrominos);
+        
+        System.out.println(l_runner.Run(l_seed, l_num_games));
+    }
+    
+    
+    
+// (d). Nested Classes (2) =============================================================================================
+    
+    
+// (d)(i). Static Nested Classes (2) -----------------------------------------------------------------------------------
+    
+    /*
+     * An object of this class is the (immutable) result of a game played by a BatchRunner.
+    */
+    public static final class GameResult
+    {
+        
+        // The game's seed.
+        private final long f_seed;
+        
+        // The game's score, number of lines cleared, and final level.
+        private final long f_score;
+        private final int f_num_lines_cleared;
+        private final int f_level;
+        
+        // The number of tetrominos that spawned, and the number of steps that elapsed.
+        private final int f_num_tetrominos;
+        private final long f_num_steps;
+        
+        // A flag that, when true, indicates that the game ended (rather than being stopped).
+        private final boolean f_is_game_over;
+        
+        /* Constructor
+         
+         * Parameters:
+             > a_seed: the game's seed.
+             > a_score: the game's score.
+             > a_num_lines_cleared: the number of lines cleared.
+             > a_level: the final level.
+             > a_num_tetrominos: the number of tetrominos that spawned.
+             > a_num_steps: the number of steps that elapsed.
+             > a_is_game_over: a flag that, when true, indicates that the game ended (rather than being stopped).
+        */
+        public GameResult(long a_seed, long a_score, int a_num_lines_cleared, int a_level, int a_num_tetrominos,
+                          long a_num_steps, boolean a_is_game_over)
+        {
+            f_seed = a_seed;
+            f_score = a_score;
+            f_num_lines_cleared = a_num_lines_cleared;
+            f_level = a_level;
+            f_num_tetrominos = a_num_tetrominos;
+            f_num_steps = a_num_steps;
+            f_is_game_over = a_is_game_over;
+        }
+        
+        /* Accessor of f_seed
+        */
+        public long GetSeed()
+        {
+            return f_seed;
+        }
+        
+        /* Accessor of f_score
+        */
+        public long GetScore()
+        {
+            return f_score;
+        }
+        
+        /* Accessor of f_num_lines_cleared
+        */
+        public int GetNumLinesCleared()
+        {
+            return f_num_lines_cleared;
+        }
+        
+        /* Accessor of f_level
+        */
+        public int GetLevel()
+        {
+            return f_level;
+        }
+        
+        /* Accessor of f_num_tetrominos
+        */
+        public int GetNumTetrominos()
+        {
+            return f_num_tetrominos;
+        }
+        
+        /* Accessor of f_num_steps
+        */
+        public long GetNumSteps()
+        {
+            return f_num_steps;
+        }
+        
+        /* Accessor of f_is_game_over
+        */
+        public boolean IsGameOver()
+        {
+            return f_is_game_over;
+        }
+        
+    }
+    
+    /*
+     * An object of this class summarises the results of a batch of games: i.e. the throughput, and the distribution
+       of the scores and numbers of lines cleared.
+    */
+    public static final class Summary
+    {
+        
+        // The result of each game.
+        private final GameResult f_results[];
+        
+        // The time (nanoseconds) taken to play the games, and the number of threads that played them.
+        private final long f_duration;
+        private final int f_num_threads;
+        
+        // The scores and numbers of lines cleared, in ascending order.
+        private final long f_scores_sorted[];
+        private final long f_lines_sorted[];
+        
+        // The total number of tetrominos that spawned.
+        private final long f_num_tetrominos;
+        
+        /* Constructor
+         
+         * Parameters:
+             > a_results: the result of each game.
+             > a_duration: the time (nanoseconds) taken to play the games.
+             > a_num_threads: the number of threads that played the games.
+        */
+        public Summary(GameResult a_results[], long a_duration, int a_num_threads)
+        {
+            f_results = a_results;
+            f_duration = a_duration;
+            f_num_threads = a_num_threads;
+            
+            f_scores_sorted = new long[a_results.length];
+            f_lines_sorted = new long[a_results.length];
+            
+            long l_num_tetrominos = 0;
+            
+            for (int i = 0; i < a_results.length; ++i)
+            {
+                f_scores_sorted[i] = a_results[i].GetScore();
+                f_lines_sorted[i] = a_results[i].GetNumLinesCleared();
+                l_num_tetrominos += a_results[i].GetNumTetrominos();
+            }
+            
+            Arrays.sort(f_scores_sorted);
+            Arrays.sort(f_lines_sorted);
+            
+            f_num_tetrominos = l_num_tetrominos;
+        }
+        
+        /*
+         * This method returns the result of the game at the given index (i.e. the game of the seed at that index).
+        */
+        public GameResult GetResult(int a_index)
+        {
+            return f_results[a_index];
+        }
+        
+        /*
+         * This method returns the number of games.
+        */
+        public int GetNumGames()
+        {
+            return f_results.length;
+        }
+        
+        /*
+         * This method returns the number of games that were stopped (rather than ending).
+        */
+        public int GetNumGamesStopped()
+        {
+            int l_num_stopped = 0;
+            
+            for (GameResult l_result : f_results)
+            {
+                if (!l_result.IsGameOver())
+                { ++l_num_stopped; }
+            }
+            
+            return l_num_stopped;
+        }
+        
+        /*
+         * This method returns the number of games played per second.
+        */
+        public double GetGamesPerSecond()
+        {
+            return f_results.length * 1e9 / f_duration;
+        }
+        
+        /*
+         * This method returns the number of tetrominos placed per second.
+        */
+        public double GetTetrominosPerSecond()
+        {
+            return f_num_tetrominos * 1e9 / f_duration;
+        }
+        
+        /*
+         * This method returns the mean score.
+        */
+        public double GetScoreMean()
+        {
+            return Mean(f_scores_sorted);
+        }
+        
+        /*
+         * This method returns the (population) standard deviation of the scores.
+        */
+        public double GetScoreDeviation()
+        {
+            return Deviation(f_scores_sorted);
+        }
+        
+        /*
+         * This method returns the given percentile of the scores (by the nearest-rank method): e.g. 50 is the median.
+        */
+        public long GetScorePercentile(double a_percentile)
+        {
+            return Percentile(f_scores_sorted, a_percentile);
+        }
+        
+        /*
+         * This method returns the mean number of lines cleared.
+        */
+        public double GetLinesMean()
+        {
+            return Mean(f_lines_sorted);
+        }
+        
+        /*
+         * This method returns a (multi-line) report of the throughput and the distributions of the results.
+        */
+        @Override
+        public String toString()
+        {
+            return String.format("Games: %d (%d stopped) on %d threads in %.3fs%n" +
+                                 "Throughput: %.1f games/s, %.0f tetrominos/s%n" +
+                                 "%s%n%s",
+                                 f_results.length, GetNumGamesStopped(), f_num_threads, f_duration / 1e9,
+                                 GetGamesPerSecond(), GetTetrominosPerSecond(),
+                                 Describe("Score", f_scores_sorted), Describe("Lines", f_lines_sorted));
+        }
+        
+        /*
+         * This method returns a line that describes the distribution of the given (sorted) values.
+        */
+        private static String Describe(String a_name, long a_values_sorted[])
+        {
+            return String.format("%s: mean %.1f, sd %.1f, min %d, p10 %d, p50 %d, p90 %d, p99 %d, max %d", a_name,
+                                 Mean(a_values_sorted), Deviation(a_values_sorted), Percentile(a_values_sorted, 0),
+                                 Percentile(a_values_sorted, 10), Percentile(a_values_sorted, 50),
+                                 Percentile(a_values_sorted, 90), Percentile(a_values_sorted, 99),
+                                 Percentile(a_values_sorted, 100));
+        }
+        
+        /*
+         * This method returns the mean of the given values (0 if there are none).
+        */
+        private static double Mean(long a_values[])
+        {
+            if (a_values.length == 0)
+            { return 0; }
+            
+            double l_sum = 0;
+            
+            for (long l_value : a_values)
+            { l_sum += l_value; }
+            
+            return l_sum / a_values.length;
+        }
+        
+        /*
+         * This method returns the (population) standard deviation of the given values (0 if there are none).
+        */
+        private static double Deviation(long a_values[])
+        {
+            if (a_values.length == 0)
+            { return 0; }
+            
+            double l_mean = Mean(a_values);
+            double l_sum_squares = 0;
+            
+            for (long l_value : a_values)
+            { l_sum_squares += (l_value - l_mean) * (l_value - l_mean); }
+            
+            return Math.sqrt(l_sum_squares / a_values.length);
+        }
+        
+        /*
+         * This method returns the given percentile (0 to 100) of the given sorted values (0 if there are none).
+        */
+        private static long Percentile(long a_values_sorted[], double a_percentile)
+        {
+            if (a_values_sorted.length == 0)
+            { return 0; }
+            
+            int l_rank = (int)Math.ceil(a_percentile / 100 * a_values_sorted.length);
+            
+            return a_values_sorted[Math.max(0, Math.min(a_values_sorted.length - 1, l_rank - 1))];
+        }
+        
+    }
+    
+    
+}
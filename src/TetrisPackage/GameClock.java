@@ -0,0 +1,146 @@
+
+package TetrisPackage;
+
+
+/*
+ * An object of this class is a fixed-timestep clock: i.e. it divides (real) time into 'steps' of equal length, and
+   reports how many steps have elapsed since it was last queried. All of the game's timers (gravity, locking, etc.)
+   are expressed as a number of steps, so they all run against the same clock.
+ * The clock is based on System.nanoTime(). Time that elapses between steps is kept in an 'accumulator' rather than
+   being discarded, so any time spent processing a step (e.g. clearing lines) doesn't cause the clock to drift: if a
+   step runs late, the next call to Advance() simply reports more steps.
+
+ * Composition:
+     (a). Fields (6)
+         (i). Static Fields (2)
+     (b). Constructors (2)
+     (c). Public Methods (4)
+         (i). Accessors (1)
+*/
+public class GameClock
+{
+    
+// (a). Fields (6) =====================================================================================================
+    
+    // The length of each step (nanoseconds).
+    private final long f_step_nanos;
+    
+    // The value of System.nanoTime() when Advance() (or Reset()) was last called.
+    private long f_time_last;
+    
+    /* The Accumulator
+     * The amount of time (nanoseconds) that has elapsed but hasn't yet been consumed by a step.
+    */
+    private long f_accumulator;
+    
+    // The maximum number of steps that Advance() reports at once.
+    private final int f_max_steps_per_advance;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    /*
+     * The default length of a step (nanoseconds): i.e. the clock runs at 200 steps per second.
+     * All of the game's periods (which are in milliseconds) are multiples of 5ms, so they're represented exactly.
+    */
+    public static final long S_STEP_NANOS_DEFAULT = 5000000L;
+    
+    /*
+     * The default value of f_max_steps_per_advance.
+     * If the game thread stalls (e.g. the machine is suspended) it shouldn't try to 'catch up' with an arbitrarily large
+       number of steps; the excess time is discarded instead.
+    */
+    private static final int S_MAX_STEPS_PER_ADVANCE_DEFAULT = 40;
+    
+    
+    
+// (b). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     * Creates a clock that runs at the default step length.
+    */
+    public GameClock()
+    {
+        this(S_STEP_NANOS_DEFAULT, S_MAX_STEPS_PER_ADVANCE_DEFAULT);
+    }
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_step_nanos: the length of each step (nanoseconds).
+         > a_max_steps_per_advance: the maximum number of steps that Advance() reports at once.
+    */
+    public GameClock(long a_step_nanos, int a_max_steps_per_advance)
+    {
+        f_step_nanos = a_step_nanos;
+        f_max_steps_per_advance = a_max_steps_per_advance;
+        
+        Reset();
+    }
+    
+    
+    
+// (c). Public Methods (4) =============================================================================================
+    
+    /*
+     * This method restarts the clock from the current time: i.e. any time that has elapsed but hasn't been consumed is
+       discarded. This should be called when the game starts or resumes (after being paused).
+    */
+    public void Reset()
+    {
+        f_time_last = System.nanoTime();
+        f_accumulator = 0;
+    }
+    
+    /*
+     * This method adds the time that has elapsed since the last call to the accumulator and returns the number of
+       (whole) steps that are now due. The time of these steps is removed from the accumulator.
+    */
+    public int Advance()
+    {
+        long l_time_now = System.nanoTime();
+        
+        f_accumulator += l_time_now - f_time_last;
+        f_time_last = l_time_now;
+        
+        long l_num_steps = f_accumulator / f_step_nanos;
+        
+        if (l_num_steps > f_max_steps_per_advance)
+        {
+            // Discard the excess time.
+            f_accumulator = 0;
+            return f_max_steps_per_advance;
+        }
+        
+        f_accumulator -= l_num_steps * f_step_nanos;
+        
+        return (int)l_num_steps;
+    }
+    
+    /*
+     * This method causes the calling thread to sleep until the next step is due.
+     * An InterruptedException is thrown if the calling thread has been interrupted, even if no sleep is required.
+    */
+    public void WaitForNextStep() throws InterruptedException
+    {
+        if (Thread.interrupted())
+        { throw new InterruptedException(); }
+        
+        long l_nanos_remaining = f_step_nanos - f_accumulator - (System.nanoTime() - f_time_last);
+        
+        if (l_nanos_remaining > 0)
+        { Thread.sleep(l_nanos_remaining / 1000000L, (int)(l_nanos_remaining % 1000000L)); }
+    }
+    
+    
+// (c)(i). Accessors (1) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_step_nanos
+    */
+    public long GetStepNanos()
+    {
+        return f_step_nanos;
+    }
+    
+    
+}
@@ -0,0 +1,336 @@
+
+package TetrisPackage;
+
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+
+/*
+ * An object of this class is an immutable copy of the state of a TetrisGame at a particular point in time: i.e. the
+   tiles of the board, the active tetromino (and its ghost), the score, number of lines cleared, level, upcoming
+   tetrominos, and the tally of each type of tetromino.
+ * A TetrisGame publishes a snapshot (via a single volatile reference) after its state changes, and the graphical
+   elements read only the latest snapshot. As a snapshot is never modified after it's created, the game thread and
+   the event dispatch thread never share mutable state, and the graphics can be updated at their own rate.
+ * Tetromino types are stored as bytes in the same format as TetrisEngine: S_TYPE_NONE (TetrisEngine.S_TYPE_EMPTY) or
+   the ordinal of the type plus one.
+
+ * Composition:
+     (a). Fields (16)
+         (i). Static Fields (2)
+     (b). Constructors (1)
+     (c). Public Methods (20)
+         (i). Accessors (17)
+*/
+public final class GameSnapshot
+{
+    
+// (a). Fields (16) ====================================================================================================
+    
+    // The number of the snapshot: each snapshot published by a game has a higher number than the one before it.
+    private final long f_sequence;
+    
+    /* The Cells
+     * The type value of each tile of the board (excluding the active tetromino), row by row: i.e. the value of the
+       tile at (col,row) is f_cells[row * f_num_columns + col].
+    */
+    private final byte f_cells[];
+    
+    // The dimensions of the board.
+    private final int f_num_rows;
+    private final int f_num_columns;
+    
+    // The type value of the active tetromino (S_TYPE_NONE if there isn't one).
+    private final byte f_type_active;
+    
+    /*
+     * The coordinates of the active tetromino's tiles: i.e. the coordinate of tile i is (f_tiles_active[2 * i],
+       f_tiles_active[2 * i + 1]).
+    */
+    private final int f_tiles_active[];
+    
+    // The number of rows the active tetromino can fall before it lands: i.e. the offset of its 'ghost'.
+    private final int f_ghost_distance;
+    
+    /*
+     * The type values of the upcoming tetrominos (TetrisGame.S_MAX_NUM_PREVIEWS of them), in the order in which they'll
+       spawn (S_TYPE_NONE if there isn't one).
+    */
+    private final byte f_types_next[];
+    
+    // The score, number of lines cleared, and level.
+    private final long f_score;
+    private final int f_num_lines_cleared;
+    private final int f_level;
+    
+    // The number of each type of tetromino that has spawned (indexed by Tetromino.Type ordinal).
+    private final int f_tallies[];
+    
+    // The number of steps that had elapsed since the game began (see TetrisGame.Step()).
+    private final long f_num_steps;
+    
+    // A flag that, when true, indicates that the game is over.
+    private final boolean f_is_game_over;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The type value that indicates the absence of a tetromino.
+    public static final byte S_TYPE_NONE = TetrisEngine.S_TYPE_EMPTY;
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * Copies the relevant state of a game.
+     
+     * Parameters:
+         > a_sequence: the number of the snapshot.
+         > a_engine: the game's board.
+         > a_active: the active tetromino (may be null).
+         > a_types_next: the type values of the upcoming tetrominos (the snapshot takes ownership of the array).
+         > a_score: the score.
+         > a_num_lines_cleared: the number of lines cleared.
+         > a_level: the level.
+         > a_tallies: the number of each type of tetromino that has spawned.
+         > a_num_steps: the number of steps that have elapsed since the game began.
+         > a_is_game_over: a flag that, when true, indicates that the game is over.
+    */
+    GameSnapshot(long a_sequence, TetrisEngine a_engine, Tetromino a_active, byte a_types_next[], long a_score,
+                 int a_num_lines_cleared, int a_level, int a_tallies[], long a_num_steps, boolean a_is_game_over)
+    {
+        f_sequence = a_sequence;
+        
+        f_num_rows = a_engine.GetNumRows();
+        f_num_columns = a_engine.GetNumColumns();
+        f_cells = new byte[f_num_rows * f_num_columns];
+        a_engine.CopyCells(f_cells);
+        
+        f_tiles_active = new int[2 * Tetromino.S_NUM_TILES];
+        if (a_active != null)
+        {
+            f_type_active = (byte)(a_active.GetType().ordinal() + 1);
+            
+            for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+            {
+                f_tiles_active[2 * i] = a_active.GetTileX(i);
+                f_tiles_active[2 * i + 1] = a_active.GetTileY(i);
+            }
+            
+            f_ghost_distance = a_active.GetDropDistance(a_engine);
+        }
+        else
+        {
+            f_type_active = S_TYPE_NONE;
+            f_ghost_distance = 0;
+        }
+        
+        f_types_next = a_types_next;
+        
+        f_score = a_score;
+        f_num_lines_cleared = a_num_lines_cleared;
+        f_level = a_level;
+        f_tallies = a_tallies.clone();
+        f_num_steps = a_num_steps;
+        f_is_game_over = a_is_game_over;
+    }
+    
+    
+    
+// (c). Public Methods (20) ============================================================================================
+    
+    /*
+     * This method returns the type of the given tetromino type value (null if it's S_TYPE_NONE).
+     
+     * Parameters:
+         > a_type: a type value (S_TYPE_NONE or the ordinal of a type plus one).
+    */
+    public static Tetromino.Type ToType(byte a_type)
+    {
+        return (a_type == S_TYPE_NONE) ? null : s_types[a_type - 1];
+    }
+    
+    /*
+     * This method returns a flag that, when true, indicates that the active tetromino has a tile at the given
+       coordinate.
+       
+     * Parameters:
+         > a_x: the x-coordinate (column).
+         > a_y: the y-coordinate (row).
+    */
+    public boolean IsActiveAt(int a_x, int a_y)
+    {
+        if (f_type_active == S_TYPE_NONE)
+        { return false; }
+        
+        for (int i = 0; i < 2 * Tetromino.S_NUM_TILES; i += 2)
+        {
+            if (f_tiles_active[i] == a_x && f_tiles_active[i + 1] == a_y)
+            { return true; }
+        }
+        
+        return false;
+    }
+    
+    /*
+     * This method returns a checksum of the state of the game: i.e. the board, the active and upcoming tetrominos, 
+       the score, number of lines cleared, level, tallies, and number of steps. Two snapshots with the same checksum are
+       (almost certainly) of the same state, which allows a replay to be verified (see ReplayPlayer).
+    */
+    public long GetChecksum()
+    {
+        ByteBuffer l_buffer = ByteBuffer.allocate(f_cells.length + 1 + f_types_next.length + Integer.BYTES * 
+                                                  (f_tiles_active.length + f_tallies.length + 2) + Long.BYTES * 2);
+        
+        l_buffer.put(f_cells).put(f_type_active).put(f_types_next);
+        
+        for (int l_value : f_tiles_active)
+        { l_buffer.putInt(l_value); }
+        
+        for (int l_tally : f_tallies)
+        { l_buffer.putInt(l_tally); }
+        
+        l_buffer.putLong(f_score).putInt(f_num_lines_cleared).putInt(f_level).putLong(f_num_steps);
+        
+        CRC32 l_crc = new CRC32();
+        l_crc.update(l_buffer.array(), 0, l_buffer.position());
+        
+        return l_crc.getValue();
+    }
+    
+    
+// (c)(i). Accessors (17) ----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_sequence
+    */
+    public long GetSequence()
+    {
+        return f_sequence;
+    }
+    
+    /* Accessor of f_cells
+     * This method returns the type value of the tile at the given coordinate (excluding the active tetromino).
+    */
+    public byte GetCell(int a_x, int a_y)
+    {
+        return f_cells[a_y * f_num_columns + a_x];
+    }
+    
+    /* Accessor of f_num_rows
+    */
+    public int GetNumRows()
+    {
+        return f_num_rows;
+    }
+    
+    /* Accessor of f_num_columns
+    */
+    public int GetNumColumns()
+    {
+        return f_num_columns;
+    }
+    
+    /* Accessor of f_type_active
+    */
+    public byte GetTypeActive()
+    {
+        return f_type_active;
+    }
+    
+    /* Accessor of f_tiles_active
+     * This method returns the x-coordinate of the active tetromino's tile at the given index (0 to S_NUM_TILES - 1).
+    */
+    public int GetTileActiveX(int a_index)
+    {
+        return f_tiles_active[2 * a_index];
+    }
+    
+    /* Accessor of f_tiles_active
+     * This method returns the y-coordinate of the active tetromino's tile at the given index (0 to S_NUM_TILES - 1).
+    */
+    public int GetTileActiveY(int a_index)
+    {
+        return f_tiles_active[2 * a_index + 1];
+    }
+    
+    /* Accessor of f_ghost_distance
+    */
+    public int GetGhostDistance()
+    {
+        return f_ghost_distance;
+    }
+    
+    /* Accessor of f_types_next
+     * This method returns the type value of the next tetromino.
+    */
+    public byte GetTypeNext()
+    {
+        return f_types_next[0];
+    }
+    
+    /* Accessor of f_types_next
+     * This method returns the type value of the upcoming tetromino at the given index (0 is the next tetromino).
+    */
+    public byte GetTypeNext(int a_index)
+    {
+        return f_types_next[a_index];
+    }
+    
+    /* Accessor of f_types_next
+     * This method returns the number of upcoming tetrominos in the snapshot.
+    */
+    public int GetNumNext()
+    {
+        return f_types_next.length;
+    }
+    
+    /* Accessor of f_score
+    */
+    public long GetScore()
+    {
+        return f_score;
+    }
+    
+    /* Accessor of f_num_lines_cleared
+    */
+    public int GetNumLinesCleared()
+    {
+        return f_num_lines_cleared;
+    }
+    
+    /* Accessor of f_level
+    */
+    public int GetLevel()
+    {
+        return f_level;
+    }
+    
+    /* Accessor of f_tallies
+     * This method returns the number of tetrominos of the given type (ordinal) that have spawned.
+    */
+    public int GetTally(int a_index_type)
+    {
+        return f_tallies[a_index_type];
+    }
+    
+    /* Accessor of f_num_steps
+    */
+    public long GetNumSteps()
+    {
+        return f_num_steps;
+    }
+    
+    /* Accessor of f_is_game_over
+    */
+    public boolean IsGameOver()
+    {
+        return f_is_game_over;
+    }
+    
+    
+}
@@ -0,0 +1,485 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+
+/*
+ * An object of this class is a policy (see MovePolicy) that places each tetromino where it leaves the 'best' board:
+   i.e. every placement that can be reached by rotating the tetromino, moving it horizontally, and hard-dropping it is
+   evaluated, and the placement whose resulting board has the highest score is chosen.
+ * A board's score is the weighted sum of its features (see Feature), where the weights are typically negative for
+   the features that make a board harder to play (e.g. holes) and positive for lines cleared.
+ * The placements are enumerated from the tetromino's current position: for each of the four rotation sequences (none,
+   clockwise, clockwise twice, and anticlockwise), the tetromino is rotated (with kicks, as by TetrisGame) and then
+   moved to each column that it can reach. Therefore, the chosen commands always produce the evaluated placement.
+ * The placements of each rotation sequence are evaluated by a separate task, and the tasks can be run in parallel on
+   a ForkJoinPool. Each task owns the (scratch) tetrominos and buffers that it evaluates placements with, which are
+   created with the policy; therefore, neither evaluating a placement nor choosing one allocates any objects.
+ * If two placements have the same score, the one that's enumerated first is chosen, such that the choice doesn't
+   depend on the order in which the tasks finish (i.e. the policy is deterministic).
+
+ * Composition:
+     (a). Enums (1)
+     (b). Fields (13)
+         (i). Static Fields (3)
+     (c). Constructors (3)
+     (d). Public Methods (6)
+         (i). Accessors (2)
+     (e). Nested Classes (2)
+         (i). Inner Classes (2)
+*/
+public class HeuristicPolicy
+    implements MovePolicy
+{
+    
+// (a). Enums (1) ======================================================================================================
+    
+    /*
+     * The features of a board (after a tetromino has been placed and any full lines have been cleared):
+         > AggregateHeight: the sum of the columns' heights, where a column's height is the distance from the floor to
+                            the top of its highest tile.
+         > Holes: the number of empty tiles that have at least one occupied tile above them (in the same column).
+         > Bumpiness: the sum of the differences in height between adjacent columns.
+         > Wells: the sum, for each column that's lower than both of its neighbours (or walls), of 1 + 2 + ... + d,
+                  where d is the column's depth beneath its lower neighbour; deep wells are therefore penalised more
+                  than several shallow ones.
+         > LinesCleared: the number of lines cleared by the placement.
+    */
+    public enum Feature
+    { AggregateHeight, Holes, Bumpiness, Wells, LinesCleared }
+    
+    
+    
+// (b). Fields (13) ====================================================================================================
+    
+    // The weight of each feature (indexed by Feature.ordinal()).
+    private final double f_weights[];
+    
+    // The pool on which the tasks are run (null if they're run on the calling thread).
+    private final ForkJoinPool f_pool;
+    
+    // The task that evaluates the placements of each rotation sequence, and the task that runs them all.
+    private final RotationTask f_tasks[];
+    private final SearchTask f_search;
+    
+    /*
+     * The occupancy bitmask of each row of the board on which the current tetromino is to be placed (see
+       TetrisEngine.GetRowMask(...)); this is written by Choose(...) and only read by the tasks.
+    */
+    private final int f_board[];
+    
+    // The board, and the current tetromino's type and placement, which are only read by the tasks.
+    private TetrisEngine f_engine;
+    private Tetromino.Type f_type;
+    private int f_x;
+    private int f_y;
+    private int f_index_rotation;
+    
+    
+// (b)(i). Static Fields (3) -------------------------------------------------------------------------------------------
+    
+    // The number of rotation sequences (see the class description).
+    private static final int s_num_rotation_sequences = 4;
+    
+    // The number of features.
+    public static final int S_NUM_FEATURES = Feature.values().length;
+    
+    /*
+     * The default weights (indexed by Feature.ordinal()), which are derived from those of a well-known genetically
+       tuned player (with a small penalty for wells).
+    */
+    private static final double s_weights_default[] = { -0.510066, -0.35663, -0.184483, -0.02, 0.760666 };
+    
+    
+    
+// (c). Constructors (3) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_weights: the weight of each feature (indexed by Feature.ordinal()); it's copied.
+         > a_pool: the pool on which the placements are evaluated in parallel; if null, they're evaluated on the
+                   thread that calls Choose(...) (which is preferable when many games are being played in parallel,
+                   such as by a BatchRunner).
+    */
+    public HeuristicPolicy(double a_weights[], ForkJoinPool a_pool)
+    {
+        if (a_weights.length != S_NUM_FEATURES)
+        { throw new IllegalArgumentException("There must be a weight for each of the features."); }
+        
+        f_weights = a_weights.clone();
+        f_pool = a_pool;
+        
+        f_board = new int[TetrisGame.S_NUM_ROWS];
+        
+        f_tasks = new RotationTask[s_num_rotation_sequences];
+        for (int i = 0; i < s_num_rotation_sequences; ++i)
+        { f_tasks[i] = new RotationTask(i); }
+        
+        f_search = new SearchTask();
+    }
+    
+    /* Constructor
+     * Creates a policy with the default weights that evaluates the placements on the given pool (see above).
+    */
+    public HeuristicPolicy(ForkJoinPool a_pool)
+    {
+        this(s_weights_default, a_pool);
+    }
+    
+    /* Constructor
+     * Creates a policy with the default weights that evaluates the placements on the calling thread.
+    */
+    public HeuristicPolicy()
+    {
+        this(s_weights_default, null);
+    }
+    
+    
+    
+// (d). Public Methods (6) =============================================================================================
+    
+    /* Implementation of MovePolicy
+    */
+    @Override
+    public void Reset(TetrisGame a_game)
+    {
+    }
+    
+    /* Implementation of MovePolicy
+    */
+    @Override
+    public int Choose(TetrisGame a_game, InputQueue.Command a_commands[])
+    {
+        Tetromino l_tetromino = a_game.GetTetromino();
+        
+        if (l_tetromino == null)
+        { return 0; }
+        
+        f_engine = a_game.GetEngine();
+        f_type = l_tetromino.GetType();
+        f_x = l_tetromino.GetX();
+        f_y = l_tetromino.GetY();
+        f_index_rotation = l_tetromino.GetIndexRotation();
+        
+        for (int row = 0; row < f_board.length; ++row)
+        { f_board[row] = f_engine.GetRowMask(row); }
+        
+        if (f_pool == null)
+        {
+            for (RotationTask l_task : f_tasks)
+            { l_task.Search(); }
+        }
+        else
+        {
+            f_search.reinitialize();
+            f_pool.invoke(f_search);
+        }
+        
+        // Choose the best placement (the first, in the case of a tie).
+        RotationTask l_best = null;
+        for (RotationTask l_task : f_tasks)
+        {
+            if (l_task.f_is_found && (l_best == null || l_task.f_score_best > l_best.f_score_best))
+            { l_best = l_task; }
+        }
+        
+        f_engine = null;
+        
+        // If the tetromino can't be placed anywhere (i.e. the game is about to end), drop it where it is.
+        if (l_best == null)
+        {
+            a_commands[0] = InputQueue.Command.HardDrop;
+            return 1;
+        }
+        
+        int l_num_commands = 0;
+        
+        if (l_best.f_index == 3)
+        { a_commands[l_num_commands++] = InputQueue.Command.RotateAnticlockwise; }
+        else
+        {
+            for (int i = 0; i < l_best.f_index; ++i)
+            { a_commands[l_num_commands++] = InputQueue.Command.RotateClockwise; }
+        }
+        
+        InputQueue.Command l_move = (l_best.f_dx_best < 0) ? InputQueue.Command.MoveLeft : InputQueue.Command.MoveRight;
+        
+        for (int i = 0; i < Math.abs(l_best.f_dx_best); ++i)
+        { a_commands[l_num_commands++] = l_move; }
+        
+        a_commands[l_num_commands++] = InputQueue.Command.HardDrop;
+        
+        return l_num_commands;
+    }
+    
+    /*
+     * This method returns the score of the given board: i.e. the score of its features (see Feature), where the number
+       of lines cleared (which can't be determined from the board) is given.
+     
+     * Parameters:
+         > a_rows: the occupancy bitmask of each row of the board (see TetrisEngine.GetRowMask(...)), from the top row
+                   down.
+         > a_num_lines: the number of lines that were cleared in reaching the board.
+         > a_heights: a buffer (of a length equal to the number of columns) into which the columns' heights are written.
+         > a_features: a buffer into which the features are written (indexed by Feature.ordinal()).
+    */
+    public double ScoreBoard(int a_rows[], int a_num_lines, int a_heights[], int a_features[])
+    {
+        int l_num_rows = a_rows.length;
+        int l_num_columns = a_heights.length;
+        
+        // Find the heights of the columns and the number of holes, from the top row down.
+        int l_num_holes = 0;
+        
+        // The columns that are occupied in the rows above the current one.
+        int l_covered = 0;
+        
+        for (int col = 0; col < l_num_columns; ++col)
+        { a_heights[col] = 0; }
+        
+        for (int row = 0; row < l_num_rows; ++row)
+        {
+            l_num_holes += Integer.bitCount(l_covered & ~a_rows[row]);
+            
+            // The columns whose highest tile is in this row.
+            for (int l_tops = a_rows[row] & ~l_covered; l_tops != 0; l_tops &= l_tops - 1)
+            { a_heights[Integer.numberOfTrailingZeros(l_tops)] = l_num_rows - row; }
+            
+            l_covered |= a_rows[row];
+        }
+        
+        int l_height_aggregate = 0;
+        int l_bumpiness = 0;
+        int l_wells = 0;
+        
+        for (int col = 0; col < l_num_columns; ++col)
+        {
+            l_height_aggregate += a_heights[col];
+            
+            if (col != 0)
+            { l_bumpiness += Math.abs(a_heights[col] - a_heights[col - 1]); }
+            
+            int l_left = (col == 0) ? l_num_rows : a_heights[col - 1];
+            int l_right = (col == l_num_columns - 1) ? l_num_rows : a_heights[col + 1];
+            int l_depth = Math.min(l_left, l_right) - a_heights[col];
+            
+            if (l_depth > 0)
+            { l_wells += l_depth * (l_depth + 1) / 2; }
+        }
+        
+        a_features[Feature.AggregateHeight.ordinal()] = l_height_aggregate;
+        a_features[Feature.Holes.ordinal()] = l_num_holes;
+        a_features[Feature.Bumpiness.ordinal()] = l_bumpiness;
+        a_features[Feature.Wells.ordinal()] = l_wells;
+        a_features[Feature.LinesCleared.ordinal()] = a_num_lines;
+        
+        return Score(a_features);
+    }
+    
+    /*
+     * This method returns the score of the given features: i.e. the sum of each feature multiplied by its weight.
+     
+     * Parameters:
+         > a_features: the value of each feature (indexed by Feature.ordinal()).
+    */
+    public double Score(int a_features[])
+    {
+        double l_score = 0;
+        
+        for (int i = 0; i < S_NUM_FEATURES; ++i)
+        { l_score += f_weights[i] * a_features[i]; }
+        
+        return l_score;
+    }
+    
+    
+// (d)(i). Accessors (2) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of s_weights_default
+     * This method returns a copy of the default weights (indexed by Feature.ordinal()).
+    */
+    public static double[] GetWeightsDefault()
+    {
+        return s_weights_default.clone();
+    }
+    
+    /* Accessor of f_weights
+     * This method returns the weight of the given feature.
+    */
+    public double GetWeight(Feature a_feature)
+    {
+        return f_weights[a_feature.ordinal()];
+    }
+    
+    
+    
+// (e). Nested Classes (2) =============================================================================================
+    
+    
+// (e)(i). Inner Classes (2) -------------------------------------------------------------------------------------------
+    
+    /*
+     * An object of this class evaluates the placements of one rotation sequence, and records the best of them.
+    */
+    private final class RotationTask
+        extends RecursiveAction
+    {
+        
+        // The index of the rotation sequence (see the class description).
+        private final int f_index;
+        
+        // A (scratch) tetromino of each type, which is moved to each placement.
+        private final Tetromino f_tetrominos[];
+        
+        // The board after the placement that's being evaluated (see f_board), and the height of each of its columns.
+        private final int f_rows[];
+        private final int f_heights[];
+        
+        // The features of the placement that's being evaluated (indexed by Feature.ordinal()).
+        private final int f_features[];
+        
+        // The best placement found: its score and its horizontal distance from the rotated tetromino.
+        private boolean f_is_found;
+        private double f_score_best;
+        private int f_dx_best;
+        
+        private static final long serialVersionUID = 1L;
+        
+        /* Constructor
+         
+         * Parameters:
+             > a_index: the index of the rotation sequence.
+        */
+        public RotationTask(int a_index)
+        {
+            f_index = a_index;
+            
+            f_tetrominos = new Tetromino[Tetromino.S_NUM_TYPES];
+            for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+            { f_tetrominos[i] = new Tetromino(Tetromino.Type.values()[i]); }
+            
+            f_rows = new int[TetrisGame.S_NUM_ROWS];
+            f_heights = new int[TetrisGame.S_NUM_COLUMNS];
+            f_features = new int[S_NUM_FEATURES];
+        }
+        
+        /* Implementation of RecursiveAction
+        */
+        @Override
+        protected void compute()
+        {
+            Search();
+        }
+        
+        /*
+         * This method rotates the current tetromino by the task's rotation sequence, and then evaluates the placement
+           in each column that it can reach.
+        */
+        public void Search()
+        {
+            f_is_found = false;
+            
+            Tetromino l_tetromino = f_tetrominos[f_type.ordinal()];
+            l_tetromino.SetIndexRotation(f_index_rotation);
+            l_tetromino.SetPosition(f_x, f_y);
+            
+            boolean l_is_rotated = true;
+            
+            if (f_index == 3)
+            { l_is_rotated = l_tetromino.Rotate(false, true, f_engine); }
+            else
+            {
+                for (int i = 0; i < f_index && l_is_rotated; ++i)
+                { l_is_rotated = l_tetromino.Rotate(true, true, f_engine); }
+            }
+            
+            if (!l_is_rotated)
+            { return; }
+            
+            // Move the tetromino as far left as possible, and then evaluate each placement from left to right.
+            int l_dx = 0;
+            
+            while (l_tetromino.Move(-1, 0, f_engine))
+            { --l_dx; }
+            
+            do
+            {
+                double l_score = Evaluate(l_tetromino);
+                
+                if (!f_is_found || l_score > f_score_best)
+                {
+                    f_is_found = true;
+                    f_score_best = l_score;
+                    f_dx_best = l_dx;
+                }
+                
+                ++l_dx;
+            }
+            while (l_tetromino.Move(1, 0, f_engine));
+        }
+        
+        /* Auxiliary of Search()
+         * This method returns the score of the board that results from hard-dropping the given tetromino.
+        */
+        private double Evaluate(Tetromino a_tetromino)
+        {
+            int l_num_rows = f_rows.length;
+            int l_num_columns = f_heights.length;
+            int l_row_full = (1 << l_num_columns) - 1;
+            
+            // Place the tetromino.
+            System.arraycopy(f_board, 0, f_rows, 0, l_num_rows);
+            
+            int l_drop = a_tetromino.GetDropDistance(f_engine);
+            
+            for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+            { f_rows[a_tetromino.GetTileY(i) + l_drop] |= 1 << a_tetromino.GetTileX(i); }
+            
+            // Clear the full lines by moving each of the other rows down.
+            int l_num_lines = 0;
+            int l_row_to = l_num_rows - 1;
+            
+            for (int row = l_num_rows - 1; row >= 0; --row)
+            {
+                if (f_rows[row] == l_row_full)
+                { ++l_num_lines; }
+                else
+                { f_rows[l_row_to--] = f_rows[row]; }
+            }
+            
+            for (; l_row_to >= 0; --l_row_to)
+            { f_rows[l_row_to] = 0; }
+            
+            return ScoreBoard(f_rows, l_num_lines, f_heights, f_features);
+        }
+        
+    }
+    
+    /*
+     * An object of this class runs every RotationTask (in parallel) and waits for them to finish.
+    */
+    private final class SearchTask
+        extends RecursiveAction
+    {
+        
+        private static final long serialVersionUID = 1L;
+        
+        /* Implementation of RecursiveAction
+        */
+        @Override
+        protected void compute()
+        {
+            for (RotationTask l_task : f_tasks)
+            { l_task.reinitialize(); }
+            
+            ForkJoinTask.invokeAll(f_tasks);
+        }
+        
+    }
+    
+    
+}
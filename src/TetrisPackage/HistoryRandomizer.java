@@ -0,0 +1,166 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class is a randomizer that behaves like that of Tetris: The Grand Master (see PieceRandomizer):
+   the types of the most recent tetrominos are kept in a 'history', and a type is drawn up to a given number of times
+   until one that's not in the history is drawn (if every draw is in the history, the last one is accepted).
+ * As in the original, the history initially contains only Z tetrominos, and the first tetromino is never an S, Z, or
+   O (as these can't be placed on an empty board without leaving a hole).
+ * With the default history length (4) and number of draws (4), repeats and droughts are both rare, but (unlike a
+   7-bag randomizer) the sequence doesn't follow a pattern that the user can exploit.
+
+ * Composition:
+     (a). Fields (9)
+         (i). Static Fields (5)
+     (b). Constructors (2)
+     (c). Public Methods (3)
+     (d). Auxiliaries (1)
+*/
+public class HistoryRandomizer
+    implements PieceRandomizer
+{
+    
+// (a). Fields (9) =====================================================================================================
+    
+    // The generator from which the types are drawn.
+    private SplittableRandom f_random;
+    
+    // The ordinals of the most recent types, most recent first.
+    private final int f_history[];
+    
+    // The maximum number of times a type is drawn per tetromino.
+    private final int f_num_draws;
+    
+    // A flag that, when true, indicates that no tetrominos have been drawn since the randomizer was reset.
+    private boolean f_is_first;
+    
+    
+// (a)(i). Static Fields (5) -------------------------------------------------------------------------------------------
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    // The types that the first tetromino can be.
+    private static final Tetromino.Type s_types_first[] =
+        { Tetromino.Type.I, Tetromino.Type.J, Tetromino.Type.L, Tetromino.Type.T };
+        
+    // The default length of f_history.
+    public static final int S_LENGTH_HISTORY_DEFAULT = 4;
+    
+    // The default value of f_num_draws.
+    public static final int S_NUM_DRAWS_DEFAULT = 4;
+    
+    // The seed that's used until Reset(...) is called.
+    private static final long s_seed_default = 0;
+    
+    
+    
+// (b). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     * Creates a randomizer with a default seed: i.e. Reset(...) should be called before the first tetromino is drawn.
+     
+     * Parameters:
+         > a_length_history: the number of recent types that are kept in the history.
+         > a_num_draws: the maximum number of times a type is drawn per tetromino.
+    */
+    public HistoryRandomizer(int a_length_history, int a_num_draws)
+    {
+        if (a_length_history < 1 || a_num_draws < 1)
+        { throw new IllegalArgumentException("The history's length and the number of draws must be positive."); }
+        
+        f_history = new int[a_length_history];
+        f_num_draws = a_num_draws;
+        
+        Reset(s_seed_default);
+    }
+    
+    /* Constructor
+     * Creates a randomizer with the default history length and number of draws (as in the original game).
+    */
+    public HistoryRandomizer()
+    {
+        this(S_LENGTH_HISTORY_DEFAULT, S_NUM_DRAWS_DEFAULT);
+    }
+    
+    
+    
+// (c). Public Methods (3) =============================================================================================
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public void Reset(long a_seed)
+    {
+        f_random = new SplittableRandom(a_seed);
+        
+        for (int i = 0; i < f_history.length; ++i)
+        { f_history[i] = Tetromino.Type.Z.ordinal(); }
+        
+        f_is_first = true;
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Tetromino.Type Next()
+    {
+        int l_ordinal = 0;
+        
+        if (f_is_first)
+        {
+            l_ordinal = s_types_first[f_random.nextInt(s_types_first.length)].ordinal();
+            
+            f_is_first = false;
+        }
+        else
+        {
+            for (int i = 0; i < f_num_draws; ++i)
+            {
+                l_ordinal = f_random.nextInt(s_types.length);
+                
+                if (!IsInHistory(l_ordinal))
+                { break; }
+            }
+            
+        }
+        
+        // Add the type to the front of the history (the oldest type is removed).
+        System.arraycopy(f_history, 0, f_history, 1, f_history.length - 1);
+        f_history[0] = l_ordinal;
+        
+        return s_types[l_ordinal];
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Kind GetKind()
+    {
+        return Kind.History;
+    }
+    
+    
+    
+// (d). Auxiliaries (1) ================================================================================================
+    
+    /* Auxiliary of Next
+     * This method returns true if the given type (ordinal) is in the history.
+    */
+    private boolean IsInHistory(int a_ordinal)
+    {
+        for (int l_ordinal : f_history)
+        {
+            if (l_ordinal == a_ordinal)
+            { return true; }
+        }
+        
+        return false;
+    }
+    
+    
+}
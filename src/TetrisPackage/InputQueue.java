@@ -0,0 +1,147 @@
+
+package TetrisPackage;
+
+
+/*
+ * An object of this class is a queue of commands that's shared by exactly two threads: a producer (the
+   event dispatch thread, which converts key events into commands) and a consumer (the game thread, which applies the
+   commands at the start of each step).
+ * The queue is a fixed-size ring buffer that requires no locks: the producer is the only thread that writes f_tail,
+   and the consumer is the only thread that writes f_head. Both indexes are volatile, which ensures that a command's
+   data is visible to the consumer before the updated f_tail is.
+ * The indexes increase indefinitely and are mapped to the buffer by masking, so the capacity must be a power of two.
+
+ * Composition:
+     (a). Enums (1)
+     (b). Fields (5)
+         (i). Static Fields (1)
+     (c). Constructors (2)
+     (d). Public Methods (4)
+*/
+public class InputQueue
+{
+    
+// (a). Enums (1) ======================================================================================================
+    
+    // An enum for the commands that the user can issue to the game.
+    public enum Command
+    { MoveLeft, MoveRight, SoftDrop, HardDrop, RotateClockwise, RotateAnticlockwise }
+    
+    
+    
+// (b). Fields (5) =====================================================================================================
+    
+    /* Command Codes
+     * The ordinal of each command in the queue.
+    */
+    private final byte f_codes[];
+    
+    // The value which maps an index to its position in the buffer: i.e. the capacity - 1.
+    private final int f_mask;
+    
+    // The index of the next command to be polled (only written by the consumer).
+    private volatile int f_head;
+    
+    // The index at which the next command will be offered (only written by the producer).
+    private volatile int f_tail;
+    
+    
+// (b)(i). Static Fields (1) -------------------------------------------------------------------------------------------
+    
+    // The values of the Command enum.
+    private static final Command s_commands[] = Command.values();
+    
+    
+    
+// (c). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     * Creates a queue that holds up to 64 commands.
+    */
+    public InputQueue()
+    {
+        this(64);
+    }
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_capacity: the maximum number of commands that the queue can hold; must be a power of two.
+    */
+    public InputQueue(int a_capacity)
+    {
+        if (a_capacity <= 0 || (a_capacity & (a_capacity - 1)) != 0)
+        { throw new IllegalArgumentException("The capacity must be a power of two."); }
+        
+        f_codes = new byte[a_capacity];
+        f_mask = a_capacity - 1;
+    }
+    
+    
+    
+// (d). Public Methods (4) =============================================================================================
+    
+    /*
+     * This method adds a command to the back of the queue. It must only be called by the producer.
+     
+     * Parameters:
+         > a_command: the command.
+         
+     * Return Value:
+         > A boolean that's false if the queue was full (in which case the command is discarded).
+    */
+    public boolean Offer(Command a_command)
+    {
+        int l_tail = f_tail;
+        
+        if (l_tail - f_head > f_mask)
+        { return false; }
+        
+        f_codes[l_tail & f_mask] = (byte)a_command.ordinal();
+        
+        // Publish the command.
+        f_tail = l_tail + 1;
+        
+        return true;
+    }
+    
+    /*
+     * This method removes the command at the front of the queue. It must only be called by the consumer.
+     
+     * Return Value:
+         > The command at the front of the queue, or null if the queue is empty.
+    */
+    public Command Poll()
+    {
+        int l_head = f_head;
+        
+        if (l_head == f_tail)
+        { return null; }
+        
+        Command l_command = s_commands[f_codes[l_head & f_mask]];
+        
+        // Release the slot to the producer.
+        f_head = l_head + 1;
+        
+        return l_command;
+    }
+    
+    /*
+     * This method returns a flag that, when true, indicates that the queue is empty.
+    */
+    public boolean IsEmpty()
+    {
+        return f_head == f_tail;
+    }
+    
+    /*
+     * This method discards all of the commands in the queue. It must only be called when the consumer isn't running
+       (e.g. between games).
+    */
+    public void Clear()
+    {
+        f_head = f_tail;
+    }
+    
+    
+}
@@ -0,0 +1,460 @@
+package TetrisPackage;
+
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/*
+ * An object of this class maintains the top-N scores (the 'leaderboard') that are stored in a file.
+ * None of the methods that access the file block the calling thread: the file is read and written by a single
+   background thread, and the results are delivered via CompletableFutures. This ensures that the game (and the GUI)
+   never stall on disk I/O.
+ * The file is never modified in place: the new contents are written to a temporary file, which then replaces the
+   file via an (atomic, if supported) rename. Therefore, a crash mid-write can't corrupt the file.
+ * Several instances of the game may run on the same host concurrently, so each write is performed whilst holding an
+   (inter-process) lock on a separate lock file. The file is re-read under the lock before each write, such that no
+   instance overwrites the scores submitted by another.
+ * The file contains one entry per line, in descending order of score: "score,lines,level,duration,timestamp". A line
+   that contains only a score (i.e. the format of the original high-score file) is also accepted.
+
+ * Composition:
+     (a). Fields (8)
+         (i). Static Fields (3)
+     (b). Constructors (2)
+     (c). Public Methods (5)
+     (d). Auxiliaries (3)
+     (e). Nested Classes (2)
+         (i). Static Nested Classes (1)
+         (ii). Interfaces (1)
+*/
+public class Leaderboard
+{
+    
+// (a). Fields (8) =====================================================================================================
+    
+    // The file in which the entries are stored.
+    private final Path f_path;
+    
+    // The file to which the entries are written before replacing f_path.
+    private final Path f_path_temp;
+    
+    // The file that's locked whilst f_path is being read or written.
+    private final Path f_path_lock;
+    
+    // The maximum number of entries.
+    private final int f_capacity;
+    
+    /*
+     * The entries (in descending order of score), as of when the file was last read or written; null if the file
+       hasn't yet been read. This is only replaced (never modified), so it may be read by any thread.
+    */
+    private volatile List<Entry> f_entries;
+    
+    
+// (a)(i). Static Fields (3) -------------------------------------------------------------------------------------------
+    
+    // The default maximum number of entries.
+    public static final int S_CAPACITY_DEFAULT = 10;
+    
+    /*
+     * The thread which performs all of the file I/O. As it's the only thread that accesses the files (within this
+       process), each read and write is performed in its entirety before the next begins.
+     * The thread is a daemon (so it doesn't prevent the program from exiting), but a pending write is given time to
+       complete when the program exits (see the static initialiser).
+    */
+    private static final ExecutorService s_executor = Executors.newSingleThreadExecutor(r ->
+    {
+        Thread l_thread = new Thread(r, "Leaderboard I/O");
+        l_thread.setDaemon(true);
+        return l_thread;
+    });
+    
+    // The maximum amount of time (ms) that a pending write is given to complete when the program exits.
+    private static final long s_exit_timeout = 2000;
+    
+    /* Static Initialiser
+     * Allows a pending write to complete when the program exits.
+    */
+    static
+    {
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            s_executor.shutdown();
+            
+            try
+            { s_executor.awaitTermination(s_exit_timeout, TimeUnit.MILLISECONDS); }
+            catch (InterruptedException e)
+            { Thread.currentThread().interrupt(); }
+        }));
+    }
+    
+    
+    
+// (b). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     * Note that the file isn't read until Load() or Submit(...) is called.
+     
+     * Parameters:
+         > a_file_name: the file in which the entries are stored.
+         > a_capacity: the maximum number of entries.
+    */
+    public Leaderboard(String a_file_name, int a_capacity)
+    {
+        f_path = Paths.get(a_file_name).toAbsolutePath();
+        f_path_temp = f_path.resolveSibling(f_path.getFileName() + ".tmp");
+        f_path_lock = f_path.resolveSibling(f_path.getFileName() + ".lock");
+        f_capacity = a_capacity;
+    }
+    
+    /* Constructor
+     * Creates a leaderboard that holds up to S_CAPACITY_DEFAULT entries.
+     
+     * Parameters:
+         > a_file_name: the file in which the entries are stored.
+    */
+    public Leaderboard(String a_file_name)
+    {
+        this(a_file_name, S_CAPACITY_DEFAULT);
+    }
+    
+    
+    
+// (c). Public Methods (5) =============================================================================================
+    
+    /*
+     * This method reads the entries from the file (in the background), if it hasn't already been read.
+     
+     * Return Value:
+         > A future that's completed with the entries (in descending order of score). If the file can't be read, the
+           future is completed with an empty list.
+    */
+    public CompletableFuture<List<Entry>> Load()
+    {
+        List<Entry> l_entries = f_entries;
+        
+        if (l_entries != null)
+        { return CompletableFuture.completedFuture(l_entries); }
+        
+        return CompletableFuture.supplyAsync(() ->
+        {
+            if (f_entries == null)
+            {
+                try
+                { f_entries = Lock(this::Read); }
+                catch (IOException e)
+                {
+                    e.printStackTrace();
+                    f_entries = Collections.emptyList();
+                }
+            }
+            
+            return f_entries;
+        }, s_executor);
+    }
+    
+    /*
+     * This method adds an entry to the leaderboard (in the background): i.e. if the entry's score is high enough, it's
+       inserted at the appropriate position and the lowest entry is removed if the capacity is exceeded.
+       
+     * Parameters:
+         > a_entry: the entry to add.
+         
+     * Return Value:
+         > A future that's completed with the rank of the entry (0 is the highest), or -1 if its score isn't high
+           enough. If the file can't be written, the future is completed exceptionally.
+    */
+    public CompletableFuture<Integer> Submit(Entry a_entry)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return Lock(() ->
+                {
+                    // Read the file (rather than use f_entries), as another instance may have written to it.
+                    List<Entry> l_entries = new ArrayList<Entry>(Read());
+                    
+                    // Find the position of the entry: ties are ranked below the existing entries.
+                    int l_rank = 0;
+                    while (l_rank < l_entries.size() && l_entries.get(l_rank).GetScore() >= a_entry.GetScore())
+                    { ++l_rank; }
+                    
+                    if (l_rank >= f_capacity)
+                    {
+                        f_entries = Collections.unmodifiableList(l_entries);
+                        return -1;
+                    }
+                    
+                    l_entries.add(l_rank, a_entry);
+                    
+                    while (l_entries.size() > f_capacity)
+                    { l_entries.remove(l_entries.size() - 1); }
+                    
+                    Write(l_entries);
+                    
+                    f_entries = Collections.unmodifiableList(l_entries);
+                    
+                    return l_rank;
+                });
+            }
+            catch (IOException e)
+            { throw new RuntimeException(e); }
+            
+        }, s_executor);
+    }
+    
+    /*
+     * This method returns the entries as of when the file was last read or written (in descending order of score);
+       the list is empty if the file hasn't yet been read.
+    */
+    public List<Entry> GetEntries()
+    {
+        List<Entry> l_entries = f_entries;
+        
+        return (l_entries != null) ? l_entries : Collections.<Entry>emptyList();
+    }
+    
+    /*
+     * This method returns the highest score as of when the file was last read or written (0 if there are no entries).
+    */
+    public long GetHighScore()
+    {
+        List<Entry> l_entries = GetEntries();
+        
+        return l_entries.isEmpty() ? 0 : l_entries.get(0).GetScore();
+    }
+    
+    /*
+     * This method returns the maximum number of entries.
+    */
+    public int GetCapacity()
+    {
+        return f_capacity;
+    }
+    
+    
+    
+// (d). Auxiliaries (3) ================================================================================================
+    
+    /* Auxiliary of Load and Submit
+     * This method performs the given operation whilst holding the lock on f_path_lock, which prevents other processes
+       from reading or writing the file concurrently.
+    */
+    @SuppressWarnings("try")
+    private <T> T Lock(FileOperation<T> a_operation) throws IOException
+    {
+        try (FileChannel l_channel = FileChannel.open(f_path_lock, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock l_lock = l_channel.lock())
+        {
+            return a_operation.Run();
+        }
+    }
+    
+    /* Auxiliary of Load and Submit
+     * This method reads the entries from the file; malformed lines are ignored.
+     
+     * Return Value:
+         > The entries (in descending order of score), or an empty list if the file doesn't exist.
+    */
+    private List<Entry> Read() throws IOException
+    {
+        List<String> l_lines;
+        
+        try
+        { l_lines = Files.readAllLines(f_path, StandardCharsets.UTF_8); }
+        catch (NoSuchFileException e)
+        { return Collections.emptyList(); }
+        
+        List<Entry> l_entries = new ArrayList<Entry>(l_lines.size());
+        
+        for (String l_line : l_lines)
+        {
+            Entry l_entry = Entry.Parse(l_line);
+            
+            if (l_entry != null)
+            { l_entries.add(l_entry); }
+        }
+        
+        // Sort the entries by score (descending) in case the file was edited by hand.
+        l_entries.sort((a, b) -> Long.compare(b.GetScore(), a.GetScore()));
+        
+        while (l_entries.size() > f_capacity)
+        { l_entries.remove(l_entries.size() - 1); }
+        
+        return Collections.unmodifiableList(l_entries);
+    }
+    
+    /* Auxiliary of Submit
+     * This method replaces the contents of the file with the given entries: the entries are written to a temporary
+       file, which is flushed to the disk and then renamed to replace the file.
+    */
+    private void Write(List<Entry> a_entries) throws IOException
+    {
+        StringBuilder l_contents = new StringBuilder();
+        
+        for (Entry l_entry : a_entries)
+        { l_contents.append(l_entry.toString()).append('\n'); }
+        
+        try (FileChannel l_channel = FileChannel.open(f_path_temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                      StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            l_channel.write(StandardCharsets.UTF_8.encode(l_contents.toString()));
+            
+            // Ensure the contents are on the disk before the rename, so that the file is never replaced by a partial
+            // one.
+            l_channel.force(true);
+        }
+        
+        try
+        { Files.move(f_path_temp, f_path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING); }
+        catch (AtomicMoveNotSupportedException e)
+        { Files.move(f_path_temp, f_path, StandardCopyOption.REPLACE_EXISTING); }
+    }
+    
+    
+    
+// (e). Nested Classes (2) =============================================================================================
+    
+    
+// (e)(i). Static Nested Classes (1) -----------------------------------------------------------------------------------
+    
+    /*
+     * An object of this class is an (immutable) entry of the leaderboard: i.e. the result of a game.
+    */
+    public static final class Entry
+    {
+        
+        // The game's score, number of lines cleared, and final level.
+        private final long f_score;
+        private final int f_num_lines_cleared;
+        private final int f_level;
+        
+        // The duration (ms) of the game (excluding any time during which it was paused).
+        private final long f_duration;
+        
+        // The time at which the game ended (ms since the epoch).
+        private final long f_timestamp;
+        
+        /* Constructor
+         
+         * Parameters:
+             > a_score: the game's score.
+             > a_num_lines_cleared: the number of lines cleared.
+             > a_level: the final level.
+             > a_duration: the duration (ms) of the game.
+             > a_timestamp: the time at which the game ended (ms since the epoch).
+        */
+        public Entry(long a_score, int a_num_lines_cleared, int a_level, long a_duration, long a_timestamp)
+        {
+            f_score = a_score;
+            f_num_lines_cleared = a_num_lines_cleared;
+            f_level = a_level;
+            f_duration = a_duration;
+            f_timestamp = a_timestamp;
+        }
+        
+        /*
+         * This method creates an entry from a line of the file (see toString()).
+         
+         * Return Value:
+             > The entry, or null if the line is malformed.
+        */
+        private static Entry Parse(String a_line)
+        {
+            String l_values[] = a_line.trim().split(",");
+            
+            try
+            {
+                if (l_values.length == 1 && !l_values[0].isEmpty())
+                { return new Entry(Long.parseLong(l_values[0]), 0, 0, 0, 0); }
+                
+                if (l_values.length == 5)
+                {
+                    return new Entry(Long.parseLong(l_values[0]), Integer.parseInt(l_values[1]),
+                                     Integer.parseInt(l_values[2]), Long.parseLong(l_values[3]),
+                                     Long.parseLong(l_values[4]));
+                }
+            }
+            catch (NumberFormatException e)
+            { }
+            
+            return null;
+        }
+        
+        /*
+         * This method returns the entry in the format in which it's stored in the file.
+        */
+        @Override
+        public String toString()
+        {
+            return f_score + "," + f_num_lines_cleared + "," + f_level + "," + f_duration + "," + f_timestamp;
+        }
+        
+        /* Accessor of f_score
+        */
+        public long GetScore()
+        {
+            return f_score;
+        }
+        
+        /* Accessor of f_num_lines_cleared
+        */
+        public int GetNumLinesCleared()
+        {
+            return f_num_lines_cleared;
+        }
+        
+        /* Accessor of f_level
+        */
+        public int GetLevel()
+        {
+            return f_level;
+        }
+        
+        /* Accessor of f_duration
+        */
+        public long GetDuration()
+        {
+            return f_duration;
+        }
+        
+        /* Accessor of f_timestamp
+        */
+        public long GetTimestamp()
+        {
+            return f_timestamp;
+        }
+        
+    }
+    
+    
+// (e)(ii). Interfaces (1) ---------------------------------------------------------------------------------------------
+    
+    /*
+     * An interface for an operation that's performed on the file whilst it's locked (see Lock(...)).
+    */
+    private interface FileOperation<T>
+    {
+        T Run() throws IOException;
+    }
+    
+    
+}
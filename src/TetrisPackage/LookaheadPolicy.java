@@ -0,0 +1,281 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class is a policy (see MovePolicy) that places each tetromino by searching two tetrominos deep:
+   i.e. for every placement of the active tetromino, it finds the best placement of the next tetromino (from the
+   queue) on the resulting board, and chooses the placement of the active tetromino whose best follow-up is the best.
+   The placements are found by a MoveGenerator (restricted to commands), so they include tucks and spins, and a pair
+   of placements is scored by a HeuristicPolicy (see ScoreBoard(...)) on the final board.
+ * The search reaches many positions repeatedly: e.g. placing two tetrominos of the same type in either order leaves
+   the same board, and the boards evaluated for the next tetromino are those from which the following decision
+   searches. Therefore, the results are cached in a TranspositionTable (which may be shared with other policies):
+       > the score of a board (excluding lines cleared), keyed by the board's hash (see TetrisEngine.GetHash()); and
+       > the best follow-up of a board for a type of tetromino, keyed by the board's hash XORed with the type's key.
+   Each decision begins a new generation of the table, so the entries of older decisions are evicted first.
+ * The scores are rounded to floats (which is how they're cached) whether or not they're found in the table, so a
+   policy's choices don't depend on the contents of its table.
+
+ * Composition:
+     (a). Fields (16)
+         (i). Static Fields (3)
+     (b). Constructors (3)
+     (c). Public Methods (2)
+     (d). Auxiliaries (2)
+*/
+public class LookaheadPolicy
+    implements MovePolicy
+{
+    
+// (a). Fields (16) ====================================================================================================
+    
+    // The policy that scores boards.
+    private final HeuristicPolicy f_evaluator;
+    
+    // The weight of a line cleared (see HeuristicPolicy.Feature.LinesCleared).
+    private final double f_weight_lines;
+    
+    // The cache of scores and follow-ups.
+    private final TranspositionTable f_table;
+    
+    // The generators of the placements of the active tetromino and of the next tetromino.
+    private final MoveGenerator f_generator;
+    private final MoveGenerator f_generator_next;
+    
+    // The boards after the active tetromino is placed and after the next tetromino is placed.
+    private final TetrisEngine f_board_child;
+    private final TetrisEngine f_board_leaf;
+    
+    // A (scratch) tetromino of each type for each of the two placements.
+    private final Tetromino f_tetrominos[];
+    private final Tetromino f_tetrominos_next[];
+    
+    // The buffers passed to f_evaluator (see HeuristicPolicy.ScoreBoard(...)).
+    private final int f_rows[];
+    private final int f_heights[];
+    private final int f_features[];
+    
+    // The path to the chosen placement.
+    private final MoveGenerator.Move f_path[];
+    
+    
+// (a)(i). Static Fields (3) -------------------------------------------------------------------------------------------
+    
+    // The random key of each type of tetromino, which distinguishes the follow-ups of a board (see f_table).
+    private static final long s_type_keys[] = new SplittableRandom(0x7E7).longs(Tetromino.S_NUM_TYPES).toArray();
+    
+    // The score of a board on which the next tetromino can't spawn (i.e. the game would end).
+    private static final float s_score_game_over = -Float.MAX_VALUE;
+    
+    // The spawn location of a tetromino (see TetrisGame).
+    private static final int s_x_spawn = (TetrisGame.S_NUM_COLUMNS - 1) / 2;
+    
+    
+    
+// (b). Constructors (3) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_weights: the weight of each feature (indexed by HeuristicPolicy.Feature.ordinal()).
+         > a_table: the table in which the results are cached; it may be shared with other policies (even those on
+                    other threads), provided that they have the same weights.
+    */
+    public LookaheadPolicy(double a_weights[], TranspositionTable a_table)
+    {
+        f_evaluator = new HeuristicPolicy(a_weights, null);
+        f_weight_lines = f_evaluator.GetWeight(HeuristicPolicy.Feature.LinesCleared);
+        f_table = a_table;
+        
+        f_generator = new MoveGenerator(TetrisGame.S_NUM_ROWS, TetrisGame.S_NUM_COLUMNS, false);
+        f_generator_next = new MoveGenerator(TetrisGame.S_NUM_ROWS, TetrisGame.S_NUM_COLUMNS, false);
+        
+        f_board_child = new TetrisEngine(TetrisGame.S_NUM_ROWS, TetrisGame.S_NUM_COLUMNS);
+        f_board_leaf = new TetrisEngine(TetrisGame.S_NUM_ROWS, TetrisGame.S_NUM_COLUMNS);
+        
+        f_tetrominos = new Tetromino[Tetromino.S_NUM_TYPES];
+        f_tetrominos_next = new Tetromino[Tetromino.S_NUM_TYPES];
+        for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+        {
+            f_tetrominos[i] = new Tetromino(Tetromino.Type.values()[i]);
+            f_tetrominos_next[i] = new Tetromino(Tetromino.Type.values()[i]);
+        }
+        
+        f_rows = new int[TetrisGame.S_NUM_ROWS];
+        f_heights = new int[TetrisGame.S_NUM_COLUMNS];
+        f_features = new int[HeuristicPolicy.S_NUM_FEATURES];
+        
+        f_path = new MoveGenerator.Move[S_MAX_NUM_COMMANDS];
+    }
+    
+    /* Constructor
+     * Creates a policy with the given weights that caches its results in a table of its own.
+    */
+    public LookaheadPolicy(double a_weights[])
+    {
+        this(a_weights, new TranspositionTable(TranspositionTable.S_CAPACITY_DEFAULT));
+    }
+    
+    /* Constructor
+     * Creates a policy with the default weights (see HeuristicPolicy) that caches its results in a table of its own.
+    */
+    public LookaheadPolicy()
+    {
+        this(HeuristicPolicy.GetWeightsDefault());
+    }
+    
+    
+    
+// (c). Public Methods (2) =============================================================================================
+    
+    /* Implementation of MovePolicy
+    */
+    @Override
+    public void Reset(TetrisGame a_game)
+    {
+    }
+    
+    /* Implementation of MovePolicy
+    */
+    @Override
+    public int Choose(TetrisGame a_game, InputQueue.Command a_commands[])
+    {
+        Tetromino l_tetromino = a_game.GetTetromino();
+        
+        if (l_tetromino == null)
+        { return 0; }
+        
+        TetrisEngine l_board = a_game.GetEngine();
+        Tetromino.Type l_type_next = a_game.GetTypeNext(0);
+        
+        f_table.NextGeneration();
+        
+        int l_num_placements = f_generator.Generate(l_board, l_tetromino);
+        
+        // The best placement and its score.
+        int l_placement_best = -1;
+        float l_score_best = 0;
+        
+        Tetromino l_placed = f_tetrominos[l_tetromino.GetType().ordinal()];
+        
+        for (int l_placement = 0; l_placement < l_num_placements; ++l_placement)
+        {
+            f_board_child.CopyFrom(l_board);
+            f_generator.MoveToPlacement(l_placement, l_placed);
+            l_placed.Lock(f_board_child);
+            
+            int l_num_lines = f_board_child.RemoveFullLines();
+            
+            float l_score;
+            
+            if (l_type_next == null)
+            { l_score = ScoreBoard(f_board_child); }
+            else
+            { l_score = ScoreFollowUp(f_board_child, l_type_next); }
+            
+            if (l_score != s_score_game_over)
+            { l_score = (float)(l_score + f_weight_lines * l_num_lines); }
+            
+            if (l_placement_best == -1 || l_score > l_score_best)
+            {
+                l_placement_best = l_placement;
+                l_score_best = l_score;
+            }
+        }
+        
+        // If the tetromino can't be placed anywhere (i.e. the game is about to end), drop it where it is.
+        if (l_placement_best == -1 || f_generator.GetPathLength(l_placement_best) > a_commands.length)
+        {
+            a_commands[0] = InputQueue.Command.HardDrop;
+            return 1;
+        }
+        
+        // The path ends where the tetromino can't fall any further, so it locks there at the next fall.
+        int l_num_commands = f_generator.GetPath(l_placement_best, f_path);
+        
+        for (int i = 0; i < l_num_commands; ++i)
+        { a_commands[i] = f_path[i].GetCommand(); }
+        
+        return l_num_commands;
+    }
+    
+    
+    
+// (d). Auxiliaries (2) ================================================================================================
+    
+    /* Auxiliary of Choose(...)
+     * This method returns the score of the best placement of a tetromino of the given type on the given board (the
+       lines cleared by the placement are included), which is found in f_table if possible.
+       
+     * Parameters:
+         > a_board: the board (which isn't modified).
+         > a_type: the type of the tetromino, which spawns at the spawn location.
+    */
+    private float ScoreFollowUp(TetrisEngine a_board, Tetromino.Type a_type)
+    {
+        long l_key = a_board.GetHash() ^ s_type_keys[a_type.ordinal()];
+        
+        long l_entry = f_table.Get(l_key);
+        
+        if (l_entry != TranspositionTable.S_MISS)
+        { return TranspositionTable.GetValue(l_entry); }
+        
+        Tetromino l_tetromino = f_tetrominos_next[a_type.ordinal()];
+        l_tetromino.SetIndexRotation(0);
+        l_tetromino.SetPosition(s_x_spawn, 1);
+        
+        int l_num_placements = f_generator_next.Generate(a_board, l_tetromino);
+        
+        int l_placement_best = -1;
+        float l_score_best = s_score_game_over;
+        
+        for (int l_placement = 0; l_placement < l_num_placements; ++l_placement)
+        {
+            f_board_leaf.CopyFrom(a_board);
+            f_generator_next.MoveToPlacement(l_placement, l_tetromino);
+            l_tetromino.Lock(f_board_leaf);
+            
+            int l_num_lines = f_board_leaf.RemoveFullLines();
+            
+            float l_score = (float)(ScoreBoard(f_board_leaf) + f_weight_lines * l_num_lines);
+            
+            if (l_placement_best == -1 || l_score > l_score_best)
+            {
+                l_placement_best = l_placement;
+                l_score_best = l_score;
+            }
+        }
+        
+        f_table.Put(l_key, l_score_best, l_placement_best);
+        
+        return l_score_best;
+    }
+    
+    /* Auxiliary of Choose(...) and ScoreFollowUp(...)
+     * This method returns the score of the given board, excluding lines cleared (see HeuristicPolicy.ScoreBoard(...)),
+       which is found in f_table if possible.
+    */
+    private float ScoreBoard(TetrisEngine a_board)
+    {
+        long l_key = a_board.GetHash();
+        
+        long l_entry = f_table.Get(l_key);
+        
+        if (l_entry != TranspositionTable.S_MISS)
+        { return TranspositionTable.GetValue(l_entry); }
+        
+        for (int row = 0; row < f_rows.length; ++row)
+        { f_rows[row] = a_board.GetRowMask(row); }
+        
+        float l_score = (float)f_evaluator.ScoreBoard(f_rows, 0, f_heights, f_features);
+        
+        f_table.Put(l_key, l_score, -1);
+        
+        return l_score;
+    }
+    
+    
+}
@@ -0,0 +1,384 @@
+package TetrisPackage;
+
+
+import Utils.IntHashSet;
+
+
+/*
+ * An object of this class finds every placement of a tetromino that can be reached from its current state by the
+   user's input: i.e. by moving it left and right, rotating it (with SRS kicks), dropping it, and letting it fall a row
+   at a time. Unlike enumerating the columns into which a tetromino can be dropped, this finds placements that can
+   only be reached by moving or rotating the tetromino once it's fallen beneath an overhang (i.e. 'tucks' and
+   'spins').
+ * The search is a breadth-first search over the tetromino's states (x, y, and rotation index), each of which is packed
+   into an int. The visited states are held by an IntHashSet, and the states are queued in primitive arrays (along
+   with the state and move from which each was reached), so a search doesn't create any objects.
+ * A placement is a state from which the tetromino can't fall any further (i.e. where it would lock). Placements that
+   occupy the same tiles (e.g. the rotations of an O) are only reported once. As the search is breadth-first, the
+   path to each placement is a shortest sequence of moves that reaches it.
+ * Note that TetrisGame's Drop command (see Move.Drop) doesn't lock the tetromino, so moves can follow it.
+
+ * Composition:
+     (a). Enums (1)
+     (b). Fields (14)
+         (i). Static Fields (2)
+     (c). Constructors (1)
+     (d). Public Methods (8)
+         (i). Accessors (4)
+     (e). Auxiliaries (4)
+*/
+public class MoveGenerator
+{
+    
+// (a). Enums (1) ======================================================================================================
+    
+    /*
+     * The moves by which a tetromino can move from one state to another.
+     * Each move but Down corresponds to a command that's applied immediately (see GetCommand()); Down is a fall of one
+       row, which occurs by gravity (or soft-drop) rather than by a command.
+    */
+    public enum Move
+    {
+        Left(InputQueue.Command.MoveLeft),
+        Right(InputQueue.Command.MoveRight),
+        RotateClockwise(InputQueue.Command.RotateClockwise),
+        RotateAnticlockwise(InputQueue.Command.RotateAnticlockwise),
+        Drop(InputQueue.Command.HardDrop),
+        Down(null);
+        
+        // The command that performs the move (null if there isn't one).
+        private final InputQueue.Command f_command;
+        
+        Move(InputQueue.Command a_command)
+        {
+            f_command = a_command;
+        }
+        
+        /* Accessor of f_command
+         * This method returns the command that performs the move (null for Down).
+        */
+        public InputQueue.Command GetCommand()
+        {
+            return f_command;
+        }
+        
+    }
+    
+    
+    
+// (b). Fields (14) ====================================================================================================
+    
+    // The dimensions of the board.
+    private final int f_num_rows;
+    private final int f_num_columns;
+    
+    // A flag that, when true, allows the tetromino to fall a row at a time (i.e. Move.Down is one of the moves).
+    private final boolean f_can_fall;
+    
+    // The states that have been visited.
+    private final IntHashSet f_visited;
+    
+    // The tiles occupied by each of the placements found (see TilesKey(...)).
+    private final IntHashSet f_placed;
+    
+    /* The Queue
+     * The visited states, in the order in which they were visited: i.e. f_states[i] is the i-th state, which was
+       reached by the move f_moves[i] from the state f_states[f_parents[i]] (f_parents[0] is -1, as the first state is
+       the initial state).
+    */
+    private final int f_states[];
+    private final int f_parents[];
+    private final byte f_moves[];
+    private int f_num_states;
+    
+    // The index (into f_states) of each of the placements found.
+    private final int f_placements[];
+    private int f_num_placements;
+    
+    // A (scratch) tetromino of each type, which is moved to each state.
+    private final Tetromino f_tetrominos[];
+    
+    
+// (b)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The values of the Move enum.
+    private static final Move s_moves[] = Move.values();
+    
+    // The number of rows and columns beyond the edges of the board in which a tetromino's centre may lie.
+    private static final int s_margin = 2;
+    
+    
+    
+// (c). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_num_rows: the number of rows of the boards to be searched.
+         > a_num_columns: the number of columns of the boards to be searched; the board must have no more than 256
+                          tiles.
+         > a_can_fall: a flag that, when true, allows the tetromino to fall a row at a time (i.e. Move.Down is one of
+                       the moves); otherwise, every path consists only of commands, and can therefore be applied at
+                       once (e.g. by a MovePolicy).
+    */
+    public MoveGenerator(int a_num_rows, int a_num_columns, boolean a_can_fall)
+    {
+        if (a_num_rows * a_num_columns > 256)
+        { throw new IllegalArgumentException("The board must have no more than 256 tiles."); }
+        
+        f_num_rows = a_num_rows;
+        f_num_columns = a_num_columns;
+        f_can_fall = a_can_fall;
+        
+        int l_max_num_states = (a_num_rows + 2 * s_margin) * (a_num_columns + 2 * s_margin) *
+                               Tetromino.S_NUM_ROTATION_INDEXES;
+                               
+        f_visited = new IntHashSet(l_max_num_states);
+        f_placed = new IntHashSet(l_max_num_states);
+        
+        f_states = new int[l_max_num_states];
+        f_parents = new int[l_max_num_states];
+        f_moves = new byte[l_max_num_states];
+        f_placements = new int[l_max_num_states];
+        
+        f_tetrominos = new Tetromino[Tetromino.S_NUM_TYPES];
+        for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+        { f_tetrominos[i] = new Tetromino(Tetromino.Type.values()[i]); }
+    }
+    
+    
+    
+// (d). Public Methods (8) =============================================================================================
+    
+    /*
+     * This method finds every placement that the given tetromino can reach on the given board.
+     
+     * Parameters:
+         > a_engine: the board (which isn't modified).
+         > a_tetromino: the tetromino, whose current state is the initial state of the search (it isn't modified).
+         
+     * Return Value:
+         > The number of placements found (0 if the tetromino's current state isn't valid).
+    */
+    public int Generate(TetrisEngine a_engine, Tetromino a_tetromino)
+    {
+        f_visited.Clear();
+        f_placed.Clear();
+        f_num_states = 0;
+        f_num_placements = 0;
+        
+        Tetromino l_tetromino = f_tetrominos[a_tetromino.GetType().ordinal()];
+        
+        l_tetromino.SetIndexRotation(a_tetromino.GetIndexRotation());
+        l_tetromino.SetPosition(a_tetromino.GetX(), a_tetromino.GetY());
+        
+        if (!l_tetromino.CanMove(0, 0, a_engine))
+        { return 0; }
+        
+        Visit(Pack(l_tetromino), -1, null);
+        
+        for (int l_index = 0; l_index < f_num_states; ++l_index)
+        {
+            int l_state = f_states[l_index];
+            
+            Unpack(l_state, l_tetromino);
+            
+            boolean l_can_fall = l_tetromino.CanMove(0, 1, a_engine);
+            
+            // If the tetromino would lock in this state, and its tiles haven't already been found, it's a placement.
+            if (!l_can_fall && f_placed.Add(TilesKey(l_tetromino)))
+            { f_placements[f_num_placements++] = l_index; }
+            
+            for (Move l_move : s_moves)
+            {
+                boolean l_is_moved = false;
+                
+                switch (l_move)
+                {
+                    case Left:
+                        l_is_moved = l_tetromino.Move(-1, 0, a_engine);
+                        break;
+                    case Right:
+                        l_is_moved = l_tetromino.Move(1, 0, a_engine);
+                        break;
+                    case RotateClockwise:
+                        l_is_moved = l_tetromino.Rotate(true, true, a_engine);
+                        break;
+                    case RotateAnticlockwise:
+                        l_is_moved = l_tetromino.Rotate(false, true, a_engine);
+                        break;
+                    case Drop:
+                        l_is_moved = l_can_fall && l_tetromino.Drop(a_engine) != 0;
+                        break;
+                    case Down:
+                        l_is_moved = f_can_fall && l_can_fall && l_tetromino.Move(0, 1, a_engine);
+                        break;
+                }
+                
+                if (!l_is_moved)
+                { continue; }
+                
+                Visit(Pack(l_tetromino), l_index, l_move);
+                
+                Unpack(l_state, l_tetromino);
+            }
+        }
+        
+        return f_num_placements;
+    }
+    
+    /*
+     * This method returns the number of moves in the path to the given placement.
+     
+     * Parameters:
+         > a_placement: the index of the placement (0 to the value returned by Generate(...) - 1).
+    */
+    public int GetPathLength(int a_placement)
+    {
+        int l_length = 0;
+        
+        for (int l_index = f_placements[a_placement]; f_parents[l_index] != -1; l_index = f_parents[l_index])
+        { ++l_length; }
+        
+        return l_length;
+    }
+    
+    /*
+     * This method writes the (shortest) path to the given placement: i.e. the moves that take the tetromino from its
+       initial state to the placement.
+       
+     * Parameters:
+         > a_placement: the index of the placement (0 to the value returned by Generate(...) - 1).
+         > a_path: the array into which the moves are written, in order; its length must be at least that of the path.
+         
+     * Return Value:
+         > The number of moves in the path.
+    */
+    public int GetPath(int a_placement, Move a_path[])
+    {
+        int l_length = GetPathLength(a_placement);
+        
+        // Follow the path backwards from the placement.
+        int l_index = f_placements[a_placement];
+        
+        for (int i = l_length - 1; i >= 0; --i)
+        {
+            a_path[i] = s_moves[f_moves[l_index]];
+            l_index = f_parents[l_index];
+        }
+        
+        return l_length;
+    }
+    
+    /*
+     * This method moves the given tetromino (which must be of the same type as the one searched) to the given
+       placement.
+       
+     * Parameters:
+         > a_placement: the index of the placement (0 to the value returned by Generate(...) - 1).
+         > a_tetromino: the tetromino to move.
+    */
+    public void MoveToPlacement(int a_placement, Tetromino a_tetromino)
+    {
+        Unpack(f_states[f_placements[a_placement]], a_tetromino);
+    }
+    
+    
+// (d)(i). Accessors (4) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_num_placements
+    */
+    public int GetNumPlacements()
+    {
+        return f_num_placements;
+    }
+    
+    /* Accessor of f_num_states
+     * This method returns the number of states visited by the latest search.
+    */
+    public int GetNumStates()
+    {
+        return f_num_states;
+    }
+    
+    /* Accessor of f_num_rows
+    */
+    public int GetNumRows()
+    {
+        return f_num_rows;
+    }
+    
+    /* Accessor of f_num_columns
+    */
+    public int GetNumColumns()
+    {
+        return f_num_columns;
+    }
+    
+    
+    
+// (e). Auxiliaries (4) ================================================================================================
+    
+    /* Auxiliary of Generate(...)
+     * This method queues the given state, unless it's already been visited.
+     
+     * Parameters:
+         > a_state: the (packed) state.
+         > a_parent: the index of the state from which it was reached (-1 if it's the initial state).
+         > a_move: the move by which it was reached (null if it's the initial state).
+    */
+    private void Visit(int a_state, int a_parent, Move a_move)
+    {
+        if (!f_visited.Add(a_state))
+        { return; }
+        
+        f_states[f_num_states] = a_state;
+        f_parents[f_num_states] = a_parent;
+        f_moves[f_num_states] = (byte)(a_move == null ? 0 : a_move.ordinal());
+        ++f_num_states;
+    }
+    
+    /* Auxiliary of Generate(...)
+     * This method packs the given tetromino's state into an int: the x-coordinate, y-coordinate, and rotation index
+       occupy the third, second, and first bytes, respectively (the coordinates are offset by s_margin such that
+       they're non-negative).
+    */
+    private static int Pack(Tetromino a_tetromino)
+    {
+        return ((a_tetromino.GetX() + s_margin) << 16) | ((a_tetromino.GetY() + s_margin) << 8) |
+               a_tetromino.GetIndexRotation();
+    }
+    
+    /* Auxiliary of Generate(...) and MoveToPlacement(...)
+     * This method sets the state of the given tetromino to the given (packed) state (see Pack(...)).
+    */
+    private static void Unpack(int a_state, Tetromino a_tetromino)
+    {
+        a_tetromino.SetIndexRotation(a_state & 0xFF);
+        a_tetromino.SetPosition(((a_state >>> 16) & 0xFF) - s_margin, ((a_state >>> 8) & 0xFF) - s_margin);
+    }
+    
+    /* Auxiliary of Generate(...)
+     * This method returns a key that identifies the tiles occupied by the given tetromino: i.e. the indexes of its
+       (four) tiles, each of which fits in a byte, in ascending order.
+    */
+    private int TilesKey(Tetromino a_tetromino)
+    {
+        int l_a = a_tetromino.GetTileY(0) * f_num_columns + a_tetromino.GetTileX(0);
+        int l_b = a_tetromino.GetTileY(1) * f_num_columns + a_tetromino.GetTileX(1);
+        int l_c = a_tetromino.GetTileY(2) * f_num_columns + a_tetromino.GetTileX(2);
+        int l_d = a_tetromino.GetTileY(3) * f_num_columns + a_tetromino.GetTileX(3);
+        int l_temp;
+        
+        // Sort the indexes (via a sorting network of five comparisons).
+        if (l_a > l_b) { l_temp = l_a; l_a = l_b; l_b = l_temp; }
+        if (l_c > l_d) { l_temp = l_c; l_c = l_d; l_d = l_temp; }
+        if (l_a > l_c) { l_temp = l_a; l_a = l_c; l_c = l_temp; }
+        if (l_b > l_d) { l_temp = l_b; l_b = l_d; l_d = l_temp; }
+        if (l_b > l_c) { l_temp = l_b; l_b = l_c; l_c = l_temp; }
+        
+        return (l_a << 24) | (l_b << 16) | (l_c << 8) | l_d;
+    }
+    
+    
+}
@@ -0,0 +1,53 @@
+package TetrisPackage;
+
+
+/*
+ * An interface for an object that plays a game in place of the user (a 'policy'): i.e. each time a tetromino spawns,
+   the policy chooses the commands that place it (see BatchRunner).
+ * A policy is used by one thread at a time, so it may keep (mutable) buffers between calls. It should be
+   deterministic given the game's seed, such that a game played by a policy can be reproduced.
+
+ * Composition:
+     (a). Fields (1)
+         (i). Static Fields (1)
+     (b). Methods (2)
+*/
+public interface MovePolicy
+{
+    
+// (a). Fields (1) =====================================================================================================
+    
+    
+// (a)(i). Static Fields (1) -------------------------------------------------------------------------------------------
+    
+    // The maximum number of commands that a policy may choose per tetromino.
+    int S_MAX_NUM_COMMANDS = 64;
+    
+    
+    
+// (b). Methods (2) ====================================================================================================
+    
+    /*
+     * This method is called once the given game has started (i.e. it's been reset and its first tetromino has
+       spawned), before the first call to Choose(...).
+       
+     * Parameters:
+         > a_game: the game that's to be played.
+    */
+    void Reset(TetrisGame a_game);
+    
+    /*
+     * This method chooses the commands that are to be applied to the given game's active tetromino, which has just
+       spawned. The commands are applied in order, before the game's next step.
+       
+     * Parameters:
+         > a_game: the game (which mustn't be modified).
+         > a_commands: the array into which the commands are written (its length is S_MAX_NUM_COMMANDS).
+         
+     * Return Value:
+         > The number of commands that were written.
+    */
+    int Choose(TetrisGame a_game, InputQueue.Command a_commands[]);
+    
+    
+}
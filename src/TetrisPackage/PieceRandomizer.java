@@ -0,0 +1,78 @@
+package TetrisPackage;
+
+
+/*
+ * An interface for an object that chooses the type of each tetromino that spawns in a game (a 'randomizer').
+ * Each game has its own randomizer, which is seeded when the game starts; therefore, concurrent games draw from
+   independent streams (without any contention), and two games with the same seed (and kind of randomizer) receive
+   the same sequence of tetrominos. Implementations are backed by java.util.SplittableRandom.
+ * A randomizer's state is entirely determined by its seed and the number of tetrominos drawn since it was seeded,
+   which is how a game restores it from a keyframe (see TetrisGame.ReadState(...)).
+
+ * Composition:
+     (a). Enums (1)
+     (b). Methods (3)
+*/
+public interface PieceRandomizer
+{
+    
+// (a). Enums (1) ======================================================================================================
+    
+    /*
+     * An enum for the kinds of randomizer:
+         > Uniform: each type is equally likely, independently of the previous tetrominos (see UniformRandomizer).
+         > Bag: each consecutive group of seven tetrominos contains one of each type (see BagRandomizer).
+         > Reroll: the type of the previous tetromino is less likely to repeat, as in the NES version of Tetris (see
+           RerollRandomizer).
+         > History: types that have recently spawned are less likely to repeat, as in Tetris: The Grand Master (see
+           HistoryRandomizer).
+    */
+    public enum Kind
+    {
+        Uniform, Bag, Reroll, History;
+        
+        /*
+         * This method creates a (new) randomizer of this kind.
+        */
+        public PieceRandomizer Create()
+        {
+            switch (this)
+            {
+                case Bag:
+                    return new BagRandomizer();
+                case Reroll:
+                    return new RerollRandomizer();
+                case History:
+                    return new HistoryRandomizer();
+                default:
+                    return new UniformRandomizer();
+            }
+            
+        }
+        
+    }
+    
+    
+    
+// (b). Methods (3) ====================================================================================================
+    
+    /*
+     * This method seeds the randomizer and discards its state: i.e. the following tetrominos are the first of a game.
+     
+     * Parameters:
+         > a_seed: the seed.
+    */
+    void Reset(long a_seed);
+    
+    /*
+     * This method returns the type of the next tetromino.
+    */
+    Tetromino.Type Next();
+    
+    /*
+     * This method returns the kind of the randomizer.
+    */
+    Kind GetKind();
+    
+    
+}
@@ -0,0 +1,260 @@
+package TetrisPackage;
+
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.image.BufferedImage;
+
+import javax.swing.BorderFactory;
+import javax.swing.JPanel;
+
+
+/*
+ * An object of this class displays the upcoming tetrominos of a game (the 'preview'), from left to right in the order
+   in which they'll spawn, each in its own 'slot'.
+ * Each slot is rendered into its own image, which is only re-rendered when the slot's tetromino changes; painting the
+   panel merely copies the images. The images are held in a ring (like the game's queue), so when a tetromino spawns
+   and the preview shifts along by one, the image of the departing tetromino is recycled for the tetromino that
+   shifted in, and that is the only slot that's rendered (see Update(...)).
+
+ * Composition:
+     (a). Fields (13)
+         (i). Static Fields (4)
+     (b). Constructors (1)
+     (c). Public Methods (3)
+     (d). Auxiliaries (1)
+*/
+public class PreviewPanel
+    extends JPanel
+{
+    
+// (a). Fields (13) ====================================================================================================
+    
+    // The number of slots: i.e. the number of upcoming tetrominos that are displayed.
+    private final int f_num_slots;
+    
+    /*
+     * The image of each slot, and the type value (see GameSnapshot) of the tetromino rendered into each image: slot i
+       displays f_images[(f_head + i) % f_num_slots].
+    */
+    private final BufferedImage f_images[];
+    private final byte f_types[];
+    
+    // The index of the image of the first slot (i.e. of the next tetromino).
+    private int f_head;
+    
+    // The dimensions (pixels) of each slot.
+    private final int f_width_slot;
+    private final int f_height_slot;
+    
+    // The dimension (pixels) of each tile.
+    private final int f_size_tile;
+    
+    // The sprites from which the tiles are rendered.
+    private final TileAtlas f_atlas;
+    
+    // The panel's background colour (i.e. the colour of an empty slot).
+    private final Color f_colour_background;
+    
+    
+// (a)(i). Static Fields (4) -------------------------------------------------------------------------------------------
+    
+    // The minimum number of slots.
+    public static final int S_MIN_NUM_SLOTS = 1;
+    
+    // The maximum number of slots.
+    public static final int S_MAX_NUM_SLOTS = TetrisGame.S_MAX_NUM_PREVIEWS;
+    
+    // The dimension of a slot in tiles: i.e. a slot can contain any tetromino, plus a margin of half a tile.
+    private static final int s_size_slot_tiles = Tetromino.S_NUM_TILES + 1;
+    
+    private static final long serialVersionUID = 1L;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_width: the width of the panel (pixels).
+         > a_height: the height of the panel (pixels).
+         > a_num_slots: the number of slots (S_MIN_NUM_SLOTS to S_MAX_NUM_SLOTS; other values are clamped).
+         > a_colour_background: the panel's background colour.
+    */
+    public PreviewPanel(int a_width, int a_height, int a_num_slots, Color a_colour_background)
+    {
+        super(null);
+        
+        super.setBorder(BorderFactory.createLineBorder(Tetris.S_COLOUR_BORDERS_DEFAULT));
+        super.setBackground(a_colour_background);
+        super.setPreferredSize(new Dimension(a_width, a_height));
+        
+        f_colour_background = a_colour_background;
+        
+        f_num_slots = Math.max(S_MIN_NUM_SLOTS, Math.min(S_MAX_NUM_SLOTS, a_num_slots));
+        
+        Insets l_insets = super.getInsets();
+        
+        f_width_slot = Math.max(1, (a_width - l_insets.left - l_insets.right) / f_num_slots);
+        f_height_slot = Math.max(1, a_height - l_insets.top - l_insets.bottom);
+        
+        f_size_tile = Math.max(1, Math.min(f_width_slot, f_height_slot) / s_size_slot_tiles);
+        
+        f_atlas = new TileAtlas(f_size_tile, a_colour_background);
+        
+        // The images are rendered directly (see TileAtlas.Validate(...)), as they're rendered infrequently.
+        f_atlas.Validate(null);
+        
+        f_images = new BufferedImage[f_num_slots];
+        f_types = new byte[f_num_slots];
+        
+        for (int i = 0; i < f_num_slots; ++i)
+        {
+            f_images[i] = new BufferedImage(f_width_slot, f_height_slot, BufferedImage.TYPE_INT_RGB);
+            RenderSlot(i, GameSnapshot.S_TYPE_NONE);
+        }
+        
+    }
+    
+    
+    
+// (c). Public Methods (3) =============================================================================================
+    
+    /*
+     * This method empties every slot.
+    */
+    public void Reset()
+    {
+        for (int i = 0; i < f_num_slots; ++i)
+        {
+            if (f_types[i] != GameSnapshot.S_TYPE_NONE)
+            { RenderSlot(i, GameSnapshot.S_TYPE_NONE); }
+        }
+        
+        super.repaint();
+    }
+    
+    /*
+     * This method displays the upcoming tetrominos of the given snapshot, rendering only the slots that have changed.
+     * If the tetrominos have shifted along by one (i.e. a tetromino has spawned), the ring of images is rotated, such
+       that only the last slot is rendered.
+       
+     * Parameters:
+         > a_snapshot: the snapshot whose upcoming tetrominos are displayed.
+    */
+    public void Update(GameSnapshot a_snapshot)
+    {
+        boolean l_is_unchanged = true;
+        boolean l_is_shifted = true;
+        
+        for (int i = 0; i < f_num_slots; ++i)
+        {
+            byte l_type = a_snapshot.GetTypeNext(i);
+            
+            l_is_unchanged &= l_type == f_types[(f_head + i) % f_num_slots];
+            l_is_shifted &= (i == f_num_slots - 1) || l_type == f_types[(f_head + i + 1) % f_num_slots];
+        }
+        
+        if (l_is_unchanged)
+        { return; }
+        
+        if (l_is_shifted)
+        {
+            // Recycle the image of the departed tetromino for the one that shifted in.
+            int l_image = f_head;
+            f_head = (f_head + 1) % f_num_slots;
+            
+            RenderSlot(l_image, a_snapshot.GetTypeNext(f_num_slots - 1));
+        }
+        else
+        {
+            for (int i = 0; i < f_num_slots; ++i)
+            {
+                int l_image = (f_head + i) % f_num_slots;
+                
+                if (f_types[l_image] != a_snapshot.GetTypeNext(i))
+                { RenderSlot(l_image, a_snapshot.GetTypeNext(i)); }
+            }
+            
+        }
+        
+        super.repaint();
+    }
+    
+    /* Implementation of JPanel.paintComponent(...)
+     * This method paints each slot by copying its image.
+    */
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        super.paintComponent(g);
+        
+        Insets l_insets = super.getInsets();
+        
+        for (int i = 0; i < f_num_slots; ++i)
+        {
+            g.drawImage(f_images[(f_head + i) % f_num_slots], l_insets.left + i * f_width_slot, l_insets.top, null);
+        }
+        
+    }
+    
+    
+    
+// (d). Auxiliaries (1) ================================================================================================
+    
+    /* Auxiliary of the Constructor, Reset, and Update
+     * This method renders the given tetromino (centred) into the given image.
+     
+     * Parameters:
+         > a_image: the index of the image.
+         > a_type: the type value of the tetromino (GameSnapshot.S_TYPE_NONE for an empty slot).
+    */
+    private void RenderSlot(int a_image, byte a_type)
+    {
+        f_types[a_image] = a_type;
+        
+        Graphics2D l_graphics = f_images[a_image].createGraphics();
+        
+        l_graphics.setColor(f_colour_background);
+        l_graphics.fillRect(0, 0, f_width_slot, f_height_slot);
+        
+        Tetromino.Type l_type = GameSnapshot.ToType(a_type);
+        
+        if (l_type != null)
+        {
+            // The tetromino's tiles, relative to its origin, in its spawn orientation.
+            Tetromino l_tetromino = new Tetromino(l_type);
+            
+            int l_x_min = Integer.MAX_VALUE, l_x_max = Integer.MIN_VALUE;
+            int l_y_min = Integer.MAX_VALUE, l_y_max = Integer.MIN_VALUE;
+            
+            for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+            {
+                l_x_min = Math.min(l_x_min, l_tetromino.GetTileX(i));
+                l_x_max = Math.max(l_x_max, l_tetromino.GetTileX(i));
+                l_y_min = Math.min(l_y_min, l_tetromino.GetTileY(i));
+                l_y_max = Math.max(l_y_max, l_tetromino.GetTileY(i));
+            }
+            
+            // The position of the origin such that the tetromino is centred within the slot.
+            int l_x_origin = (f_width_slot - (l_x_max - l_x_min + 1) * f_size_tile) / 2 - l_x_min * f_size_tile;
+            int l_y_origin = (f_height_slot - (l_y_max - l_y_min + 1) * f_size_tile) / 2 - l_y_min * f_size_tile;
+            
+            for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+            {
+                f_atlas.Draw(l_graphics, TileAtlas.GetSprite(l_type), 
+                             l_x_origin + l_tetromino.GetTileX(i) * f_size_tile,
+                             l_y_origin + l_tetromino.GetTileY(i) * f_size_tile);
+            }
+            
+        }
+        
+        l_graphics.dispose();
+    }
+    
+    
+}
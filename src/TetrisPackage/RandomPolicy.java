@@ -0,0 +1,70 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class is a policy (see MovePolicy) that places each tetromino at random: i.e. it rotates the
+   tetromino a random number of times, moves it a random distance left or right, and hard-drops it.
+ * This is a baseline against which other policies can be compared, and a cheap way of exercising the engine (as
+   games end quickly). The random choices are seeded by the game's seed, so a game is reproducible.
+
+ * Composition:
+     (a). Fields (2)
+         (i). Static Fields (1)
+     (b). Public Methods (2)
+*/
+public class RandomPolicy
+    implements MovePolicy
+{
+    
+// (a). Fields (2) =====================================================================================================
+    
+    // The generator from which the choices are drawn.
+    private SplittableRandom f_random;
+    
+    
+// (a)(i). Static Fields (1) -------------------------------------------------------------------------------------------
+    
+    // The maximum distance the tetromino is moved (from its spawn location) in either direction.
+    private static final int s_distance_max = TetrisGame.S_NUM_COLUMNS / 2;
+    
+    
+    
+// (b). Public Methods (2) =============================================================================================
+    
+    /* Implementation of MovePolicy
+    */
+    @Override
+    public void Reset(TetrisGame a_game)
+    {
+        // The seed is altered such that the policy's choices aren't correlated with the game's randomizer.
+        f_random = new SplittableRandom(~a_game.GetSeed());
+    }
+    
+    /* Implementation of MovePolicy
+    */
+    @Override
+    public int Choose(TetrisGame a_game, InputQueue.Command a_commands[])
+    {
+        int l_num_commands = 0;
+        
+        for (int l_num_rotations = f_random.nextInt(Tetromino.S_NUM_ROTATION_INDEXES); l_num_rotations > 0;
+             --l_num_rotations)
+        { a_commands[l_num_commands++] = InputQueue.Command.RotateClockwise; }
+        
+        int l_distance = f_random.nextInt(-s_distance_max, s_distance_max + 1);
+        
+        InputQueue.Command l_move = (l_distance < 0) ? InputQueue.Command.MoveLeft : InputQueue.Command.MoveRight;
+        
+        for (int i = 0; i < Math.abs(l_distance); ++i)
+        { a_commands[l_num_commands++] = l_move; }
+        
+        a_commands[l_num_commands++] = InputQueue.Command.HardDrop;
+        
+        return l_num_commands;
+    }
+    
+    
+}
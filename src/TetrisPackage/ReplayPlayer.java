@@ -0,0 +1,446 @@
+package TetrisPackage;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/*
+ * An object of this class re-simulates a game that was recorded by a ReplayRecorder: i.e. it creates a game with the
+   recorded seed and kind of randomizer, and applies each recorded command at its recorded step. This is performed headlessly (i.e. without
+   any graphical elements) and as quickly as possible, rather than in real time.
+ * As the game is deterministic, the re-simulated game is identical to the recorded one; the checksum of its final
+   state is compared to the recorded checksum to verify this (see IsVerified()).
+ * The replay can seek to any step, forwards or backwards (see Seek(...)): the game is restored from the latest
+   keyframe at or before the step (found by a binary search of the recording's index) and re-simulated from there.
+   This is cheap enough to 'scrub' through even an hour-long game interactively. Playing forward ignores keyframes.
+ * A replay can be run from the command line: "java TetrisPackage.ReplayPlayer <file>...".
+
+ * Composition:
+     (a). Fields (16)
+         (i). Static Fields (2)
+     (b). Constructors (1)
+     (c). Public Methods (15)
+         (i). Accessors (8)
+     (d). Auxiliaries (5)
+*/
+public class ReplayPlayer
+{
+    
+// (a). Fields (16) ====================================================================================================
+    
+    // The contents of the file; its position is that of the next (unread) event.
+    private final ByteBuffer f_buffer;
+    
+    // The game that's re-simulated.
+    private final TetrisGame f_game;
+    
+    // The length of each of the game's steps (nanoseconds), and its seed.
+    private final long f_step_nanos;
+    private final long f_seed;
+    
+    // The offset within the file of the first event.
+    private final int f_offset_events;
+    
+    // The step and offset of each keyframe, in order of step.
+    private long f_index_steps[];
+    private long f_index_offsets[];
+    
+    // The number of steps that elapsed in the recorded game.
+    private long f_num_steps_total;
+    
+    // The step and code of the next event that's to be applied (the event has been read from f_buffer).
+    private long f_step_event;
+    private int f_code_event;
+    
+    // The final score, number of lines cleared, and level of the recorded game (read once the end event is read).
+    private long f_score_final;
+    private int f_num_lines_cleared_final;
+    private int f_level_final;
+    
+    // The checksum of the final state of the recorded game.
+    private long f_checksum_final;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The values of the Command enum.
+    private static final InputQueue.Command s_commands[] = InputQueue.Command.values();
+    
+    // The values of the PieceRandomizer.Kind enum.
+    private static final PieceRandomizer.Kind s_kinds[] = PieceRandomizer.Kind.values();
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * Reads the file and starts the game (at step 0).
+     
+     * Parameters:
+         > a_path: the file in which the game was recorded.
+    */
+    public ReplayPlayer(Path a_path) throws IOException
+    {
+        try (FileChannel l_channel = FileChannel.open(a_path, StandardOpenOption.READ))
+        {
+            f_buffer = ByteBuffer.allocate((int)l_channel.size());
+            
+            while (f_buffer.hasRemaining())
+            {
+                if (l_channel.read(f_buffer) < 0)
+                { throw new IOException("The file ended unexpectedly."); }
+            }
+            
+            f_buffer.flip();
+        }
+        
+        if (f_buffer.remaining() < Integer.BYTES + 1 || f_buffer.getInt() != ReplayRecorder.S_MAGIC)
+        { throw new IOException("The file isn't a recording."); }
+        
+        byte l_version = f_buffer.get();
+        if (l_version != ReplayRecorder.S_VERSION)
+        { throw new IOException("The recording's version (" + l_version + ") isn't supported."); }
+        
+        f_step_nanos = ReadVarint();
+        f_seed = f_buffer.getLong();
+        
+        int l_kind = f_buffer.get();
+        if (l_kind < 0 || l_kind >= s_kinds.length)
+        { throw new IOException("The recording's randomizer (" + l_kind + ") isn't supported."); }
+        
+        f_offset_events = f_buffer.position();
+        
+        ReadIndex();
+        
+        f_game = new TetrisGame(f_step_nanos, s_kinds[l_kind].Create());
+        
+        Restart();
+    }
+    
+    
+    
+// (c). Public Methods (15) ============================================================================================
+    
+    /*
+     * This method re-simulates the game until the given number of steps have elapsed (or the recording ends).
+     
+     * Parameters:
+         > a_step: the number of steps that are to have elapsed.
+    */
+    public void AdvanceTo(long a_step)
+    {
+        while (true)
+        {
+            // Apply the commands that were applied before the next step.
+            while (f_code_event != ReplayRecorder.S_CODE_END && f_step_event == f_game.GetNumSteps())
+            {
+                f_game.Apply(s_commands[f_code_event]);
+                ReadEvent();
+            }
+            
+            if (f_step_event < f_game.GetNumSteps())
+            { throw new IllegalStateException("The recording is corrupt: an event precedes the game's step."); }
+            
+            if (f_game.GetNumSteps() >= a_step || IsFinished())
+            { break; }
+            
+            if (!f_game.Step())
+            { break; }
+        }
+        
+        f_game.Publish();
+    }
+    
+    /*
+     * This method moves the replay to the given step (or the end of the recording), which may precede the current one.
+     * If there's a keyframe between the current step and the given one (or the given step precedes the current one),
+       the game is restored from the latest keyframe at or before the given step (or restarted if there's no such
+       keyframe); the game is then re-simulated up to the given step.
+     
+     * Parameters:
+         > a_step: the step to which the replay is moved.
+    */
+    public void Seek(long a_step)
+    {
+        // The index of the latest keyframe at or before a_step (-1 if there's no such keyframe).
+        int l_index = Arrays.binarySearch(f_index_steps, a_step);
+        if (l_index < 0)
+        { l_index = -l_index - 2; }
+        
+        long l_step_keyframe = (l_index >= 0) ? f_index_steps[l_index] : 0;
+        long l_step_current = f_game.GetNumSteps();
+        
+        if (a_step < l_step_current || l_step_current < l_step_keyframe)
+        {
+            if (l_index >= 0)
+            { LoadKeyframe(l_index); }
+            else
+            { Restart(); }
+        }
+        
+        AdvanceTo(a_step);
+    }
+    
+    /*
+     * This method moves the replay to the given time (or the end of the recording): see Seek(...).
+     
+     * Parameters:
+         > a_millis: the time (ms since the start of the game) to which the replay is moved.
+    */
+    public void SeekTime(long a_millis)
+    {
+        Seek(a_millis * 1000000L / f_step_nanos);
+    }
+    
+    /*
+     * This method re-simulates the remainder of the game.
+     
+     * Return Value:
+         > A boolean that's true if the final state matches the recorded one (see IsVerified()).
+    */
+    public boolean Run()
+    {
+        AdvanceTo(Long.MAX_VALUE);
+        
+        return IsVerified();
+    }
+    
+    /*
+     * This method returns a flag that, when true, indicates that the game has reached the end of the recording (or is
+       over).
+    */
+    public boolean IsFinished()
+    {
+        return f_game.IsGameOver() ||
+               (f_code_event == ReplayRecorder.S_CODE_END && f_game.GetNumSteps() >= f_step_event);
+    }
+    
+    /*
+     * This method returns a flag that, when true, indicates that the game has reached the end of the recording and
+       its state matches the recorded final state.
+    */
+    public boolean IsVerified()
+    {
+        return f_code_event == ReplayRecorder.S_CODE_END && f_game.GetNumSteps() == f_step_event &&
+               f_game.GetSnapshot().GetChecksum() == f_checksum_final;
+    }
+    
+    /*
+     * This method re-simulates each of the given recordings and prints whether or not each was reproduced exactly.
+     
+     * Parameters:
+         > a_args: the files of the recordings.
+    */
+    public static void main(String[] a_args)
+    {
+        for (String l_file : a_args)
+        {
+            try
+            {
+                ReplayPlayer l_player = new ReplayPlayer(Paths.get(l_file));
+                
+                long l_time_start = System.nanoTime();
+                boolean l_is_verified = l_player.Run();
+                long l_time_elapsed = System.nanoTime() - l_time_start;
+                
+                GameSnapshot l_snapshot = l_player.GetGame().GetSnapshot();
+                
+                System.out.println(l_file + ": " + l_snapshot.GetNumSteps() + " steps, score " +
+                                   l_snapshot.GetScore() + " (recorded " + l_player.GetScoreFinal() + "), " +
+                                   (l_is_verified ? "verified" : "MISMATCH") + " in " +
+                                   (l_time_elapsed / 1000000L) + "ms.");
+            }
+            catch (IOException | RuntimeException e)
+            {
+                System.out.println(l_file + ": " + e);
+            }
+        }
+        
+    }
+    
+    
+// (c)(i). Accessors (8) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_game
+     * Note that the game is modified by AdvanceTo(...) and Run().
+    */
+    public TetrisGame GetGame()
+    {
+        return f_game;
+    }
+    
+    /* Accessor of f_step_nanos
+    */
+    public long GetStepNanos()
+    {
+        return f_step_nanos;
+    }
+    
+    /* Accessor of f_num_steps_total
+     * This method returns the number of steps that elapsed in the recorded game.
+    */
+    public long GetNumStepsTotal()
+    {
+        return f_num_steps_total;
+    }
+    
+    /*
+     * This method returns the number of keyframes in the recording's index.
+    */
+    public int GetNumKeyframes()
+    {
+        return f_index_steps.length;
+    }
+    
+    /* Accessor of f_score_final
+     * This method returns the recorded final score (0 until the end of the recording has been read).
+    */
+    public long GetScoreFinal()
+    {
+        return f_score_final;
+    }
+    
+    /* Accessor of f_num_lines_cleared_final
+     * This method returns the recorded final number of lines cleared (0 until the end of the recording has been read).
+    */
+    public int GetNumLinesClearedFinal()
+    {
+        return f_num_lines_cleared_final;
+    }
+    
+    /* Accessor of f_level_final
+     * This method returns the recorded final level (0 until the end of the recording has been read).
+    */
+    public int GetLevelFinal()
+    {
+        return f_level_final;
+    }
+    
+    
+    
+// (d). Auxiliaries (5) ================================================================================================
+    
+    /* Auxiliary of the Constructor
+     * This method reads the index at the end of the file (see ReplayRecorder).
+    */
+    private void ReadIndex() throws IOException
+    {
+        if (f_buffer.limit() - f_offset_events < Long.BYTES)
+        { throw new IOException("The recording is incomplete."); }
+        
+        long l_offset_index = f_buffer.getLong(f_buffer.limit() - Long.BYTES);
+        if (l_offset_index < f_offset_events || l_offset_index > f_buffer.limit() - Long.BYTES)
+        { throw new IOException("The recording is incomplete."); }
+        
+        f_buffer.position((int)l_offset_index);
+        
+        f_num_steps_total = ReadVarint();
+        
+        int l_num_keyframes = (int)ReadVarint();
+        
+        f_index_steps = new long[l_num_keyframes];
+        f_index_offsets = new long[l_num_keyframes];
+        
+        for (int i = 0; i < l_num_keyframes; ++i)
+        {
+            f_index_steps[i] = ReadVarint() + (i != 0 ? f_index_steps[i - 1] : 0);
+            f_index_offsets[i] = ReadVarint() + (i != 0 ? f_index_offsets[i - 1] : 0);
+        }
+        
+    }
+    
+    /* Auxiliary of the Constructor and Seek
+     * This method restarts the game from its first step (i.e. from its seed) and reads the first event.
+    */
+    private void Restart()
+    {
+        f_game.Reset(f_seed);
+        
+        f_buffer.position(f_offset_events);
+        f_step_event = 0;
+        
+        ReadEvent();
+    }
+    
+    /* Auxiliary of Seek
+     * This method restores the game from the keyframe at the given index of the index, and reads the event that 
+       follows the keyframe.
+    */
+    private void LoadKeyframe(int a_index)
+    {
+        f_buffer.position((int)f_index_offsets[a_index]);
+        
+        int l_length = (int)ReadVarint();
+        int l_offset_state = f_buffer.position();
+        
+        f_game.ReadState(f_buffer);
+        
+        if (f_buffer.position() - l_offset_state != l_length)
+        { throw new IllegalStateException("The recording is corrupt: a keyframe's length doesn't match the state's."); }
+        
+        f_step_event = f_index_steps[a_index];
+        
+        ReadEvent();
+    }
+    
+    /* Auxiliary of Restart, LoadKeyframe, and AdvanceTo
+     * This method reads the next event (and, if it's the end event, the footer). Keyframes are skipped.
+    */
+    private void ReadEvent()
+    {
+        while (true)
+        {
+            long l_event = ReadVarint();
+        
+            f_step_event += l_event >>> ReplayRecorder.S_CODE_BITS;
+            f_code_event = (int)(l_event & ((1 << ReplayRecorder.S_CODE_BITS) - 1));
+            
+            if (f_code_event != ReplayRecorder.S_CODE_KEYFRAME)
+            { break; }
+            
+            // Skip the keyframe's state.
+            int l_length = (int)ReadVarint();
+            f_buffer.position(f_buffer.position() + l_length);
+        }
+        
+        if (f_code_event == ReplayRecorder.S_CODE_END)
+        {
+            f_score_final = ReadVarint();
+            f_num_lines_cleared_final = (int)ReadVarint();
+            f_level_final = (int)ReadVarint();
+            f_checksum_final = f_buffer.getLong();
+        }
+        else if (f_code_event >= s_commands.length)
+        {
+            throw new IllegalStateException("The recording is corrupt: unknown event code " + f_code_event + ".");
+        }
+        
+    }
+    
+    /* Auxiliary of the Constructor, ReadIndex, LoadKeyframe, and ReadEvent
+     * This method reads a varint (see ReplayRecorder).
+    */
+    private long ReadVarint()
+    {
+        long l_value = 0;
+        
+        for (int l_shift = 0; ; l_shift += 7)
+        {
+            byte l_byte = f_buffer.get();
+            
+            l_value |= (long)(l_byte & 0x7F) << l_shift;
+            
+            if ((l_byte & 0x80) == 0)
+            { return l_value; }
+        }
+        
+    }
+    
+    
+}
@@ -0,0 +1,344 @@
+package TetrisPackage;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/*
+ * An object of this class records a game to a file, such that it can be re-simulated exactly (see ReplayPlayer).
+ * As a game is entirely determined by its seed, its kind of randomizer, and the commands that are applied at each step
+   (see TetrisGame), only these are recorded: i.e. the recording of a game is its seed plus a 'log' of its input.
+ * The file is written through a buffer, so the channel is only written to when the buffer fills and when the
+   recording is finished. A game's commands alone rarely fill the buffer, but its keyframes (each roughly
+   S_STATE_SIZE bytes) do: e.g. a ten-minute game fills it at least once at the default keyframe interval.
+ * So that a replay can seek without re-simulating the game from the start, a 'keyframe' (i.e. the entire state of the
+   game; see TetrisGame.WriteState(...)) is recorded each time a given number of tetrominos have spawned, and an
+   index of the keyframes is written at the end of the file. Seeking therefore requires a binary search of the index
+   plus the re-simulation of at most that number of tetrominos (see ReplayPlayer.Seek(...)).
+ * The format of the file is as follows (a 'varint' is an unsigned integer written 7 bits per byte, least significant
+   first, with the high bit of each byte set if another byte follows):
+     > Header: the magic number S_MAGIC (4 bytes), the format version (1 byte), the length of a step in nanoseconds
+       (varint), the seed (8 bytes), and the ordinal of the kind of randomizer (1 byte; see PieceRandomizer.Kind).
+     > Events: each event is a varint whose lowest S_CODE_BITS bits are the event's code, and whose remaining bits are
+       the number of steps between the previous event and this one. Codes 0 to 5 are the ordinals of the commands
+       (see InputQueue.Command); S_CODE_END marks the end of the game. A command's step is the number of steps that
+       had elapsed when it was applied: i.e. it's applied before the following step. S_CODE_KEYFRAME marks a keyframe,
+       and is followed by the length of the state (varint) and the state itself; a keyframe's step is the number of
+       steps that had elapsed when it was recorded, and it precedes any commands applied before the following step.
+     > Footer (after the end event): the final score, number of lines cleared, and level (varints), and the checksum
+       of the final state (8 bytes; see GameSnapshot.GetChecksum()).
+     > Index: the final step and the number of keyframes (varints), then the step and offset of each keyframe
+       (varints, each relative to that of the previous keyframe). A keyframe's offset is the position within the file
+       of its state's length (i.e. the byte after its event). The index's own offset is the last 8 bytes of the file.
+ * As the user rarely issues more than a few commands per second, most events fit within a single byte: e.g. a
+   ten-minute game requires a few KB, plus roughly S_STATE_SIZE bytes per keyframe.
+
+ * Composition:
+     (a). Fields (20)
+         (i). Static Fields (9)
+     (b). Constructors (2)
+     (c). Public Methods (4)
+     (d). Auxiliaries (5)
+*/
+public class ReplayRecorder
+{
+    
+// (a). Fields (20) ====================================================================================================
+    
+    // The channel through which the file is written.
+    private final FileChannel f_channel;
+    
+    // The buffer in which the data is held until it's written to f_channel.
+    private final ByteBuffer f_buffer;
+    
+    // The number of bytes that have been written to f_channel.
+    private long f_num_bytes_flushed;
+    
+    // The step of the previous event.
+    private long f_step_last;
+    
+    // The number of tetrominos that spawn between consecutive keyframes.
+    private final int f_keyframe_interval;
+    
+    // The number of tetrominos that had spawned when the previous keyframe was recorded.
+    private int f_num_tetrominos_keyframe;
+    
+    // The buffer into which the state of a keyframe is written.
+    private final ByteBuffer f_state;
+    
+    // The step and offset of each keyframe (the first f_num_keyframes elements are used).
+    private long f_index_steps[];
+    private long f_index_offsets[];
+    
+    // The number of keyframes that have been recorded.
+    private int f_num_keyframes;
+    
+    // A flag that, when true, indicates that the file has been closed.
+    private boolean f_is_closed;
+    
+    
+// (a)(i). Static Fields (9) -------------------------------------------------------------------------------------------
+    
+    // The value that identifies a file as a recording: "BRPL" (in ASCII).
+    public static final int S_MAGIC = 0x4252504C;
+    
+    /*
+     * The version of the format.
+     * Earlier versions can't be replayed: versions 1 and 2 were recorded by games whose tetrominos were chosen by a
+       java.util.Random, and the keyframes of version 3 don't contain the queue of upcoming tetrominos.
+    */
+    public static final byte S_VERSION = 4;
+    
+    // The number of bits of an event that are occupied by its code.
+    public static final int S_CODE_BITS = 3;
+    
+    // The code of the event that marks a keyframe.
+    public static final int S_CODE_KEYFRAME = (1 << S_CODE_BITS) - 2;
+    
+    // The code of the event that marks the end of the game.
+    public static final int S_CODE_END = (1 << S_CODE_BITS) - 1;
+    
+    /*
+     * The default number of tetrominos that spawn between consecutive keyframes.
+     * Re-simulating this many tetrominos takes well under a millisecond, while the keyframes of an hour-long game
+       occupy only tens of KB.
+    */
+    public static final int S_KEYFRAME_INTERVAL_DEFAULT = 25;
+    
+    // The default extension of a recording's file.
+    public static final String S_EXTENSION = ".brpl";
+    
+    // The capacity (bytes) of f_buffer.
+    private static final int s_buffer_capacity = 8192;
+    
+    // The initial capacity of f_index_steps and f_index_offsets.
+    private static final int s_index_capacity = 64;
+    
+    
+    
+// (b). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     * Creates (or overwrites) the file and writes the header.
+     
+     * Parameters:
+         > a_path: the file to which the game is recorded.
+         > a_game: the game that's recorded; it must have been started (see TetrisGame.Reset(...)).
+         > a_keyframe_interval: the number of tetrominos that spawn between consecutive keyframes.
+    */
+    public ReplayRecorder(Path a_path, TetrisGame a_game, int a_keyframe_interval) throws IOException
+    {
+        if (a_keyframe_interval < 1)
+        { throw new IllegalArgumentException("The keyframe interval must be positive."); }
+        
+        f_channel = FileChannel.open(a_path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                     StandardOpenOption.TRUNCATE_EXISTING);
+        f_buffer = ByteBuffer.allocate(s_buffer_capacity);
+        
+        f_keyframe_interval = a_keyframe_interval;
+        f_state = ByteBuffer.allocate(TetrisGame.S_STATE_SIZE);
+        f_index_steps = new long[s_index_capacity];
+        f_index_offsets = new long[s_index_capacity];
+        
+        f_buffer.putInt(S_MAGIC);
+        f_buffer.put(S_VERSION);
+        WriteVarint(a_game.GetStepNanos());
+        f_buffer.putLong(a_game.GetSeed());
+        f_buffer.put((byte)a_game.GetRandomizer().GetKind().ordinal());
+    }
+    
+    /* Constructor
+     * Creates (or overwrites) the file and writes the header; a keyframe is recorded every 
+       S_KEYFRAME_INTERVAL_DEFAULT tetrominos.
+     
+     * Parameters:
+         > a_path: the file to which the game is recorded.
+         > a_game: the game that's recorded; it must have been started (see TetrisGame.Reset(...)).
+    */
+    public ReplayRecorder(Path a_path, TetrisGame a_game) throws IOException
+    {
+        this(a_path, a_game, S_KEYFRAME_INTERVAL_DEFAULT);
+    }
+    
+    
+    
+// (c). Public Methods (4) =============================================================================================
+    
+    /*
+     * This method records a command.
+     
+     * Parameters:
+         > a_step: the number of steps that had elapsed when the command was applied (see TetrisGame.GetNumSteps()).
+         > a_command: the command.
+    */
+    public void Record(long a_step, InputQueue.Command a_command) throws IOException
+    {
+        WriteEvent(a_step, a_command.ordinal());
+    }
+    
+    /*
+     * This method records a keyframe of the given game if f_keyframe_interval tetrominos have spawned since the 
+       previous one. This should be called after each step of the game.
+     
+     * Parameters:
+         > a_game: the game that's being recorded.
+    */
+    public void Update(TetrisGame a_game) throws IOException
+    {
+        int l_num_tetrominos = a_game.GetNumTetrominos();
+        
+        if (l_num_tetrominos - f_num_tetrominos_keyframe < f_keyframe_interval)
+        { return; }
+        
+        f_num_tetrominos_keyframe = l_num_tetrominos;
+        
+        WriteEvent(a_game.GetNumSteps(), S_CODE_KEYFRAME);
+        
+        // Add the keyframe to the index.
+        if (f_num_keyframes == f_index_steps.length)
+        {
+            f_index_steps = Arrays.copyOf(f_index_steps, 2 * f_num_keyframes);
+            f_index_offsets = Arrays.copyOf(f_index_offsets, 2 * f_num_keyframes);
+        }
+        
+        f_index_steps[f_num_keyframes] = a_game.GetNumSteps();
+        f_index_offsets[f_num_keyframes] = GetOffset();
+        ++f_num_keyframes;
+        
+        // Write the game's state.
+        f_state.clear();
+        a_game.WriteState(f_state);
+        f_state.flip();
+        
+        WriteVarint(f_state.remaining());
+        Reserve(f_state.remaining());
+        f_buffer.put(f_state);
+    }
+    
+    /*
+     * This method records the end of the game (along with its final state), writes the index, and closes the file.
+     
+     * Parameters:
+         > a_step: the number of steps that had elapsed when the game ended.
+         > a_snapshot: a snapshot of the final state of the game.
+    */
+    public void Finish(long a_step, GameSnapshot a_snapshot) throws IOException
+    {
+        WriteEvent(a_step, S_CODE_END);
+        
+        WriteVarint(a_snapshot.GetScore());
+        WriteVarint(a_snapshot.GetNumLinesCleared());
+        WriteVarint(a_snapshot.GetLevel());
+        Reserve(Long.BYTES);
+        f_buffer.putLong(a_snapshot.GetChecksum());
+        
+        // Write the index.
+        long l_offset_index = GetOffset();
+        
+        WriteVarint(a_step);
+        WriteVarint(f_num_keyframes);
+        
+        for (int i = 0; i < f_num_keyframes; ++i)
+        {
+            WriteVarint(f_index_steps[i] - (i != 0 ? f_index_steps[i - 1] : 0));
+            WriteVarint(f_index_offsets[i] - (i != 0 ? f_index_offsets[i - 1] : 0));
+        }
+        
+        Reserve(Long.BYTES);
+        f_buffer.putLong(l_offset_index);
+        
+        Close();
+    }
+    
+    /*
+     * This method writes any buffered data and closes the file (if it isn't already closed). A file that's closed
+       without being finished can't be replayed.
+    */
+    public void Close() throws IOException
+    {
+        if (f_is_closed)
+        { return; }
+        
+        f_is_closed = true;
+        
+        try
+        { Flush(); }
+        finally
+        { f_channel.close(); }
+    }
+    
+    
+    
+// (d). Auxiliaries (5) ================================================================================================
+    
+    /* Auxiliary of Record, Update, and Finish
+     * This method writes an event.
+     
+     * Parameters:
+         > a_step: the event's step.
+         > a_code: the event's code.
+    */
+    private void WriteEvent(long a_step, int a_code) throws IOException
+    {
+        WriteVarint(((a_step - f_step_last) << S_CODE_BITS) | a_code);
+        
+        f_step_last = a_step;
+    }
+    
+    /* Auxiliary of the Constructor, Update, WriteEvent, and Finish
+     * This method writes a (non-negative) value as a varint.
+    */
+    private void WriteVarint(long a_value) throws IOException
+    {
+        // A long requires at most 10 bytes.
+        Reserve(10);
+        
+        while ((a_value & ~0x7FL) != 0)
+        {
+            f_buffer.put((byte)((a_value & 0x7F) | 0x80));
+            a_value >>>= 7;
+        }
+        
+        f_buffer.put((byte)a_value);
+    }
+    
+    /* Auxiliary of Update, WriteVarint, and Finish
+     * This method ensures that f_buffer has space for the given number of bytes, writing its contents to the file if
+       it doesn't.
+    */
+    private void Reserve(int a_num_bytes) throws IOException
+    {
+        if (f_buffer.remaining() < a_num_bytes)
+        { Flush(); }
+    }
+    
+    /* Auxiliary of Reserve and Close
+     * This method writes the contents of f_buffer to the file.
+    */
+    private void Flush() throws IOException
+    {
+        f_buffer.flip();
+        
+        f_num_bytes_flushed += f_buffer.remaining();
+        
+        while (f_buffer.hasRemaining())
+        { f_channel.write(f_buffer); }
+        
+        f_buffer.clear();
+    }
+    
+    /* Auxiliary of Update and Finish
+     * This method returns the offset within the file at which the next byte will be written.
+    */
+    private long GetOffset()
+    {
+        return f_num_bytes_flushed + f_buffer.position();
+    }
+    
+    
+}
@@ -0,0 +1,92 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class is a randomizer that behaves like that of the NES version of Tetris (see PieceRandomizer):
+   a value is drawn from eight possibilities (one per type plus a 'reroll' value), and if it's the reroll value or the
+   type of the previous tetromino, a second value is drawn from the seven types, which is then accepted.
+ * Therefore, the previous type is roughly a quarter as likely as each of the others to spawn again (1/28 rather than
+   9/56 per other type), but long 'droughts' of a type are as likely as with a uniform randomizer.
+
+ * Composition:
+     (a). Fields (4)
+         (i). Static Fields (2)
+     (b). Constructors (1)
+     (c). Public Methods (3)
+*/
+public class RerollRandomizer
+    implements PieceRandomizer
+{
+    
+// (a). Fields (4) =====================================================================================================
+    
+    // The generator from which the types are drawn.
+    private SplittableRandom f_random;
+    
+    // The ordinal of the previous tetromino's type (-1 if no tetrominos have been drawn).
+    private int f_ordinal_previous;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    // The seed that's used until Reset(...) is called.
+    private static final long s_seed_default = 0;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * Creates a randomizer with a default seed: i.e. Reset(...) should be called before the first tetromino is drawn.
+    */
+    public RerollRandomizer()
+    {
+        Reset(s_seed_default);
+    }
+    
+    
+    
+// (c). Public Methods (3) =============================================================================================
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public void Reset(long a_seed)
+    {
+        f_random = new SplittableRandom(a_seed);
+        
+        f_ordinal_previous = -1;
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Tetromino.Type Next()
+    {
+        // The value s_types.length is the reroll value.
+        int l_ordinal = f_random.nextInt(s_types.length + 1);
+        
+        if (l_ordinal == s_types.length || l_ordinal == f_ordinal_previous)
+        { l_ordinal = f_random.nextInt(s_types.length); }
+        
+        f_ordinal_previous = l_ordinal;
+        
+        return s_types[l_ordinal];
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Kind GetKind()
+    {
+        return Kind.Reroll;
+    }
+    
+    
+}
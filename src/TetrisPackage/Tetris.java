@@ -80,7 +80,7 @@ public class Tetris
 // (a). Static Fields (4)  =============================================================================================
     
     /*
-     * The file in which the game's high-score is stored. 
+     * The file in which the game's high-scores (i.e. the leaderboard) are stored. 
     */
     public static final String s_file_high_score = "high_score.txt";
     
@@ -0,0 +1,498 @@
+
+package TetrisPackage;
+
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class holds the state of a Tetris playfield independently of any graphical elements: i.e. it's
+   the 'model' of a grid, whereas a TetrisGrid is a 'view' of one.
+ * Each row of the playfield is stored as an int bitmask (bit 'col' of a row's mask is set if the tile at (col,row) is
+   occupied), which allows for collision checks and full-row checks to be performed with primitive operations. A
+   parallel 'plane' of bytes records the type of tetromino that occupies each tile.
+ * The coordinate system is the same as that of TetrisGrid: the origin is the top-left tile and the y-coordinate
+   (row index) increases down the screen.
+ * Rows are stored in a ring buffer: the 'logical' row index (the y-coordinate) is mapped to a 'physical' row index
+   (the index into the storage arrays) via f_ring and f_ring_head. This means that clearing a line doesn't require
+   any tiles to be copied: the rows beneath the cleared ones are remapped, and the cleared (physical) rows are reused
+   as the new top rows of the playfield.
+ * The engine maintains a (Zobrist) hash of the playfield's occupancy, which allows a search to recognise a board that
+   it's already evaluated (see TranspositionTable). Each row's hash is the XOR of a random key per occupied column,
+   and is updated (by a single XOR) whenever a tile is occupied or emptied; the board's hash combines each row's hash
+   with a random multiplier per (logical) row. As a line clear moves the rows above it, the board's hash is then
+   recomputed from the rows' hashes (which aren't affected by the move). The hash ignores the tiles' types, as the
+   rules of the game don't depend on them.
+
+ * Composition:
+     (a). Fields (12)
+         (i). Static Fields (3)
+     (b). Constructors (1)
+     (c). Public Methods (17)
+         (i). Accessors (5)
+         (ii). Mutators (3)
+     (d). Auxiliaries (4)
+*/
+public class TetrisEngine
+{
+    
+// (a). Fields (12) ====================================================================================================
+    
+    /*
+     * The occupancy bitmask of each (physical) row: i.e. bit 'col' of f_rows[Physical(row)] is set if the tile at
+       (col,row) is occupied.
+    */
+    private int f_rows[];
+    
+    /*
+     * The number of occupied tiles in each (physical) row.
+     * These counters allow for full rows to be found without inspecting the tiles themselves.
+    */
+    private int f_row_fill[];
+    
+    /*
+     * The type of each tile, stored (physical) row by row: i.e. the type of the tile at (col,row) is
+       f_types[Physical(row) * f_num_columns + col].
+     * A value of S_TYPE_EMPTY indicates that the tile is empty; otherwise, the value is the ordinal of the tile's
+       Tetromino.Type plus one.
+    */
+    private byte f_types[];
+    
+    /* The Ring Buffer
+     * The physical index of each logical row: i.e. the physical index of row 'row' is
+       f_ring[(f_ring_head + row) % f_num_rows].
+    */
+    private int f_ring[];
+    
+    /*
+     * The index of f_ring that corresponds to the top (logical) row of the playfield.
+    */
+    private int f_ring_head;
+    
+    /*
+     * The dimensions of the playfield.
+    */
+    private int f_num_rows;
+    private int f_num_columns;
+    
+    /*
+     * The number of rows that are currently full: i.e. the number of rows that RemoveFullLines would clear.
+    */
+    private int f_num_full_rows;
+    
+    /*
+     * The hash of each (physical) row: i.e. the XOR of s_column_keys[col] for each occupied column 'col'.
+    */
+    private long f_row_hashes[];
+    
+    /*
+     * The (odd) multiplier of each logical row's hash, which makes the board's hash depend on the rows' positions.
+    */
+    private long f_row_keys[];
+    
+    /*
+     * The hash of the playfield: i.e. the XOR, for each logical row 'row', of the row's hash multiplied by 
+       f_row_keys[row].
+    */
+    private long f_hash;
+    
+    
+// (a)(i). Static Fields (3) -------------------------------------------------------------------------------------------
+    
+    // The value of an empty tile in f_types.
+    public static final byte S_TYPE_EMPTY = 0;
+    
+    // The maximum number of columns, which is limited by the number of bits in an int.
+    public static final int S_MAX_NUM_COLUMNS = Integer.SIZE - 1;
+    
+    // The random key of each column (see f_row_hashes).
+    private static final long s_column_keys[] = new SplittableRandom(0x5EED).longs(S_MAX_NUM_COLUMNS).toArray();
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_num_rows: the playfield's number of rows.
+         > a_num_columns: the playfield's number of columns (at most S_MAX_NUM_COLUMNS).
+    */
+    public TetrisEngine(int a_num_rows, int a_num_columns)
+    {
+        if (a_num_rows <= 0 || a_num_columns <= 0 || a_num_columns > S_MAX_NUM_COLUMNS)
+        { throw new IllegalArgumentException("Invalid playfield dimensions: " + a_num_columns + "x" + a_num_rows); }
+        
+        f_num_rows = a_num_rows;
+        f_num_columns = a_num_columns;
+        
+        f_rows = new int[a_num_rows];
+        f_row_fill = new int[a_num_rows];
+        f_types = new byte[a_num_rows * a_num_columns];
+        f_ring = new int[a_num_rows];
+        f_row_hashes = new long[a_num_rows];
+        
+        // The multipliers are the same for every engine, such that equal boards have equal hashes.
+        SplittableRandom l_random = new SplittableRandom(0x5EED + 1);
+        f_row_keys = new long[a_num_rows];
+        for (int i = 0; i < a_num_rows; ++i)
+        { f_row_keys[i] = l_random.nextLong() | 1; }
+        
+        Reset();
+    }
+    
+    
+    
+// (c). Public Methods (17) ============================================================================================
+    
+    /*
+     * Empties every tile of the playfield.
+    */
+    public void Reset()
+    {
+        Arrays.fill(f_rows, 0);
+        Arrays.fill(f_row_fill, 0);
+        Arrays.fill(f_types, S_TYPE_EMPTY);
+        Arrays.fill(f_row_hashes, 0);
+        
+        for (int i = 0; i < f_num_rows; ++i)
+        { f_ring[i] = i; }
+        
+        f_ring_head = 0;
+        f_num_full_rows = 0;
+        f_hash = 0;
+    }
+    
+    /*
+     * This method returns true if the playfield is completely empty; false if otherwise.
+    */
+    public boolean IsEmpty()
+    {
+        // If the bottom row is empty, all other rows must also be empty.
+        return f_row_fill[Physical(f_num_rows - 1)] == 0;
+    }
+    
+    /*
+     * This method returns true if the given coordinate is within the bounds of the playfield; false if otherwise.
+     
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the row of the tile.
+    */
+    public boolean IsOnBoard(int a_x, int a_y)
+    {
+        return a_x >= 0 && a_x < f_num_columns && a_y >= 0 && a_y < f_num_rows;
+    }
+    
+    /*
+     * This method returns true if the tile at the given (valid) coordinate is empty; false if otherwise.
+     
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the row of the tile.
+    */
+    public boolean IsCellEmpty(int a_x, int a_y)
+    {
+        return (f_rows[Physical(a_y)] & (1 << a_x)) == 0;
+    }
+    
+    /*
+     * This method returns true if the given coordinate is both within the bounds of the playfield and empty; false if
+       otherwise.
+       
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the row of the tile.
+    */
+    public boolean CanBeMovedTo(int a_x, int a_y)
+    {
+        return a_x >= 0 && a_x < f_num_columns && a_y >= 0 && a_y < f_num_rows &&
+               (f_rows[Physical(a_y)] & (1 << a_x)) == 0;
+    }
+    
+    /*
+     * This method returns true if every tile of the given row is occupied; false if otherwise.
+     
+     * Parameters:
+         > a_y: the index of the row.
+    */
+    public boolean IsRowFull(int a_y)
+    {
+        return f_row_fill[Physical(a_y)] == f_num_columns;
+    }
+    
+    /*
+     * This method returns the number of rows that a tile at the given coordinate could fall before landing on either 
+       an occupied tile or the bottom of the playfield: i.e. the distance between the tile and the 'surface' of its 
+       column beneath it.
+     
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the row of the tile.
+    */
+    public int GetDropDistance(int a_x, int a_y)
+    {
+        int l_bit = 1 << a_x;
+        
+        int l_row = a_y + 1;
+        
+        while (l_row < f_num_rows && (f_rows[Physical(l_row)] & l_bit) == 0)
+        { ++l_row; }
+        
+        return l_row - a_y - 1;
+    }
+    
+    /*
+     * This method clears all rows that are full and shifts all other (non-full) rows downwards.
+     * No tiles are copied: the full rows are found via f_row_fill, and each one is removed by remapping the rows
+       beneath it in f_ring and moving the head of f_ring such that the cleared row becomes the top row. The cost is
+       therefore proportional to the number of cleared rows (and their distance from the bottom of the playfield),
+       rather than to the playfield's area.
+       
+     * Return Value:
+         > The number of full rows that were cleared.
+    */
+    public int RemoveFullLines()
+    {
+        if (f_num_full_rows == 0)
+        { return 0; }
+        
+        // The number of full rows cleared thus far.
+        int l_num_cleared = 0;
+        
+        for (int row = f_num_rows - 1; row >= 0 && l_num_cleared != f_num_full_rows; --row)
+        {
+            int l_physical = Physical(row);
+            
+            if (f_row_fill[l_physical] == f_num_columns)
+            {
+                // Empty the row such that it can be reused as the top row.
+                ClearPhysicalRow(l_physical);
+                
+                ++l_num_cleared;
+                
+                // Shift the rows beneath this one up one place in the ring, which frees the bottom slot.
+                // n.b. there are at most (f_num_rows - 1 - row) of these rows, which is small as full rows are found
+                //      near the bottom of the playfield.
+                for (int below = row; below < f_num_rows - 1; ++below)
+                { f_ring[RingIndex(below)] = f_ring[RingIndex(below + 1)]; }
+                
+                // Place the cleared row in the bottom slot, and then rotate the ring such that the bottom slot becomes
+                // the top slot. This moves every row above the cleared one down a row, whilst the rows beneath it
+                // (which were shifted up above) return to their original positions.
+                f_ring[RingIndex(f_num_rows - 1)] = l_physical;
+                f_ring_head = (f_ring_head == 0) ? f_num_rows - 1 : f_ring_head - 1;
+                
+                // The row that's now at index 'row' (which was above the cleared row) hasn't been checked yet.
+                ++row;
+            }
+            else if (f_row_fill[l_physical] == 0) // If the row is empty, all rows above it are also empty.
+            {
+                break;
+            }
+            
+        }
+        
+        f_num_full_rows = 0;
+        
+        // The rows above the cleared ones have moved, so their contributions to the hash have changed.
+        Rehash();
+        
+        return l_num_cleared;
+    }
+    
+    /*
+     * This method copies the type value of every tile into the given array, (logical) row by row: i.e. the value of the
+       tile at (col,row) is written to a_cells[row * f_num_columns + col].
+     * Each row is stored contiguously, so this requires only one array copy per row.
+     
+     * Parameters:
+         > a_cells: the array into which the values are copied; its length must be at least f_num_rows * f_num_columns.
+    */
+    public void CopyCells(byte a_cells[])
+    {
+        for (int row = 0; row < f_num_rows; ++row)
+        { System.arraycopy(f_types, Physical(row) * f_num_columns, a_cells, row * f_num_columns, f_num_columns); }
+    }
+    
+    
+// (c)(i). Accessors (5) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_num_rows
+    */
+    public int GetNumRows()
+    {
+        return f_num_rows;
+    }
+    
+    /* Accessor of f_num_columns
+    */
+    public int GetNumColumns()
+    {
+        return f_num_columns;
+    }
+    
+    /* Accessor of f_rows
+     * This method returns the occupancy bitmask of the given row.
+    */
+    public int GetRowMask(int a_y)
+    {
+        return f_rows[Physical(a_y)];
+    }
+    
+    /* Accessor of f_types
+     * This method returns the type value (S_TYPE_EMPTY or a Tetromino.Type ordinal plus one) of the given tile.
+    */
+    public byte GetCell(int a_x, int a_y)
+    {
+        return f_types[Physical(a_y) * f_num_columns + a_x];
+    }
+    
+    /* Accessor of f_hash
+     * This method returns the hash of the playfield's occupancy: i.e. two playfields (of the same dimensions) whose 
+       tiles are occupied in the same places have the same hash.
+    */
+    public long GetHash()
+    {
+        return f_hash;
+    }
+    
+    
+// (c)(ii). Mutators (3) -----------------------------------------------------------------------------------------------
+    
+    /* Mutator of f_rows and f_types
+     * This method occupies the tile at the given (valid) coordinate with a tile of the given type.
+     
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the row of the tile.
+         > a_type: the type of the tetromino to which the tile belongs.
+    */
+    public void SetCell(int a_x, int a_y, Tetromino.Type a_type)
+    {
+        int l_physical = Physical(a_y);
+        
+        if ((f_rows[l_physical] & (1 << a_x)) == 0) // If the tile is currently empty.
+        {
+            f_rows[l_physical] |= 1 << a_x;
+            
+            if (++f_row_fill[l_physical] == f_num_columns)
+            { ++f_num_full_rows; }
+            
+            UpdateHash(a_x, a_y, l_physical);
+        }
+        
+        f_types[l_physical * f_num_columns + a_x] = (byte)(a_type.ordinal() + 1);
+    }
+    
+    /* Mutator of f_rows and f_types
+     * This method empties the tile at the given (valid) coordinate.
+     
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the row of the tile.
+    */
+    public void ClearCell(int a_x, int a_y)
+    {
+        int l_physical = Physical(a_y);
+        
+        if ((f_rows[l_physical] & (1 << a_x)) == 0) // If the tile is already empty.
+        { return; }
+        
+        if (f_row_fill[l_physical]-- == f_num_columns)
+        { --f_num_full_rows; }
+        
+        f_rows[l_physical] &= ~(1 << a_x);
+        f_types[l_physical * f_num_columns + a_x] = S_TYPE_EMPTY;
+        
+        UpdateHash(a_x, a_y, l_physical);
+    }
+    
+    /* Mutator of all fields
+     * This method makes this playfield a copy of the given one (which must have the same dimensions).
+     
+     * Parameters:
+         > a_engine: the playfield to copy.
+    */
+    public void CopyFrom(TetrisEngine a_engine)
+    {
+        if (a_engine.f_num_rows != f_num_rows || a_engine.f_num_columns != f_num_columns)
+        { throw new IllegalArgumentException("The playfields' dimensions differ."); }
+        
+        System.arraycopy(a_engine.f_rows, 0, f_rows, 0, f_num_rows);
+        System.arraycopy(a_engine.f_row_fill, 0, f_row_fill, 0, f_num_rows);
+        System.arraycopy(a_engine.f_types, 0, f_types, 0, f_types.length);
+        System.arraycopy(a_engine.f_ring, 0, f_ring, 0, f_num_rows);
+        System.arraycopy(a_engine.f_row_hashes, 0, f_row_hashes, 0, f_num_rows);
+        
+        f_ring_head = a_engine.f_ring_head;
+        f_num_full_rows = a_engine.f_num_full_rows;
+        f_hash = a_engine.f_hash;
+    }
+    
+    
+    
+// (d). Auxiliaries (4) ================================================================================================
+    
+    /* Auxiliary of (most) methods
+     * This method returns the index of f_ring that corresponds to the given logical row.
+    */
+    private int RingIndex(int a_y)
+    {
+        int l_index = f_ring_head + a_y;
+        
+        return (l_index >= f_num_rows) ? l_index - f_num_rows : l_index;
+    }
+    
+    /* Auxiliary of (most) methods
+     * This method returns the physical index of the given logical row.
+    */
+    private int Physical(int a_y)
+    {
+        return f_ring[RingIndex(a_y)];
+    }
+    
+    /* Auxiliary of RemoveFullLines
+     * Empties every tile of the given physical row.
+    */
+    private void ClearPhysicalRow(int a_physical)
+    {
+        f_rows[a_physical] = 0;
+        f_row_fill[a_physical] = 0;
+        Arrays.fill(f_types, a_physical * f_num_columns, (a_physical + 1) * f_num_columns, S_TYPE_EMPTY);
+        f_row_hashes[a_physical] = 0;
+    }
+    
+    /* Auxiliary of SetCell and ClearCell
+     * This method updates the hashes to reflect that the given tile has been occupied or emptied (which are the same
+       operation, as a key is XORed).
+     
+     * Parameters:
+         > a_x: the column of the tile.
+         > a_y: the (logical) row of the tile.
+         > a_physical: the physical index of the tile's row.
+    */
+    private void UpdateHash(int a_x, int a_y, int a_physical)
+    {
+        long l_row_hash_old = f_row_hashes[a_physical];
+        long l_row_hash_new = l_row_hash_old ^ s_column_keys[a_x];
+        
+        f_row_hashes[a_physical] = l_row_hash_new;
+        
+        f_hash ^= (l_row_hash_old * f_row_keys[a_y]) ^ (l_row_hash_new * f_row_keys[a_y]);
+    }
+    
+    /* Auxiliary of RemoveFullLines
+     * This method recomputes the hash of the playfield from the hashes of its rows.
+    */
+    private void Rehash()
+    {
+        f_hash = 0;
+        
+        for (int row = 0; row < f_num_rows; ++row)
+        { f_hash ^= f_row_hashes[Physical(row)] * f_row_keys[row]; }
+    }
+    
+    
+}
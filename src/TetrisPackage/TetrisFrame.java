@@ -9,11 +9,17 @@ import java.awt.GridBagLayout;
 import java.awt.Dimension;
 import java.awt.Font;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.concurrent.ForkJoinPool;
+
 import javax.swing.JButton;
 import javax.swing.JFrame;
-
-import Utils.Vector2D;
-import Utils.RNG;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 
 /* The Game's Frame
@@ -29,11 +35,11 @@ import Utils.RNG;
    value indefinitely.
 
  * Class Composition:
-     (a). Fields (23)
-         (i). Static Fields (9)
+     (a). Fields (28)
+         (i). Static Fields (10)
      (b). Constructors (1)
      (c). Public Methods (1)
-     (d). Auxiliaries (9)
+     (d). Auxiliaries (10)
      (e). Event Handlers (2)
      (f). Nested Classes (1)
          (i). Inner Classes (1)
@@ -44,7 +50,7 @@ public class TetrisFrame
         implements Runnable
 {
     
-// (a). Fields (23) ====================================================================================================
+// (a). Fields (28) ====================================================================================================
     
     /* The Board
      * The grid on which the game is PlayRestarted.
@@ -61,14 +67,6 @@ public class TetrisFrame
     */
     private TetrominoTallyPanel f_tallies;
     
-    /* The Tetromino
-     * The tetromino that the user moves.
-    */
-    private Tetromino f_tetromino;
-    
-    // The tetromino that's disPlayRestarted on the TetrisGrid object of f_info.
-    private Tetromino f_next_tetromino;
-
     /* PlayRestart Button
      * When pressed, the game commences (assuming the s_testing flag is set to false).
     */
@@ -82,86 +80,74 @@ public class TetrisFrame
     /* Game Thread
      * The thread on which the game is PlayRestarted. 
     */
-    private Thread f_game_thread;
+    private volatile Thread f_game_thread;
     
     /*
-     * The current period at which the tetromino falls (ms): i.e. each f_fall_rate_current ms the tetromino moves one 
-       place down the screen. The lower the fall rate, the faster it falls.
+     * A flag that, when true, indicates that the game is to be PauseResumed.
     */
-    private int f_fall_period_current;
+    private volatile boolean f_is_paused;
     
-    /*
-     * The current normal (non soft-drop) period at which the tetromino falls (ms).
+    /* The Clock
+     * The fixed-timestep clock against which the game's timers (gravity, locking, etc.) run.
     */
-    private int f_fall_period_normal;
+    private GameClock f_clock;
     
-    /*
-     * A flag that, when true, indicates that the current tetromino piece is to fall at a faster rate than the current
-       one: i.e. the piece is to drop in a 'soft' way such that the it can still be moved and rotated.
+    /* Input Queue
+     * The commands that have been issued by the user (on the event dispatch thread) but haven't yet been applied (by 
+       the game thread).
     */
-    private boolean f_is_soft_drop;
+    private InputQueue f_input;
     
-    /*
-     * The value which determines what f_fall_period_current will be.
-     * The higher this value, the lower f_fall_period_current is; when f_period_coefficient is at its highest value, 
-       f_fall_period_current is at its lowest (see the run() method for more explanation). 
+    /* The Game
+     * The rules and state of the game, which are only modified by f_game_thread (or the event dispatch thread when 
+       s_testing is set).
     */
-    private int f_period_coefficient;
+    private TetrisGame f_game;
     
-    /*
-     * The number of 'period-cycles' that have elapsed thus far. 
-    */
-    private int f_num_period_cycles_elapsed;
+    // The snapshot of f_game that's currently displayed.
+    private GameSnapshot f_snapshot_rendered;
     
-    /*
-     * A flag that, when true, indicates that the game is to be PauseResumed.
+    /* Render Timer
+     * This timer periodically updates the graphics to display the latest snapshot of f_game (on the event dispatch 
+       thread).
     */
-    private boolean f_is_paused;
-    
+    private Timer f_timer_render;
     
-// (a)(i). Static Fields (8) -------------------------------------------------------------------------------------------
+    // The high scores, which are read and written in the background.
+    private Leaderboard f_leaderboard;
     
     /*
-     * The slowest/highest period at which the tetromino falls (ms).
+     * The time (System.nanoTime()) at which the repaint rate was last logged, and the number of repaints that had been 
+       issued at that time (see s_log_repaint_rate).
     */
-    private static final int s_fall_period_max = 700;
+    private long f_time_repaints_logged;
+    private long f_num_repaints_logged;
     
     /*
-     * The fastest/lowest period at which the tetromino falls (ms).
+     * The recorder of the current game (null if the game isn't being recorded); this is only accessed by 
+       f_game_thread.
     */
-    private static final int s_fall_period_min = 300;
+    private ReplayRecorder f_recorder;
     
-    /*
-     * The interval between consecutive tetromino fall period (ms): e.g. the fall rate at level 4 will be 
-       s_fall_rate_interval ms lower than at level 3.
-     * The difference between the max and min fall periods must be divisible by this value: i.e. 
-       (s_fall_period_initial - s_fall_period_min) % s_fall_period_interval == 0 must be true.
-     
+    /* The Autoplayer
+     * The policy that plays the game in place of the user (when f_is_autoplay is set): i.e. an alternative source of 
+       the commands that are otherwise issued by TetrisKeyBoardControls. It's only used by f_game_thread.
     */
-    private static final int s_fall_period_interval = 100;
+    private MovePolicy f_policy;
     
     /*
-     * The number of period cycles that may elapse.
+     * A flag that, when true, indicates that f_policy chooses the placement of each tetromino; this is toggled by the
+       'b' key.
     */
-    private static int s_num_period_cycles = ((s_fall_period_max - s_fall_period_min) / s_fall_period_interval) + 1;
-
-    /*
-     * The period at which the tetromino falls when the 'soft-drop' mode is active.
-    */
-    private static final int s_fall_period_soft_drop = s_fall_period_min / 2;
+    private volatile boolean f_is_autoplay;
     
-    /*
-     * The number of lines the PlayRestarter must clear to go up a level.
-     * Given that a PlayRestarter can clear at most 4 lines in a single tetromino placement, this should be 4 or higher, as 
-       otherwise a PlayRestarter will be able to go up multiple levels in a single move, which may not be desirable.
-    */
-    private static final int s_level_length = 4;
+    
+// (a)(i). Static Fields (10) ------------------------------------------------------------------------------------------
     
     /*
-     * This array is used to increase a PlayRestarter's score when they clear n lines, where n ranges from 1 to 4.
-     * A PlayRestarter's score increases by f_scores_line_clears[n - 1] * f_level.
+     * The period at which the graphics are updated (ms).
     */
-    private static int f_scores_line_clears[] = { 40, 100, 300, 1200 };
+    private static final int s_render_period = 16;
     
     /* Testing Flag
      * A flag that, when true, makes the game run in the 'testing' mode; otherwise, if false, the standard game runs.
@@ -176,6 +162,35 @@ public class TetrisFrame
     */
     private static boolean s_can_PauseResume = true;
     
+    /*
+     * A flag that, when true, shows the 'ghost' of the current tetromino: i.e. where the tetromino will land if it's 
+       dropped.
+    */
+    private static boolean s_show_ghost = true;
+    
+    /*
+     * A flag that, when true, logs the number of repaint requests issued by the grids each second: this is useful for
+       measuring the amount of paint traffic (e.g. before and after a change to the rendering). It's enabled by running
+       the game with "-Dbrettris.repaints=true".
+    */
+    private static final boolean s_log_repaint_rate = Boolean.getBoolean("brettris.repaints");
+    
+    /*
+     * A flag that, when true, records each game to a file in s_directory_replays, such that it can be replayed (see 
+       ReplayPlayer). Recording is opt-in, as the recordings are never deleted: it's enabled by running the game with
+       "-Dbrettris.replays=true".
+    */
+    private static final boolean s_record_replays = Boolean.getBoolean("brettris.replays");
+    
+    // The directory in which the recordings of games are stored.
+    private static final String s_directory_replays = "replays";
+    
+    // The kind of randomizer that chooses the type of each tetromino (see PieceRandomizer).
+    private static final PieceRandomizer.Kind s_randomizer = PieceRandomizer.Kind.Uniform;
+    
+    // The number of upcoming tetrominos that are displayed (1 to TetrisGame.S_MAX_NUM_PREVIEWS).
+    private static final int s_num_previews = 3;
+    
     private static final long serialVersionUID = 1L;
     
 
@@ -224,7 +239,12 @@ public class TetrisFrame
         super.getContentPane().add(f_board, l_constraints);
         
         // Create and set-up f_info.
-        f_info = new TetrisInformation(300, 500, Tetris.S_COLOUR_BACKGROUNDS_DEFAULT);
+        f_info = new TetrisInformation(300, 500, Tetris.S_COLOUR_BACKGROUNDS_DEFAULT, s_num_previews);
+        
+        // Read the leaderboard (in the background) and display its high score once it's been read.
+        f_leaderboard = new Leaderboard(Tetris.s_file_high_score);
+        f_leaderboard.Load().thenAccept(l_entries -> 
+            SwingUtilities.invokeLater(() -> f_info.SetHighScore(f_leaderboard.GetHighScore())) );
         l_constraints.gridx = 2; l_constraints.gridy = 0; // (2,0)
         super.getContentPane().add(f_info, l_constraints);
         
@@ -257,6 +277,24 @@ public class TetrisFrame
         // The game shouldn't be PauseResumed to begin with
         f_is_paused = false;
 
+        // Create the clock against which the game runs.
+        f_clock = new GameClock();
+
+        // Create the queue through which keyboard input is passed to the game thread.
+        f_input = new InputQueue();
+
+        // Create the game, which runs at the same step length as the clock.
+        f_game = new TetrisGame(f_clock.GetStepNanos(), s_randomizer.Create());
+        f_snapshot_rendered = f_game.GetSnapshot();
+        
+        // Create the autoplayer, which evaluates its candidate placements in parallel.
+        f_policy = new HeuristicPolicy(ForkJoinPool.commonPool());
+        f_is_autoplay = false;
+        
+        // Update the graphics periodically.
+        f_timer_render = new Timer(s_render_period, e -> Render());
+        f_timer_render.start();
+
         // Force layout manager to place GUI elements.
         super.pack();
         
@@ -277,274 +315,347 @@ public class TetrisFrame
     */
     public void run()
     {
+        StartRecording();
+        
+        f_policy.Reset(f_game);
+        
+        // The number of tetrominos that had spawned when f_policy last chose a placement.
+        int l_num_tetrominos_chosen = 0;
+        
+        // The commands chosen by f_policy.
+        InputQueue.Command l_commands[] = new InputQueue.Command[MovePolicy.S_MAX_NUM_COMMANDS];
+        
         try
         {
-            while (f_game_thread != null) // While the thread still runs.
+            // Start the clock.
+            f_clock.Reset();
+            
+            while (!f_game.IsGameOver()) // While the game is still running.
             {
-                // Don't run code if the teromino doesn't exist.
-                //if (f_tetromino == null)
-                //{ continue; }
-                
-                // Simulate gravity (wait before dropping).
-                Thread.sleep(f_fall_period_current);
+                // Wait until the next step is due.
+                f_clock.WaitForNextStep();
                 
                 if (f_is_paused) // If the game is to be Paused.
                 {
-                    // Have f_game_thread wait on 'this'.
+                    // Have f_game_thread wait on 'this' (until it's resumed).
                     synchronized(this)
                     {
-                        this.wait();
+                        while (f_is_paused)
+                        { this.wait(); }
                     }
                     
-                    // Ensure that the frame has the focus so that the keyboard controls work.
-                    super.requestFocusInWindow();
+                    // Discard the time for which the game was paused.
+                    f_clock.Reset();
                 }
                 
-                // Try to move the piece down the screen; if it can move down, continue.
-                if (Move(Vector2D.s_up))
-                { continue; }
-                
-                // Delete the tetromino so that the user cannot move/rotate it (i.e. their time is up).
-                f_tetromino = null;
-                
-                // Remove full lines and record the number of them.
-                int l_num_full_lines = f_board.RemoveFullLines();
-                
-                // If the user cleared at least one line.
-                if (l_num_full_lines != 0)
+                // Run each of the steps that are due.
+                for (int l_num_steps = f_clock.Advance(); l_num_steps > 0; --l_num_steps)
                 {
-                    // Calculate the score from the line clears.
-                    int l_score_from_line_clears = f_scores_line_clears[l_num_full_lines - 1] * f_info.GetLevel();
-                    
-                    // If all rows have been cleared (i.e. the grid is empty) double the line clears score.
-                    // If all rows have been cleared, this is known as a 'perfect clear'.
-                    if (f_board.IsEmpty())
-                    { l_score_from_line_clears *= 2; }
-                    
-                    // Increment the score.
-                    f_info.IncrementScore(l_score_from_line_clears);
-                    
-                    // Record the line clears.
-                    f_info.IncrementLinesCleared(l_num_full_lines);
+                    // Apply the commands that the user has issued since the last step.
+                    for (InputQueue.Command l_command = f_input.Poll(); l_command != null; l_command = f_input.Poll())
+                    {
+                        Record(l_command);
+                        f_game.Apply(l_command);
+                    }
                     
-                    // A flag that, when true, indicates that a new level has been reached.
-                    boolean l_is_new_level = f_info.GetNumLinesCleared() - s_level_length*f_info.GetLevel() > 0;
-    
-                    if (l_is_new_level)
-                    {   
-                        // Increment the level.
-                        f_info.IncrementLevel();
+                    // If the autoplayer is on and it hasn't yet placed the active tetromino.
+                    if (f_is_autoplay && f_game.GetNumTetrominos() != l_num_tetrominos_chosen)
+                    {
+                        l_num_tetrominos_chosen = f_game.GetNumTetrominos();
                         
-                        // A flag that, when true, indicates that there are no more period cycles.
-                        boolean l_no_more_period_cycles = f_num_period_cycles_elapsed + 1 == s_num_period_cycles;
+                        int l_num_commands = f_policy.Choose(f_game, l_commands);
                         
-                        if (!l_no_more_period_cycles) // If there are further period cycles.
+                        // The commands are recorded like the user's, so the game can be replayed without the policy.
+                        for (int i = 0; i < l_num_commands; ++i)
                         {
-                            // Update f_num_period_cycles and f_period_coefficient.
-                            if (f_fall_period_normal == s_fall_period_min)
-                            {
-                                ++f_num_period_cycles_elapsed;
-                                
-                                f_period_coefficient = f_num_period_cycles_elapsed;
-                            }
-                            else
-                            {
-                                ++f_period_coefficient;
-                            }
-                            
-                            // Calculate the period for the current level.
-                            f_fall_period_normal = s_fall_period_max - s_fall_period_interval * f_period_coefficient;
+                            Record(l_commands[i]);
+                            f_game.Apply(l_commands[i]);
                         }
-                        
-                        // For testing the fall period.
-                        //System.out.println("Level " + f_info.GetLevel() + ": fall period is " + f_fall_period_normal);
-                        
                     }
-                    
-                }
                 
-                // Reset the fall-rate to the 'normal' amount (shouldn't be f_fall_rate_soft_drop).
-                f_fall_period_current = f_fall_period_normal;
-                
-                // Create and spawn the next tetromino)
-                boolean l_valid_spawn = SpawnNextTetromino();
-                
-                // If the tetromino cannot be spawned, end the game and notify the PlayRestarter that the game is over.
-                if (!l_valid_spawn)
-                {
-                    if (f_info.GetScore() > f_info.GetHighScore())
-                    {
-                        System.out.println("Congratulations! Your score of " + f_info.GetScore() +
-                                           " is higher than the previous high score of " + f_info.GetHighScore() + '.');
-                        
-                        // Update the high score.
-                        f_info.UpdateHighScore();
-                        
-                    }
-                    else
-                    {
-                        System.out.println("Game over! You completed " + f_info.GetNumLinesCleared() + " lines, reached level " + 
-                                           f_info.GetLevel() + ", and scored " + f_info.GetScore() + " points.");
-                    }
+                    // If the tetromino cannot be spawned, the game is over.
+                    if (!f_game.Step())
+                    { break; }
                     
-                    // End thread execution.
-                    f_game_thread.interrupt();
+                    RecordKeyframe();
                 }
                 
+                // Publish the game's state (if it has changed) such that it can be displayed.
+                f_game.Publish();
             }
             
         }
         catch (InterruptedException e)
         {   
-            f_game_thread = null;
-            
-            f_btn_play_restart.setText("Play Again");
+            // The game has been restarted.
         }
         
+        FinishRecording();
+        
+        f_game_thread = null;
     }
     
     
     
-// (d). Auxiliaries (9) ================================================================================================
+// (d). Auxiliaries (10) ===============================================================================================
     
-    /* Auxiliary of run()
-     * Spawns the next tetromino.
+    /* Auxiliary of f_timer_render
+     * This method updates the graphics to display the latest snapshot of f_game. Only the elements whose values differ
+       from those of the snapshot that's currently displayed are updated.
     */
-    private boolean SpawnNextTetromino()
+    private void Render()
     {
-        if (f_next_tetromino != null)
-        {
-            f_tetromino = f_next_tetromino;
-        }
-        else
-        {
-            f_tetromino = new Tetromino( Tetromino.Type.values()[RNG.RandomInt(Tetromino.Type.values().length - 1)] );
-        }
+        if (s_log_repaint_rate)
+        { LogRepaintRate(); }
+        
+        GameSnapshot l_snapshot = f_game.GetSnapshot();
+     
+        // If the snapshot is already displayed, there's nothing to update.
+        if (l_snapshot == f_snapshot_rendered)
+        { return; }
+        
+        GameSnapshot l_previous = f_snapshot_rendered;
+        
+        f_board.Render(l_snapshot, s_show_ghost);
+        
+        if (l_snapshot.GetScore() != l_previous.GetScore())
+        { f_info.SetScore(l_snapshot.GetScore()); }
+        
+        if (l_snapshot.GetNumLinesCleared() != l_previous.GetNumLinesCleared())
+        { f_info.SetLinesCleared(l_snapshot.GetNumLinesCleared()); }
+        
+        if (l_snapshot.GetLevel() != l_previous.GetLevel())
+        { f_info.SetLevel(l_snapshot.GetLevel()); }
         
-        // Update the tallies.
-        f_tallies.IncrementTally(f_tetromino);
+        // The preview only redraws the upcoming tetrominos that have changed.
+        f_info.SetNextTetrominos(l_snapshot);
         
-        f_next_tetromino = new Tetromino( Tetromino.Type.values()[RNG.RandomInt(Tetromino.Type.values().length - 1)] );
+        UpdateTallies(l_snapshot);
         
-        f_info.SetNextTetromino(f_next_tetromino);
+        f_snapshot_rendered = l_snapshot;
         
-        return Spawn();
+        // If the game has just ended.
+        if (l_snapshot.IsGameOver() && !l_previous.IsGameOver())
+        { GameOver(); }
     }
     
-    /* Auxiliary of TetrisKeyBoardControls.keyReleased()
-     * This method generates a (random) tetromino and spawns it at the top of the grid.
+    /* Auxiliary of Render()
+     * This method passes the tetrominos that have spawned since the last render to f_tallies (one at a time, so that
+       its statistics are maintained).
+     * Several tetrominos may spawn between renders: the active tetromino is always the one that spawned last, so it's
+       passed last.
+     
+     * Parameters:
+         > a_snapshot: the snapshot being rendered.
     */
-    private boolean GenerateAndSpawn()
+    private void UpdateTallies(GameSnapshot a_snapshot)
     {
-        // Create a tetromino.
-        GenerateTetromino();
+        // If a tally has decreased, a new game has begun.
+        for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+        {
+            if (a_snapshot.GetTally(i) < f_tallies.GetTally(i))
+            {
+                f_tallies.Reset();
+                break;
+            }
+        }
+        
+        int l_index_active = a_snapshot.GetTypeActive() - 1;
+        
+        for (int i = 0; i < Tetromino.S_NUM_TYPES; ++i)
+        {
+            if (i == l_index_active)
+            { continue; }
+            
+            while (f_tallies.GetTally(i) < a_snapshot.GetTally(i))
+            { f_tallies.IncrementTally(i); }
+        }
         
-        // Spawn the tetromino.
-        return Spawn();
+        if (l_index_active >= 0)
+        {
+            while (f_tallies.GetTally(l_index_active) < a_snapshot.GetTally(l_index_active))
+            { f_tallies.IncrementTally(l_index_active); }
+        }
     }
     
-    /* Auxiliary of GenerateAndSpawn()
-     * This method generates a (random) tetromino.
+    /* Auxiliary of Render()
+     * This method prints the number of repaint requests issued by the grids per second (if at least a second has 
+       elapsed since it was last printed).
     */
-    private void GenerateTetromino()
+    private void LogRepaintRate()
     {
-        f_tetromino = new Tetromino( Tetromino.Type.values()[RNG.RandomInt(Tetromino.Type.values().length - 1)] );
+        long l_time_now = System.nanoTime();
+        
+        if (l_time_now - f_time_repaints_logged < 1000000000L)
+        { return; }
+        
+        long l_num_repaints = TetrisGrid.GetNumRepaints();
+        
+        // Don't log the first interval, which began when the frame was created.
+        if (f_time_repaints_logged != 0)
+        {
+            double l_rate = (l_num_repaints - f_num_repaints_logged) * 1e9 / (l_time_now - f_time_repaints_logged);
+            
+            System.out.printf("Repaints per second: %.1f%n", l_rate);
+        }
+        
+        f_time_repaints_logged = l_time_now;
+        f_num_repaints_logged = l_num_repaints;
     }
     
     /* Auxiliary of run()
-     * This method moves the tetromino in a given direction.
-     
-     * Parameters:
-         > a_movement: the direction in which the tetromino will move. Note that the positive y direction is down the page.
-     
-     * Return Value:
-         > A boolean indicating whether or not the tetromino was successfully moved in the given direction. 
+     * This method starts recording the game (if s_record_replays is set) to a file named after the current time.
     */
-    private boolean Move(Vector2D a_movement)
+    private void StartRecording()
     {
-        if (f_tetromino == null)
-        { return false; }
+        if (!s_record_replays)
+        { return; }
+        
+        try
+        {
+            Path l_directory = Paths.get(s_directory_replays);
+            Files.createDirectories(l_directory);
+            
+            Path l_path = l_directory.resolve("replay_" + System.currentTimeMillis() + ReplayRecorder.S_EXTENSION);
+            
+            f_recorder = new ReplayRecorder(l_path, f_game);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            f_recorder = null;
+        }
         
-        // Move the tetromino's position.
-        synchronized (f_tetromino)
-        {  return f_tetromino.Move(a_movement, f_board, true); }
     }
     
-    /* Auxiliary of TetrisKeyBoardControls.keyReleased(...)
-     * This method moves the current tetromino down the screen until it can no longer be moved down.
+    /* Auxiliary of run()
+     * This method records a command (which is about to be applied) if the game is being recorded.
     */
-    private void Drop()
+    private void Record(InputQueue.Command a_command)
     {
-        if (f_tetromino == null)
+        if (f_recorder == null)
         { return; }
         
-        // Keep moving the tetromino one place up (down the screen) until it can no longer by moved.
-        synchronized (f_tetromino)
-        { while(f_tetromino.Move(Vector2D.s_up, f_board, true)) {} }
+        try
+        { f_recorder.Record(f_game.GetNumSteps(), a_command); }
+        catch (IOException e)
+        {
+            // Stop recording, as the recording is incomplete.
+            e.printStackTrace();
+            CloseRecording();
+        }
         
     }
     
-    /* Auxiliary of TetrisKeyBoardControls.keyReleased(...)
-     * This method tries to rotate the current tetromino in a given direction.
-     
-     * Parameters:
-         > a_clockwise: a flag that, when true, indicates that the tetromino is to be rotated clockwise.
+    /* Auxiliary of run()
+     * This method records a keyframe of the game (which has just been stepped) if one is due and the game is being
+       recorded.
     */
-    private boolean Rotate(boolean a_clockwise)
+    private void RecordKeyframe()
     {
-        if (f_tetromino == null)
-        { return false; }
+        if (f_recorder == null)
+        { return; }
+        
+        try
+        { f_recorder.Update(f_game); }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            CloseRecording();
+        }
         
-        synchronized (f_tetromino) 
-        { return f_tetromino.Rotate(a_clockwise, true, f_board); }
     }
     
-    /* Auxiliary of TetrisKeyBoardControls.keyReleased(...)
-     * This method drops the current tetromino and adds a new one at the default spawn location.
-     
-     * Parameters:
-         > a_type: the type of tetromino that will be spawned.
+    /* Auxiliary of run()
+     * This method records the end of the game (i.e. its final state) and closes the recording.
     */
-    private void NewTetromino(Tetromino.Type a_type)
+    private void FinishRecording()
     {
-        // Drop the current tetromino.
-        Drop();
+        if (f_recorder == null)
+        { return; }
+        
+        f_game.Publish();
         
-        // Create the new tetromino.
-        f_tetromino = new Tetromino(a_type);
+        try
+        { f_recorder.Finish(f_game.GetNumSteps(), f_game.GetSnapshot()); }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            CloseRecording();
+        }
         
-        // Spawn the new tetromino.
-        Spawn();
+        f_recorder = null;
     }
     
-    /* Auxiliary of TetrisKeyBoardControls.keyReleased(...)
-     * This method removes the tetromino from the grid.
+    /* Auxiliary of Record, RecordKeyframe, and FinishRecording
+     * This method closes the recording without finishing it (i.e. it can't be replayed), and stops recording the game.
     */
-    private void RemoveTetromino()
+    private void CloseRecording()
     {
-        // Remove the tetromino's graphics,
-        f_board.UnDrawTetromino(f_tetromino);
+        try
+        { f_recorder.Close(); }
+        catch (IOException e)
+        { e.printStackTrace(); }
         
-        // Delete the tetromino.
-        f_tetromino = null;
+        f_recorder = null;
     }
     
-    /* Auxiliary of SpawnNextTetromino, GenerateAndSpawn, NewTetromino,
-     * This method spawns the tetromino at the default location
+    /* Auxiliary of Render()
+     * This method notifies the PlayRestarter that the game is over, and submits the game's result to the leaderboard 
+       (which is written in the background).
+    */
+    private void GameOver()
+    {
+        long l_duration = f_snapshot_rendered.GetNumSteps() * f_clock.GetStepNanos() / 1000000L;
+        
+        f_leaderboard.Submit(new Leaderboard.Entry(f_info.GetScore(), f_info.GetNumLinesCleared(), f_info.GetLevel(), 
+                                                   l_duration, System.currentTimeMillis()))
+            .whenComplete((l_rank, l_exception) -> 
+            {
+                if (l_exception != null)
+                {
+                    l_exception.printStackTrace();
+                    return;
+                }
+                
+                if (l_rank >= 0)
+                { System.out.println("Your score is ranked #" + (l_rank + 1) + " on the leaderboard."); }
+                
+                // Display the leaderboard's high score, which may have been set by another instance of the game.
+                SwingUtilities.invokeLater(() -> f_info.SetHighScore(f_leaderboard.GetHighScore()));
+            });
+        
+        if (f_info.GetScore() > f_info.GetHighScore())
+        {
+            System.out.println("Congratulations! Your score of " + f_info.GetScore() +
+                               " is higher than the previous high score of " + f_info.GetHighScore() + '.');
+            
+            // Update the high score.
+            f_info.SetHighScore(f_info.GetScore());
+            
+        }
+        else
+        {
+            System.out.println("Game over! You completed " + f_info.GetNumLinesCleared() + " lines, reached level " + 
+                               f_info.GetLevel() + ", and scored " + f_info.GetScore() + " points.");
+        }
+        
+        f_btn_play_restart.setText("Play Again");
+    }
+    
+    /* Auxiliary of TetrisKeyBoardControls.keyReleased(...)
+     * This method issues a command: in the testing mode (where there's no game thread) the command is applied 
+       immediately; otherwise, it's passed to the game thread via f_input.
      
      * Parameters:
-         > a_clockwise: a flag that, when true, indicates that the tetromino is to be rotated clockwise.
-         
-     * Return Value:
-         > A boolean indicating whether or not the tetromino was sucessfully spawned.
-    */
-    private boolean Spawn()
-    {        
-        if (f_tetromino == null)
-        { return false; }
-        
-        // Add the tetromino's graphics (and set initial location).
-        return f_board.DrawTetromino(f_tetromino, TetrisGrid.DrawPosition.CentreTop);
+         > a_command: the command to issue.
+    */
+    private void Issue(InputQueue.Command a_command)
+    {
+        if (s_testing)
+        { f_game.Apply(a_command); }
+        else
+        { f_input.Offer(a_command); }
     }
     
     
@@ -557,27 +668,27 @@ public class TetrisFrame
     private void PlayRestart()
     {
         // If the game is running, this means it must be stopped before starting a new one (i.e. restart the game).
-        if (f_game_thread != null)
+        Thread l_game_thread = f_game_thread;
+        if (l_game_thread != null)
         {
-            f_game_thread.interrupt();
-            
             if (f_is_paused)
             {
                 PauseResume();
             }
+            
+            l_game_thread.interrupt();
+            
+            // Wait for the game thread to finish, as it's the only thread that may modify the game's state.
+            try
+            { l_game_thread.join(); }
+            catch (InterruptedException e)
+            { Thread.currentThread().interrupt(); }
         }
         
-        // Reset relevant fields.
-        f_fall_period_normal = s_fall_period_max;
-        f_fall_period_current = s_fall_period_max;
-        f_num_period_cycles_elapsed = 0;
-        f_is_soft_drop = false;
-        f_board.Reset();
-        f_info.Reset();
-        f_tallies.Reset();
-        
-        // Spawn the first tetromino.
-        SpawnNextTetromino();
+        // Reset the game (which spawns the first tetromino).
+        f_input.Clear();
+        f_game.Reset();
+        f_game.Publish();
         
         // Create and start the game's thread.
         f_game_thread = new Thread(this);
@@ -597,8 +708,14 @@ public class TetrisFrame
         if (f_game_thread == null)
         { return; }
         
-        // Toggle the PauseResume flag.
-        f_is_paused = !f_is_paused;
+        // Toggle the PauseResume flag (and awaken f_game_thread if it's being resumed).
+        synchronized (this) 
+        {
+            f_is_paused = !f_is_paused;
+            
+            if (!f_is_paused)
+            { this.notifyAll(); }
+        }
         
         // Set the button's text to show the current action it will perform (either PauseResume or resume).
         if (f_is_paused)
@@ -608,12 +725,6 @@ public class TetrisFrame
         else
         {
             f_btn_pause_resume.setText("Pause");
-            
-            // Awaken f_game_thread.
-            synchronized (this) 
-            {
-                this.notifyAll();
-            }
         }
         
         // Ensure that the frame has the focus so that the keyboard controls work.
@@ -645,8 +756,8 @@ public class TetrisFrame
         @Override
         public void keyReleased(KeyEvent e)
         {  
-            // If not in the testing mode and the tetromino doesn't exist, return.
-            if (!s_testing && f_tetromino == null)
+            // If not in the testing mode and the game isn't running, return.
+            if (!s_testing && f_game_thread == null)
             { return; }
             
             int l_key_code = e.getKeyCode();
@@ -663,43 +774,41 @@ public class TetrisFrame
             // Commands that are handled irrespective of the value of s_testing.
             if (l_key_code == KeyEvent.VK_LEFT)
             {
-                Move(Vector2D.s_left);
+                Issue(InputQueue.Command.MoveLeft);
             }
             else if (l_key_code == KeyEvent.VK_RIGHT)
             {
-                Move(Vector2D.s_right);
+                Issue(InputQueue.Command.MoveRight);
             }
             else if (l_key_code == KeyEvent.VK_DOWN)
             {
                 if (!s_testing)
                 {
-                    f_is_soft_drop = !f_is_soft_drop;
-                    
-                    f_fall_period_current = f_is_soft_drop ? s_fall_period_soft_drop : f_fall_period_normal;
+                    Issue(InputQueue.Command.SoftDrop);
                 }
                 else
                 {
-                    Move(Vector2D.s_up);
+                    f_game.Move(0, 1);
                 }
             }
             else if (l_key_code == KeyEvent.VK_UP)
             {
                 if (!s_testing)
                 {
-                    Drop();
+                    Issue(InputQueue.Command.HardDrop);
                 }
                 else
                 {
-                    Move(Vector2D.s_down);
+                    f_game.Move(0, -1);
                 }
             }
             else if (l_key_code == KeyEvent.VK_D)
             {
-                Rotate(true);
+                Issue(InputQueue.Command.RotateClockwise);
             }
             else if (l_key_code == KeyEvent.VK_A)
             {
-                Rotate(false);
+                Issue(InputQueue.Command.RotateAnticlockwise);
             }
             
             // Commands that are specific to when s_testing is not set.
@@ -709,6 +818,10 @@ public class TetrisFrame
                 {
                     PauseResume();
                 }
+                else if (l_key_code == KeyEvent.VK_B)
+                {
+                    f_is_autoplay = !f_is_autoplay;
+                }
             }
             
             // Commands that are specific to when s_testing is set.
@@ -716,49 +829,51 @@ public class TetrisFrame
             {
                 if (l_key_code == KeyEvent.VK_SPACE)
                 {
-                    Drop();
-                    GenerateAndSpawn();
+                    f_game.Spawn(null);
                 }
                 else if (l_key_code == KeyEvent.VK_C)
                 {
-                    f_board.Reset();
+                    f_game.ClearBoard();
                 }
                 else if (l_key_code == KeyEvent.VK_R)
                 {
-                    f_board.RemoveFullLines();
+                    f_game.RemoveFullLines();
                 }
                 else if (l_key_code == KeyEvent.VK_DELETE)
                 {
-                    RemoveTetromino();
+                    f_game.RemoveTetromino();
                 }
                 else if (l_key_code == KeyEvent.VK_I)
                 {
-                    NewTetromino(Tetromino.Type.I);
+                    f_game.Spawn(Tetromino.Type.I);
                 }
                 else if (l_key_code == KeyEvent.VK_J)
                 {
-                    NewTetromino(Tetromino.Type.J);
+                    f_game.Spawn(Tetromino.Type.J);
                 }
                 else if (l_key_code == KeyEvent.VK_L)
                 {
-                    NewTetromino(Tetromino.Type.L);
+                    f_game.Spawn(Tetromino.Type.L);
                 }
                 else if (l_key_code == KeyEvent.VK_O)
                 {
-                    NewTetromino(Tetromino.Type.O);
+                    f_game.Spawn(Tetromino.Type.O);
                 }
                 else if (l_key_code == KeyEvent.VK_S)
                 {
-                    NewTetromino(Tetromino.Type.S);
+                    f_game.Spawn(Tetromino.Type.S);
                 }
                 else if (l_key_code == KeyEvent.VK_T)
                 {
-                    NewTetromino(Tetromino.Type.T);
+                    f_game.Spawn(Tetromino.Type.T);
                 }
                 else if (l_key_code == KeyEvent.VK_Z)
                 {
-                    NewTetromino(Tetromino.Type.Z);
+                    f_game.Spawn(Tetromino.Type.Z);
                 }
+                
+                // Display the changes (there's no game thread to publish them).
+                f_game.Publish();
             }
             
         }
@@ -0,0 +1,837 @@
+
+package TetrisPackage;
+
+
+import java.nio.ByteBuffer;
+
+
+/* The Game
+ * An object of this class encapsulates the rules and state of a game of Tetris independently of any graphical
+   elements: i.e. the board, the active and next tetrominos, the score, the number of lines cleared, the level, the
+   fall-rate, and the tally of each type of tetromino.
+ * The active tetromino isn't part of the board (f_engine) until it's locked in place.
+ * The game is advanced by Step() (once per step of a GameClock) and Apply(...) (once per command issued by the user).
+   These methods must be called from a single thread; the graphical elements instead read the snapshots that are
+   published via Publish().
+ * The tetrominos are chosen by a randomizer (see PieceRandomizer) that's seeded when the game starts (see 
+   Reset(...)), and the game advances only via Step() and Apply(...); therefore, a game is entirely determined by its
+   seed and the commands applied at each step, which is what allows a game to be recorded and replayed (see 
+   ReplayRecorder).
+ * The entire state of a game can be written to a buffer and read back (see WriteState(...) and ReadState(...)), which
+   allows a replay to resume from a 'keyframe' rather than from the start of the game.
+ * For an explanation of the levelling system and 'period-cycles', see class TetrisFrame.
+
+ * Composition:
+     (a). Fields (37)
+         (i). Static Fields (13)
+     (b). Constructors (2)
+     (c). Public Methods (22)
+         (i). Accessors (8)
+     (d). Auxiliaries (6)
+*/
+public class TetrisGame
+{
+    
+// (a). Fields (37) ====================================================================================================
+    
+    /* The Board
+     * The tiles of the tetrominos that have been locked in place.
+    */
+    private TetrisEngine f_engine;
+    
+    /* The Tetromino
+     * The tetromino that the user moves.
+    */
+    private Tetromino f_tetromino;
+    
+    /* The Queue
+     * The types (TetrisEngine type values) of the tetrominos that will spawn after f_tetromino, in order: i.e. a ring 
+       buffer whose first element is f_queue[f_queue_head], and which contains f_queue_size elements.
+     * The queue is refilled from f_randomizer in batches (see RefillQueue()), such that it always contains at least 
+       S_MAX_NUM_PREVIEWS tetrominos once the game has started. As the types are drawn in order, the batching doesn't
+       affect the sequence of tetrominos.
+    */
+    private final byte f_queue[];
+    private int f_queue_head;
+    private int f_queue_size;
+    
+    // The user's score.
+    private long f_score;
+    
+    // The number of lines the user has cleared.
+    private int f_num_lines_cleared;
+    
+    // The current level.
+    private int f_level;
+    
+    // The number of each type of tetromino that has spawned (indexed by Tetromino.Type ordinal).
+    private int f_tallies[];
+    
+    // The randomizer that chooses the type of each tetromino.
+    private final PieceRandomizer f_randomizer;
+    
+    // The value with which f_randomizer was seeded when the game began.
+    private long f_seed;
+    
+    // The number of tetrominos that have been drawn from f_randomizer since it was seeded.
+    private long f_num_draws;
+    
+    /*
+     * The current period at which the tetromino falls (ms): i.e. each f_fall_rate_current ms the tetromino moves one
+       place down the screen. The lower the fall rate, the faster it falls.
+    */
+    private int f_fall_period_current;
+    
+    /*
+     * The current normal (non soft-drop) period at which the tetromino falls (ms).
+    */
+    private int f_fall_period_normal;
+    
+    /*
+     * A flag that, when true, indicates that the current tetromino piece is to fall at a faster rate than the current
+       one: i.e. the piece is to drop in a 'soft' way such that the it can still be moved and rotated.
+    */
+    private boolean f_is_soft_drop;
+    
+    /*
+     * The value which determines what f_fall_period_current will be.
+     * The higher this value, the lower f_fall_period_current is; when f_period_coefficient is at its highest value,
+       f_fall_period_current is at its lowest.
+    */
+    private int f_period_coefficient;
+    
+    /*
+     * The number of 'period-cycles' that have elapsed thus far.
+    */
+    private int f_num_period_cycles_elapsed;
+    
+    // The length of each step (nanoseconds): i.e. the step length of the clock that calls Step().
+    private final long f_step_nanos;
+    
+    /*
+     * The number of steps that have elapsed since the tetromino last fell (or spawned).
+    */
+    private int f_num_steps_since_fall;
+    
+    // The number of steps that have elapsed since the game began: i.e. the game's duration (in steps).
+    private long f_num_steps;
+    
+    // A flag that, when true, indicates that the game is over: i.e. a tetromino couldn't be spawned.
+    private boolean f_is_game_over;
+    
+    // A flag that, when true, indicates that the state has changed since the last snapshot was published.
+    private boolean f_is_changed;
+    
+    // The number of snapshots that have been published.
+    private long f_num_snapshots;
+    
+    /* The Snapshot
+     * The latest snapshot of the game's state. This is the only field that's read by other threads.
+    */
+    private volatile GameSnapshot f_snapshot;
+    
+    
+// (a)(i). Static Fields (13) ------------------------------------------------------------------------------------------
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    // The dimensions of the board.
+    public static final int S_NUM_ROWS = 22;
+    public static final int S_NUM_COLUMNS = 10;
+    
+    // The maximum number of upcoming tetrominos that can be previewed (see GetTypeNext(...)).
+    public static final int S_MAX_NUM_PREVIEWS = 7;
+    
+    // The capacity of f_queue: this must be a power of two greater than S_MAX_NUM_PREVIEWS.
+    private static final int s_queue_capacity = 16;
+    
+    /*
+     * The slowest/highest period at which the tetromino falls (ms).
+    */
+    private static final int s_fall_period_max = 700;
+    
+    /*
+     * The fastest/lowest period at which the tetromino falls (ms).
+    */
+    private static final int s_fall_period_min = 300;
+    
+    /*
+     * The interval between consecutive tetromino fall period (ms): e.g. the fall rate at level 4 will be
+       s_fall_rate_interval ms lower than at level 3.
+     * The difference between the max and min fall periods must be divisible by this value: i.e.
+       (s_fall_period_initial - s_fall_period_min) % s_fall_period_interval == 0 must be true.
+    */
+    private static final int s_fall_period_interval = 100;
+    
+    /*
+     * The number of period cycles that may elapse.
+    */
+    private static final int s_num_period_cycles = 
+        ((s_fall_period_max - s_fall_period_min) / s_fall_period_interval) + 1;
+    
+    /*
+     * The period at which the tetromino falls when the 'soft-drop' mode is active.
+    */
+    private static final int s_fall_period_soft_drop = s_fall_period_min / 2;
+    
+    /*
+     * The number of lines the player must clear to go up a level.
+     * Given that a player can clear at most 4 lines in a single tetromino placement, this should be 4 or higher, as
+       otherwise a player will be able to go up multiple levels in a single move, which may not be desirable.
+    */
+    private static final int s_level_length = 4;
+    
+    /*
+     * This array is used to increase a player's score when they clear n lines, where n ranges from 1 to 4.
+     * A player's score increases by s_scores_line_clears[n - 1] * f_level.
+    */
+    private static final int s_scores_line_clears[] = { 40, 100, 300, 1200 };
+    
+    /*
+     * The number of bytes occupied by the state of a game (see WriteState(...)): the seed, number of draws, score, and
+       number of steps (longs); the board (a byte per tile); the active tetromino (type, position, and rotation), the
+       queue (its size and contents), the soft-drop flag, and the game-over flag (bytes); and the remaining counters
+       and periods, including the tallies (ints).
+    */
+    public static final int S_STATE_SIZE = 4 * Long.BYTES + S_NUM_ROWS * S_NUM_COLUMNS + 7 + s_queue_capacity + 
+                                           (7 + Tetromino.S_NUM_TYPES) * Integer.BYTES;
+    
+    
+    
+// (b). Constructors (2) ===============================================================================================
+    
+    /* Constructor
+     * Creates a game with an empty board and no tetrominos: i.e. Reset() must be called to start the game.
+     
+     * Parameters:
+         > a_step_nanos: the length of each step (nanoseconds).
+         > a_randomizer: the randomizer that chooses the type of each tetromino; it's used exclusively by this game.
+    */
+    public TetrisGame(long a_step_nanos, PieceRandomizer a_randomizer)
+    {
+        f_engine = new TetrisEngine(S_NUM_ROWS, S_NUM_COLUMNS);
+        f_tallies = new int[s_types.length];
+        f_queue = new byte[s_queue_capacity];
+        f_randomizer = a_randomizer;
+        f_step_nanos = a_step_nanos;
+        
+        f_level = 1;
+        f_fall_period_normal = s_fall_period_max;
+        f_fall_period_current = s_fall_period_max;
+        
+        f_is_changed = true;
+        Publish();
+    }
+    
+    /* Constructor
+     * Creates a game (with an empty board and no tetrominos) whose tetrominos are chosen uniformly at random.
+     
+     * Parameters:
+         > a_step_nanos: the length of each step (nanoseconds).
+    */
+    public TetrisGame(long a_step_nanos)
+    {
+        this(a_step_nanos, new UniformRandomizer());
+    }
+    
+    
+    
+// (c). Public Methods (22) ============================================================================================
+    
+    /*
+     * This method starts a new game with a random seed (see Reset(long)).
+    */
+    public void Reset()
+    {
+        Reset(System.nanoTime());
+    }
+    
+    /*
+     * This method starts a new game: i.e. the board, score, etc. are reset and the first tetromino is spawned.
+     
+     * Parameters:
+         > a_seed: the seed of the generator that chooses the type of each tetromino; two games with the same seed 
+                   (to which the same commands are applied at the same steps) are identical.
+    */
+    public void Reset(long a_seed)
+    {
+        f_seed = a_seed;
+        f_randomizer.Reset(a_seed);
+        f_num_draws = 0;
+        
+        f_engine.Reset();
+        
+        f_tetromino = null;
+        f_queue_head = 0;
+        f_queue_size = 0;
+        
+        f_score = 0;
+        f_num_lines_cleared = 0;
+        f_level = 1;
+        
+        for (int i = 0; i < f_tallies.length; ++i)
+        { f_tallies[i] = 0; }
+        
+        f_fall_period_normal = s_fall_period_max;
+        f_fall_period_current = s_fall_period_max;
+        f_period_coefficient = 0;
+        f_num_period_cycles_elapsed = 0;
+        f_is_soft_drop = false;
+        f_num_steps_since_fall = 0;
+        f_num_steps = 0;
+        f_is_game_over = false;
+        
+        // Spawn the first tetromino.
+        SpawnNextTetromino();
+        
+        f_is_changed = true;
+    }
+    
+    /*
+     * This method runs a single step of the game: i.e. it simulates gravity, which moves the tetromino down the screen
+       once every f_fall_period_current ms. If the tetromino cannot move down, it's locked in place, the full lines are
+       removed, and the next tetromino is spawned.
+     * Because the fall period is checked every step, a change to it (e.g. toggling soft-drop) takes effect within a
+       single step rather than at the end of the current fall period.
+       
+     * Return Value:
+         > A boolean that's false if the game is over: i.e. the next tetromino couldn't be spawned.
+    */
+    public boolean Step()
+    {
+        if (f_is_game_over)
+        { return false; }
+        
+        ++f_num_steps;
+        
+        // Simulate gravity (wait before dropping).
+        if (++f_num_steps_since_fall * f_step_nanos < f_fall_period_current * 1000000L)
+        { return true; }
+        
+        f_num_steps_since_fall = 0;
+        
+        if (f_tetromino == null)
+        { return true; }
+        
+        f_is_changed = true;
+        
+        // Try to move the piece down the screen; if it can move down, the step is complete.
+        if (f_tetromino.Move(0, 1, f_engine))
+        { return true; }
+        
+        // Lock the tetromino in place (i.e. the user's time is up).
+        LockTetromino();
+        
+        // Remove full lines and record the number of them.
+        int l_num_full_lines = f_engine.RemoveFullLines();
+        
+        // If the user cleared at least one line.
+        if (l_num_full_lines != 0)
+        {
+            // Calculate the score from the line clears.
+            int l_score_from_line_clears = s_scores_line_clears[l_num_full_lines - 1] * f_level;
+            
+            // If all rows have been cleared (i.e. the grid is empty) double the line clears score.
+            // If all rows have been cleared, this is known as a 'perfect clear'.
+            if (f_engine.IsEmpty())
+            { l_score_from_line_clears *= 2; }
+            
+            // Increment the score.
+            f_score += l_score_from_line_clears;
+            
+            // Record the line clears.
+            f_num_lines_cleared += l_num_full_lines;
+            
+            // A flag that, when true, indicates that a new level has been reached.
+            boolean l_is_new_level = f_num_lines_cleared - s_level_length * f_level > 0;
+            
+            if (l_is_new_level)
+            {
+                // Increment the level.
+                ++f_level;
+                
+                // A flag that, when true, indicates that there are no more period cycles.
+                boolean l_no_more_period_cycles = f_num_period_cycles_elapsed + 1 == s_num_period_cycles;
+                
+                if (!l_no_more_period_cycles) // If there are further period cycles.
+                {
+                    // Update f_num_period_cycles and f_period_coefficient.
+                    if (f_fall_period_normal == s_fall_period_min)
+                    {
+                        ++f_num_period_cycles_elapsed;
+                        
+                        f_period_coefficient = f_num_period_cycles_elapsed;
+                    }
+                    else
+                    {
+                        ++f_period_coefficient;
+                    }
+                    
+                    // Calculate the period for the current level.
+                    f_fall_period_normal = s_fall_period_max - s_fall_period_interval * f_period_coefficient;
+                }
+                
+            }
+            
+        }
+        
+        // Reset the fall-rate to the 'normal' amount (shouldn't be s_fall_period_soft_drop).
+        f_fall_period_current = f_fall_period_normal;
+        
+        // Create and spawn the next tetromino; if it cannot be spawned, the game is over.
+        if (!SpawnNextTetromino())
+        {
+            f_tetromino = null;
+            f_is_game_over = true;
+        }
+        
+        return !f_is_game_over;
+    }
+    
+    /*
+     * This method applies a command to the game.
+     
+     * Parameters:
+         > a_command: the command to apply.
+         
+     * Return Value:
+         > A boolean indicating whether or not the command changed the state of the game.
+    */
+    public boolean Apply(InputQueue.Command a_command)
+    {
+        if (f_tetromino == null || f_is_game_over)
+        { return false; }
+        
+        boolean l_is_changed = true;
+        
+        switch (a_command)
+        {
+            case MoveLeft:
+                l_is_changed = f_tetromino.Move(-1, 0, f_engine);
+                break;
+            case MoveRight:
+                l_is_changed = f_tetromino.Move(1, 0, f_engine);
+                break;
+            case SoftDrop:
+                f_is_soft_drop = !f_is_soft_drop;
+                f_fall_period_current = f_is_soft_drop ? s_fall_period_soft_drop : f_fall_period_normal;
+                l_is_changed = false;
+                break;
+            case HardDrop:
+                l_is_changed = f_tetromino.Drop(f_engine) != 0;
+                break;
+            case RotateClockwise:
+                l_is_changed = f_tetromino.Rotate(true, true, f_engine);
+                break;
+            case RotateAnticlockwise:
+                l_is_changed = f_tetromino.Rotate(false, true, f_engine);
+                break;
+        }
+        
+        f_is_changed |= l_is_changed;
+        
+        return l_is_changed;
+    }
+    
+    /*
+     * This method moves the active tetromino by the given amount (if possible), irrespective of gravity.
+     * This is primarily useful for testing.
+     
+     * Parameters:
+         > a_dx: the amount by which the tetromino is to be moved horizontally.
+         > a_dy: the amount by which the tetromino is to be moved vertically (positive is down the screen).
+    */
+    public boolean Move(int a_dx, int a_dy)
+    {
+        if (f_tetromino == null || !f_tetromino.Move(a_dx, a_dy, f_engine))
+        { return false; }
+        
+        f_is_changed = true;
+        
+        return true;
+    }
+    
+    /*
+     * This method drops the active tetromino (if any), locks it in place, and spawns a tetromino of the given type.
+     * This is primarily useful for testing.
+     
+     * Parameters:
+         > a_type: the type of tetromino to spawn; if null, the next tetromino in the queue is spawned.
+         
+     * Return Value:
+         > A boolean indicating whether or not the tetromino was sucessfully spawned.
+    */
+    public boolean Spawn(Tetromino.Type a_type)
+    {
+        if (f_tetromino != null)
+        {
+            f_tetromino.Drop(f_engine);
+            LockTetromino();
+        }
+        
+        f_tetromino = new Tetromino( (a_type != null) ? a_type : PopType() );
+        
+        f_is_changed = true;
+        
+        return PlaceAtSpawn();
+    }
+    
+    /*
+     * This method removes the active tetromino (if any) from the game.
+     * This is primarily useful for testing.
+    */
+    public void RemoveTetromino()
+    {
+        f_tetromino = null;
+        
+        f_is_changed = true;
+    }
+    
+    /*
+     * This method removes all of the tiles from the board (excluding the active tetromino).
+     * This is primarily useful for testing.
+    */
+    public void ClearBoard()
+    {
+        f_engine.Reset();
+        
+        f_is_changed = true;
+    }
+    
+    /*
+     * This method clears all rows that are full (without affecting the score).
+     * This is primarily useful for testing.
+    */
+    public int RemoveFullLines()
+    {
+        int l_num_full_lines = f_engine.RemoveFullLines();
+        
+        f_is_changed |= l_num_full_lines != 0;
+        
+        return l_num_full_lines;
+    }
+    
+    /*
+     * This method publishes a snapshot of the game's state, assuming that the state has changed since the last one was
+       published.
+    */
+    public void Publish()
+    {
+        if (!f_is_changed)
+        { return; }
+        
+        byte l_types_next[] = new byte[S_MAX_NUM_PREVIEWS];
+        for (int i = 0; i < S_MAX_NUM_PREVIEWS && i < f_queue_size; ++i)
+        { l_types_next[i] = f_queue[(f_queue_head + i) & (s_queue_capacity - 1)]; }
+        
+        f_snapshot = new GameSnapshot(++f_num_snapshots, f_engine, f_tetromino, l_types_next, f_score,
+                                      f_num_lines_cleared, f_level, f_tallies, f_num_steps, f_is_game_over);
+                                      
+        f_is_changed = false;
+    }
+    
+    /*
+     * This method returns a flag that, when true, indicates that the game is over.
+    */
+    public boolean IsGameOver()
+    {
+        return f_is_game_over;
+    }
+    
+    /*
+     * This method returns the number of tetrominos that have spawned since the game began.
+    */
+    public int GetNumTetrominos()
+    {
+        int l_num_tetrominos = 0;
+        
+        for (int l_tally : f_tallies)
+        { l_num_tetrominos += l_tally; }
+        
+        return l_num_tetrominos;
+    }
+    
+    /*
+     * This method writes the entire state of the game (S_STATE_SIZE bytes) to the given buffer, such that it can be
+       restored via ReadState(...).
+     * The state of f_randomizer isn't exposed, so the seed and the number of tetrominos drawn since seeding are
+       written instead.
+     
+     * Parameters:
+         > a_buffer: the buffer to which the state is written (at its position).
+    */
+    public void WriteState(ByteBuffer a_buffer)
+    {
+        a_buffer.putLong(f_seed);
+        a_buffer.putLong(f_num_draws);
+        
+        for (int row = 0; row < S_NUM_ROWS; ++row)
+        {
+            for (int col = 0; col < S_NUM_COLUMNS; ++col)
+            { a_buffer.put(f_engine.GetCell(col, row)); }
+        }
+        
+        if (f_tetromino != null)
+        {
+            a_buffer.put((byte)(f_tetromino.GetType().ordinal() + 1));
+            a_buffer.put((byte)f_tetromino.GetX());
+            a_buffer.put((byte)f_tetromino.GetY());
+            a_buffer.put((byte)f_tetromino.GetIndexRotation());
+        }
+        else
+        {
+            a_buffer.put(TetrisEngine.S_TYPE_EMPTY).put((byte)0).put((byte)0).put((byte)0);
+        }
+        
+        a_buffer.put((byte)f_queue_size);
+        for (int i = 0; i < s_queue_capacity; ++i)
+        { a_buffer.put((i < f_queue_size) ? f_queue[(f_queue_head + i) & (s_queue_capacity - 1)] : 0); }
+        
+        a_buffer.putLong(f_score);
+        a_buffer.putInt(f_num_lines_cleared);
+        a_buffer.putInt(f_level);
+        
+        for (int l_tally : f_tallies)
+        { a_buffer.putInt(l_tally); }
+        
+        a_buffer.putInt(f_fall_period_current);
+        a_buffer.putInt(f_fall_period_normal);
+        a_buffer.put((byte)(f_is_soft_drop ? 1 : 0));
+        a_buffer.putInt(f_period_coefficient);
+        a_buffer.putInt(f_num_period_cycles_elapsed);
+        a_buffer.putInt(f_num_steps_since_fall);
+        a_buffer.putLong(f_num_steps);
+        a_buffer.put((byte)(f_is_game_over ? 1 : 0));
+    }
+    
+    /*
+     * This method restores the state of the game from the given buffer (see WriteState(...)).
+     * f_randomizer is re-seeded and the written number of tetrominos are drawn from it, which is negligible compared
+       to re-simulating the game. The state must have been written by a game with the same kind of randomizer.
+     
+     * Parameters:
+         > a_buffer: the buffer from which the state is read (at its position).
+    */
+    public void ReadState(ByteBuffer a_buffer)
+    {
+        f_seed = a_buffer.getLong();
+        f_randomizer.Reset(f_seed);
+        
+        long l_num_draws = a_buffer.getLong();
+        
+        f_num_draws = 0;
+        while (f_num_draws < l_num_draws)
+        { NextType(); }
+        
+        f_engine.Reset();
+        
+        for (int row = 0; row < S_NUM_ROWS; ++row)
+        {
+            for (int col = 0; col < S_NUM_COLUMNS; ++col)
+            {
+                byte l_cell = a_buffer.get();
+                
+                if (l_cell != TetrisEngine.S_TYPE_EMPTY)
+                { f_engine.SetCell(col, row, s_types[l_cell - 1]); }
+            }
+        }
+        
+        byte l_type_active = a_buffer.get();
+        byte l_x = a_buffer.get();
+        byte l_y = a_buffer.get();
+        byte l_index_rotation = a_buffer.get();
+        
+        f_tetromino = null;
+        if (l_type_active != TetrisEngine.S_TYPE_EMPTY)
+        {
+            f_tetromino = new Tetromino(s_types[l_type_active - 1]);
+            f_tetromino.SetPosition(l_x, l_y);
+            f_tetromino.SetIndexRotation(l_index_rotation);
+        }
+        
+        f_queue_head = 0;
+        f_queue_size = a_buffer.get();
+        a_buffer.get(f_queue);
+        
+        f_score = a_buffer.getLong();
+        f_num_lines_cleared = a_buffer.getInt();
+        f_level = a_buffer.getInt();
+        
+        for (int i = 0; i < f_tallies.length; ++i)
+        { f_tallies[i] = a_buffer.getInt(); }
+        
+        f_fall_period_current = a_buffer.getInt();
+        f_fall_period_normal = a_buffer.getInt();
+        f_is_soft_drop = a_buffer.get() != 0;
+        f_period_coefficient = a_buffer.getInt();
+        f_num_period_cycles_elapsed = a_buffer.getInt();
+        f_num_steps_since_fall = a_buffer.getInt();
+        f_num_steps = a_buffer.getLong();
+        f_is_game_over = a_buffer.get() != 0;
+        
+        f_is_changed = true;
+    }
+    
+    
+// (c)(i). Accessors (8) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_seed
+    */
+    public long GetSeed()
+    {
+        return f_seed;
+    }
+    
+    /* Accessor of f_randomizer
+    */
+    public PieceRandomizer GetRandomizer()
+    {
+        return f_randomizer;
+    }
+    
+    /* Accessor of f_step_nanos
+    */
+    public long GetStepNanos()
+    {
+        return f_step_nanos;
+    }
+    
+    /* Accessor of f_queue
+     * This method returns the type of the tetromino that will spawn the given number of tetrominos after the next one 
+       (null if the game hasn't started).
+     
+     * Parameters:
+         > a_index: the position of the tetromino in the queue (0 to S_MAX_NUM_PREVIEWS - 1): e.g. 0 is the next 
+                    tetromino.
+    */
+    public Tetromino.Type GetTypeNext(int a_index)
+    {
+        if (a_index >= f_queue_size)
+        { return null; }
+        
+        return s_types[f_queue[(f_queue_head + a_index) & (s_queue_capacity - 1)] - 1];
+    }
+    
+    /* Accessor of f_num_steps
+     * This method returns the number of steps that have elapsed since the game began. This should only be called by 
+       the thread that advances the game.
+    */
+    public long GetNumSteps()
+    {
+        return f_num_steps;
+    }
+    
+    /* Accessor of f_engine
+     * This method returns the board, such that it can be inspected by a policy (see MovePolicy). This should only be 
+       called by the thread that advances the game, and the board mustn't be modified.
+    */
+    public TetrisEngine GetEngine()
+    {
+        return f_engine;
+    }
+    
+    /* Accessor of f_tetromino
+     * This method returns the active tetromino (null if there isn't one), such that it can be inspected by a policy 
+       (see MovePolicy). This should only be called by the thread that advances the game, and the tetromino mustn't be
+       modified.
+    */
+    public Tetromino GetTetromino()
+    {
+        return f_tetromino;
+    }
+    
+    /* Accessor of f_snapshot
+     * This method returns the latest snapshot of the game's state; it may be called from any thread.
+    */
+    public GameSnapshot GetSnapshot()
+    {
+        return f_snapshot;
+    }
+    
+    
+    
+// (d). Auxiliaries (6) ================================================================================================
+    
+    /* Auxiliary of Step()
+     * Spawns the next tetromino.
+     
+     * Return Value:
+         > A boolean indicating whether or not the tetromino was sucessfully spawned.
+    */
+    private boolean SpawnNextTetromino()
+    {
+        f_tetromino = new Tetromino( PopType() );
+        
+        // Update the tallies.
+        ++f_tallies[f_tetromino.GetType().ordinal()];
+        
+        return PlaceAtSpawn();
+    }
+    
+    /* Auxiliary of SpawnNextTetromino() and Spawn(...)
+     * This method places the active tetromino at the spawn location: i.e. centred at the top of the board.
+     
+     * Return Value:
+         > A boolean indicating whether or not the tetromino fits at the spawn location.
+    */
+    private boolean PlaceAtSpawn()
+    {
+        // The tetrominos' centre points should be in the second row (y coordinate is 1).
+        // The tetrominos should be centred in the columns (round to the left).
+        f_tetromino.SetPosition((S_NUM_COLUMNS - 1) / 2, 1);
+        
+        return f_tetromino.CanMove(0, 0, f_engine);
+    }
+    
+    /* Auxiliary of Step() and Spawn(...)
+     * This method adds the active tetromino to the board and removes it from the user's control.
+    */
+    private void LockTetromino()
+    {
+        f_tetromino.Lock(f_engine);
+        
+        f_tetromino = null;
+    }
+    
+    /* Auxiliary of SpawnNextTetromino() and Spawn(...)
+     * This method removes the first type from the queue (refilling the queue first if necessary).
+    */
+    private Tetromino.Type PopType()
+    {
+        if (f_queue_size <= S_MAX_NUM_PREVIEWS)
+        { RefillQueue(); }
+        
+        byte l_type = f_queue[f_queue_head];
+        
+        f_queue_head = (f_queue_head + 1) & (s_queue_capacity - 1);
+        --f_queue_size;
+        
+        return s_types[l_type - 1];
+    }
+    
+    /* Auxiliary of PopType()
+     * This method fills the queue with types drawn from f_randomizer.
+    */
+    private void RefillQueue()
+    {
+        while (f_queue_size < s_queue_capacity)
+        {
+            f_queue[(f_queue_head + f_queue_size) & (s_queue_capacity - 1)] = (byte)(NextType().ordinal() + 1);
+            ++f_queue_size;
+        }
+        
+    }
+    
+    /* Auxiliary of RefillQueue() and ReadState(...)
+     * This method draws a type from f_randomizer.
+    */
+    private Tetromino.Type NextType()
+    {
+        ++f_num_draws;
+        
+        return f_randomizer.Next();
+    }
+    
+    
+}
@@ -3,27 +3,32 @@ package TetrisPackage;
 
 
 import java.awt.Color;
-import java.awt.GridBagConstraints;
-import java.awt.GridBagLayout;
+import java.awt.Dimension;
+import java.awt.Graphics;
 import java.awt.Insets;
+import java.awt.Rectangle;
 
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
-
-import Utils.Vector2D;
+import javax.swing.SwingUtilities;
 
 
 /*
  * An object of this class is a grid upon which tetrominos can be displayed.
- * This class can be thought of as a composition of class TetrisTile.
+ * The grid is a single (lightweight) component that paints all of its tiles in one call to paintComponent(...),
+   rather than a composition of a component per tile. Each tile is painted by copying a pre-rendered sprite from a 
+   TileAtlas, so the tiles' style doesn't affect the cost of painting them.
+ * A grid can display either the tetrominos drawn onto it via DrawTetromino(...) (the occupancy of which is held by a 
+   TetrisEngine object), or a snapshot of a TetrisGame via Render(...): i.e. the grid is merely a 'view' of the 
+   game, which is what's queried when checking for collisions and full rows.
  
  * Composition:
      (a). Enumerations (1)
-     (b). Fields (11)
-         (i). Static Fields (7) 
+     (b). Fields (22)
+         (i). Static Fields (9) 
      (c). Constructors (4)
      (d). Public Methods (9)
-     (e). Auxiliaries (1)
+     (e). Auxiliaries (3)
       
 */
 public class TetrisGrid
@@ -40,16 +45,26 @@ public class TetrisGrid
     
     
     
-// (b). Fields (11) ====================================================================================================
+// (b). Fields (22) ====================================================================================================
     
     /* The Grid
-     * This collection of TetrisTile objects holds all of the tiles which comprise the grid.
-     * Note that the origin is the top-left TetrisTile (i.e. the one at '[0][0]').
+     * The sprite (see TileAtlas) of each of the tiles which comprise the grid: i.e. f_sprites[col][row] is the index 
+       of the sprite of the tile at (col,row).
+     * Note that the origin is the top-left tile (i.e. the one at '[0][0]').
+    */
+    private byte f_sprites[][];
+    
+    // The sprites from which the tiles are painted.
+    private TileAtlas f_atlas;
+    
+    /* The Engine
+     * The (graphics-independent) state of the tetrominos drawn via DrawTetromino(...): i.e. which tiles are occupied 
+       and by which type of tetromino. A grid that displays a game is instead updated via Render(...).
     */
-    private TetrisTile f_tile_grid[][];
+    private TetrisEngine f_engine;
     
     /*
-     * The dimensions of f_tile_grid: i.e. f_tile_grid[0..f_num_rows-1][0..f_num_columns-1]
+     * The dimensions of f_sprites: i.e. f_sprites[0..f_num_columns-1][0..f_num_rows-1]
     */
     private int f_num_rows;
     private int f_num_columns;
@@ -59,9 +74,38 @@ public class TetrisGrid
     */
     private Color f_colour_empty_tile;
     
+    /*
+     * The sprite of each tile as determined by Render(...): i.e. f_sprites_target[col][row] is the sprite to which 
+       f_sprites[col][row] is to be set.
+    */
+    private byte f_sprites_target[][];
+    
+    // The dimension (pixels) of each (square) tile.
+    private int f_size_tile;
+    
+    // The size (pixels) of the gap around each tile (see S_PADDING_PROPORTION).
+    private int f_size_padding;
+    
+    // The number of rows (from the top) that aren't displayed: i.e. the rows that are 'off-screen'.
+    private int f_num_rows_hidden;
+    
+    /* Dirty Tiles
+     * The tiles whose sprite has changed since the grid was last repainted, stored as a bitmask per row: i.e. bit 
+       'col' of f_dirty_rows[row] is set if the tile at (col,row) is 'dirty'.
+     * The dirty tiles are repainted together (see Flush()), such that a frame's changes result in a single repaint 
+       request that covers the bounding box of the dirty tiles.
+    */
+    private int f_dirty_rows[];
+    
+    // The range (inclusive) of rows that contain dirty tiles; f_dirty_row_min is -1 if there are no dirty tiles.
+    private int f_dirty_row_min;
+    private int f_dirty_row_max;
+    
     
-// (b)(i). Static Fields (7) -------------------------------------------------------------------------------------------
+// (b)(i). Static Fields (9) -------------------------------------------------------------------------------------------
     
+    // The tetromino types, indexed by ordinal (cached as Tetromino.Type.values() creates a new array on each call).
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
     
     // The default number of columns (i.e. the number of tiles in each row).
     private static final int S_NUM_COLUMNS_DEFAULT = 10;
@@ -70,10 +114,10 @@ public class TetrisGrid
     private static final int S_NUM_ROWS_DEFAULT = 22;
     
     /* Padding Factor
-         * Each TetrisTile object in f_grid is surrounded by a gap equal to S_PADDING_AMOUNT of it's width/height. Note 
+         * Each tile of the grid is surrounded by a gap equal to S_PADDING_AMOUNT of it's width/height. Note 
            that because the tiles are adjacent to each other, the overall gap/padding between two tiles is 
            S_PADDING_PROPORTION * 2.
-         * Think of a TetrisTile as a castle and the padding around it its moat.
+         * Think of a tile as a castle and the padding around it its moat.
     */
     private static final double S_PADDING_PROPORTION = 0.03;
     
@@ -89,6 +133,12 @@ public class TetrisGrid
     // The minimum number of columns (min value of f_num_columns).
     private static final int S_MIN_NUM_COLUMNS = 4;
     
+    /*
+     * The number of repaint requests that have been issued by all grids: this allows for the amount of paint traffic 
+       (e.g. repaints per second) to be measured.
+    */
+    private static long s_num_repaints = 0;
+    
     private static final long serialVersionUID = 1L;
     
     
@@ -105,7 +155,7 @@ public class TetrisGrid
     public TetrisGrid(int a_height, boolean a_are_top_rows_visible) 
     {
         // Call constructor of parent.
-        super(new GridBagLayout());
+        super(null);
         
         super.setBorder(BorderFactory.createLineBorder(Tetris.S_COLOUR_BORDERS_DEFAULT));
         
@@ -133,7 +183,7 @@ public class TetrisGrid
     public TetrisGrid(int a_height, boolean a_are_top_rows_visible, Color a_colour_background, Color a_colour_empty_tile) 
     {
         // Call constructor of parent.
-        super(new GridBagLayout());
+        super(null);
         
         super.setBorder(BorderFactory.createLineBorder(Tetris.S_COLOUR_BORDERS_DEFAULT));
         
@@ -161,7 +211,7 @@ public class TetrisGrid
     public TetrisGrid(int a_height, boolean a_are_top_rows_visible, int a_num_rows, int a_num_columns) 
     {
         // Call constructor of parent.
-        super(new GridBagLayout());
+        super(null);
         
         super.setBorder(BorderFactory.createLineBorder(Tetris.S_COLOUR_BORDERS_DEFAULT));
         
@@ -198,7 +248,7 @@ public class TetrisGrid
                       Color a_colour_background, Color a_colour_empty_tile) 
     {
         // Call constructor of parent.
-        super(new GridBagLayout());
+        super(null);
         
         super.setBorder(BorderFactory.createLineBorder(Tetris.S_COLOUR_BORDERS_DEFAULT));
         
@@ -225,20 +275,17 @@ public class TetrisGrid
 // (d). Public Methods (9) =============================================================================================
     
     /*
-     * Sets all of the tiles to the colour f_colour_empty_tile.
+     * Sets all of the tiles to the empty tile.
     */
     public void Reset()
     {
+        f_engine.Reset();
+        
         for (int row = f_num_rows - 1; row >= 0; --row)
         {   
             for (int col = 0; col < f_num_columns; ++col)
             {
-                if (f_tile_grid[col][row].GetColour() == f_colour_empty_tile)
-                {
-                    continue;
-                }
-                
-                f_tile_grid[col][row].SetColour(f_colour_empty_tile);
+                SetSprite(col, row, TileAtlas.S_SPRITE_EMPTY);
             }
             
         }
@@ -250,140 +297,7 @@ public class TetrisGrid
     */
     public boolean IsEmpty()
     {
-        int l_index_bottom_row = f_num_rows - 1;
-        
-        // If the bottom row is empty, all other rows must also be empty.
-        for (int col = 0; col < f_num_columns; ++col)
-        {
-            if (f_tile_grid[col][l_index_bottom_row].GetColour() != f_colour_empty_tile) // If the tile isn't empty.
-            { return false; }
-        }
-        
-        return true;
-    }
-    
-    /*
-     * This method clears all rows that are full and also shifts all other (non-full) rows downwards.
-     
-     * Return Value:
-         > The number of full rows that were cleared. 
-    */
-    public int RemoveFullLines() //throws InterruptedException
-    {   
-        // The number of full rows found thus far.
-        int l_num_full_rows = 0;
-        
-        for (int row = f_num_rows - 1; row >= 0; --row)
-        {   
-            boolean l_is_row_full = true;
-            boolean l_is_row_empty = true;
-            
-            for (int col = 0; col < f_num_columns; ++col)
-            {
-                if (!l_is_row_full && !l_is_row_empty) // If both booleans have been falsified.
-                {
-                    break;
-                }
-                else if (f_tile_grid[col][row].GetColour() == f_colour_empty_tile)
-                {
-                    // If at least one tile is empty, the row can't be full.
-                    l_is_row_full = false;
-                }
-                else
-                {
-                    // If at least one tile is filled, the row can't be empty.
-                    l_is_row_empty = false;
-                }
-                
-            }
-            
-            if (l_is_row_full) 
-            { 
-                // Record occurrence of full row.
-                ++l_num_full_rows;
-                
-                // Clear the row.
-                for (int col = 0; col < f_num_columns; ++col)
-                {
-                    if (f_tile_grid[col][row].GetColour() == f_colour_empty_tile)
-                    { continue; }
-                    
-                    f_tile_grid[col][row].SetColour(f_colour_empty_tile);
-                    try 
-                    { Thread.sleep(25); } 
-                    catch (InterruptedException e) 
-                    { e.printStackTrace(); }
-                }
-                
-            }
-            else if (l_is_row_empty) // If the row is empty, this means that all rows above it are also empty.
-            {
-                break;
-            }
-            else if (l_num_full_rows != 0 )// && !l_is_row_full && !l_is_row_empty (if the row isn't full and isn't empty: i.e. semi-filled).
-            {
-                // Shift the (non-full, non-empty) row down l_num_full_rows rows.
-                for (int col = 0; col < f_num_columns; ++col)
-                {
-                    // n.b. it's '+ l_num_full_rows' not '- l_num_full_rows' because under the current coordinate system
-                    // the row index (y-coordinate) increases down the screen.
-                    
-                    if (f_tile_grid[col][row].GetColour() == f_colour_empty_tile)
-                    { continue; }
-                    
-                    // Copy the colour of the tile at coordinate (col,row) to the appropriate row (row + l_num_full_rows).
-                    f_tile_grid[col][row + l_num_full_rows].SetColour(f_tile_grid[col][row].GetColour());
-                    
-                    // Clear the colour of the tile at coordinate (col,row).
-                    f_tile_grid[col][row].SetColour(f_colour_empty_tile);
-                    
-                    try 
-                    { Thread.sleep(25); } 
-                    catch (InterruptedException e) 
-                    { e.printStackTrace(); }
-                }
-                
-            }
-            
-        }
-        
-        // Return the number of full rows that were cleared.
-        return l_num_full_rows;
-    }
-    
-    /*
-     * This method returns true if the given position/coordinate is both valid (within valid bounds) and empty; false if
-       otherwise.
-       
-     * Parameters:
-         > a_position: the position being checked.
-    */
-    public boolean CanBeMovedTo(Vector2D a_position)
-    {
-        return IsPositionOnBoard(a_position) && IsPositionEmpty(a_position);
-    }
-    
-    /*
-     * This method returns true if the given position/coordinate is valid (within valid bounds); false if otherwise.
-     
-     * Parameters:
-         > a_position: the position being checked.
-    */
-    public boolean IsPositionOnBoard(Vector2D a_position)
-    {
-        return (a_position.GetX() >= 0 && a_position.GetX() <= f_num_columns - 1) && 
-               (a_position.GetY() >= 0 && a_position.GetY() <= f_num_rows - 1);
-    }
-    
-    /*
-     * This method returns true if the given position/coordinate is empty; false if otherwise.
-     
-     * Parameters:
-         > a_position: the position being checked.
-    */
-    public boolean IsPositionEmpty(Vector2D a_position)
-    {
-        return f_tile_grid[(int)a_position.GetX()][(int)a_position.GetY()].GetColour() == f_colour_empty_tile;
+        return f_engine.IsEmpty();
     }
     
     /*
@@ -398,21 +312,17 @@ public class TetrisGrid
     */
     public boolean DrawTetromino(Tetromino a_tetromino, DrawPosition a_draw_pos)
     {   
-        Vector2D l_spawn_location;
-        
         if (a_draw_pos == DrawPosition.CentreTop)
         {
             // The tetrominos' centre points should be in the second row (y coordinate is 1)
             // The tetrominos should be centred in the columns (round to the left).
-            l_spawn_location = new Vector2D((f_num_columns - 1) / 2, 1);
+            a_tetromino.SetPosition((f_num_columns - 1) / 2, 1);
         }
         else //if (a_spawn_pos == SpawnPosition.CentreMid)
         {
-            l_spawn_location = new Vector2D((f_num_columns - 1) / 2, (f_num_rows) / 2);
+            a_tetromino.SetPosition((f_num_columns - 1) / 2, (f_num_rows) / 2);
         }
         
-        a_tetromino.SetPosition(l_spawn_location);
-        
         return DrawTetromino(a_tetromino);
     }
     
@@ -429,9 +339,9 @@ public class TetrisGrid
     {
         // Check if the position is invalid.
         boolean l_is_position_valid = true;
-        for (Vector2D v : a_tetromino.GetPosition()) 
+        for (int i = 0; i < Tetromino.S_NUM_TILES; ++i) 
         {
-            if (!CanBeMovedTo(v))
+            if (!f_engine.CanBeMovedTo(a_tetromino.GetTileX(i), a_tetromino.GetTileY(i)))
             {
                 l_is_position_valid = false;
                 break;
@@ -442,15 +352,20 @@ public class TetrisGrid
         if (!l_is_position_valid)
         { return false; }
         
-        // Get the tetromino's colour.
-        Color l_colour_of_tetromino = a_tetromino.GetColour();
+        // Get the tetromino's sprite.
+        byte l_sprite_of_tetromino = TileAtlas.GetSprite(a_tetromino.GetType());
         
         // Draw the tetromino.
-        for (Vector2D v : a_tetromino.GetPosition()) 
+        for (int i = 0; i < Tetromino.S_NUM_TILES; ++i) 
         {
-            f_tile_grid[(int)v.GetX()][(int)v.GetY()].SetColour(l_colour_of_tetromino);
+            int l_x = a_tetromino.GetTileX(i);
+            int l_y = a_tetromino.GetTileY(i);
+            
+            f_engine.SetCell(l_x, l_y, a_tetromino.GetType());
+            SetSprite(l_x, l_y, l_sprite_of_tetromino);
         }
         
+        
         return true;
         
     }
@@ -465,9 +380,9 @@ public class TetrisGrid
     {
         // Check if the position is invalid.
         boolean l_is_position_valid = true;
-        for (Vector2D v : a_tetromino.GetPosition()) 
+        for (int i = 0; i < Tetromino.S_NUM_TILES; ++i) 
         {
-            if (!IsPositionOnBoard(v))
+            if (!f_engine.IsOnBoard(a_tetromino.GetTileX(i), a_tetromino.GetTileY(i)))
             {
                 l_is_position_valid = false;
                 break;
@@ -478,17 +393,182 @@ public class TetrisGrid
         if (!l_is_position_valid)
         { return; }
         
-        // Draw the tetromino.
-        for (Vector2D v : a_tetromino.GetPosition()) 
+        // Remove the tetromino.
+        for (int i = 0; i < Tetromino.S_NUM_TILES; ++i) 
         {
-            f_tile_grid[(int)v.GetX()][(int)v.GetY()].SetColour(f_colour_empty_tile);
+            int l_x = a_tetromino.GetTileX(i);
+            int l_y = a_tetromino.GetTileY(i);
+            
+            f_engine.ClearCell(l_x, l_y);
+            SetSprite(l_x, l_y, TileAtlas.S_SPRITE_EMPTY);
         }
         
+        
+    }
+    
+    /*
+     * This method sets the sprite of each tile to reflect the given snapshot of a game: i.e. the board's tiles, the 
+       active tetromino, and (optionally) its ghost.
+     * The sprite of every tile is determined before any tile is updated, and only the tiles whose sprite differs from
+       the one currently displayed are repainted.
+     * This should only be called on the event dispatch thread.
+     
+     * Parameters:
+         > a_snapshot: the snapshot to display; its dimensions must match those of the grid.
+         > a_show_ghost: a flag that, when true, indicates that the ghost of the active tetromino is to be displayed.
+    */
+    public void Render(GameSnapshot a_snapshot, boolean a_show_ghost)
+    {
+        // Determine the sprite of each tile from the board (a tile's type value is also the index of its sprite).
+        for (int row = 0; row < f_num_rows; ++row)
+        {
+            for (int col = 0; col < f_num_columns; ++col)
+            {
+                f_sprites_target[col][row] = a_snapshot.GetCell(col, row);
+            }
+        }
+        
+        byte l_type_active = a_snapshot.GetTypeActive();
+        
+        if (l_type_active != GameSnapshot.S_TYPE_NONE)
+        {
+            Tetromino.Type l_type = s_types[l_type_active - 1];
+            
+            // The ghost is only displayed on empty tiles (i.e. never over the board's tiles or the tetromino itself).
+            if (a_show_ghost)
+            {
+                byte l_sprite_ghost = TileAtlas.GetSpriteGhost(l_type);
+                
+                for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+                {
+                    int l_x = a_snapshot.GetTileActiveX(i);
+                    int l_y = a_snapshot.GetTileActiveY(i) + a_snapshot.GetGhostDistance();
+                    
+                    if (a_snapshot.GetCell(l_x, l_y) == GameSnapshot.S_TYPE_NONE)
+                    { f_sprites_target[l_x][l_y] = l_sprite_ghost; }
+                }
+            }
+            
+            byte l_sprite_active = TileAtlas.GetSprite(l_type);
+            
+            for (int i = 0; i < Tetromino.S_NUM_TILES; ++i)
+            { f_sprites_target[a_snapshot.GetTileActiveX(i)][a_snapshot.GetTileActiveY(i)] = l_sprite_active; }
+        }
+        
+        // Update the tiles whose sprite has changed.
+        for (int col = 0; col < f_num_columns; ++col)
+        {
+            for (int row = 0; row < f_num_rows; ++row)
+            {
+                SetSprite(col, row, f_sprites_target[col][row]);
+            }
+        }
+        
+    }
+        
+    /*
+     * This method issues a single repaint request that covers the bounding box of the dirty tiles (if any): i.e. from
+       the first to the last dirty row, and from the first to the last dirty column. So when the changed tiles are far
+       apart (e.g. a tetromino that's been dropped from the top of the grid to the bottom), the tiles between them are
+       repainted too. Separate requests wouldn't avoid this, as Swing's RepaintManager coalesces a component's requests
+       into their bounding box. Every tile is then marked as clean.
+     * This is called automatically once the event dispatch thread has processed the current event (e.g. a frame's 
+       render), so it needn't be called explicitly.
+    */
+    public void Flush()
+    {
+        if (f_dirty_row_min == -1)
+        { return; }
+        
+        // Only repaint the tiles that are visible.
+        int l_row_min = Math.max(f_dirty_row_min, f_num_rows_hidden);
+        
+        // The union of the (visible) dirty rows: i.e. bit 'col' is set if any dirty tile is in column 'col'.
+        int l_columns = 0;
+        for (int row = l_row_min; row <= f_dirty_row_max; ++row)
+        { l_columns |= f_dirty_rows[row]; }
+        
+        if (l_columns != 0)
+        {
+            int l_pitch = f_size_tile + 2 * f_size_padding;
+            
+            int l_col_min = Integer.numberOfTrailingZeros(l_columns);
+            int l_col_max = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(l_columns);
+            
+            Rectangle l_bounds = GetTileBounds(l_col_min, l_row_min);
+            
+            super.repaint(l_bounds.x, l_bounds.y, (l_col_max - l_col_min) * l_pitch + f_size_tile, 
+                          (f_dirty_row_max - l_row_min) * l_pitch + f_size_tile);
+            
+            ++s_num_repaints;
+        }
+        
+        for (int row = f_dirty_row_min; row <= f_dirty_row_max; ++row)
+        { f_dirty_rows[row] = 0; }
+        
+        f_dirty_row_min = -1;
+    }
+    
+    /*
+     * This method returns the number of repaint requests that have been issued by all grids.
+    */
+    public static long GetNumRepaints()
+    {
+        return s_num_repaints;
+    }
+    
+    /* Implementation of JPanel.paintComponent(...)
+     * This method paints the (visible) tiles of the grid that intersect the clip region. The tiles are centred within
+       the component.
+     * If the atlas' contents are lost whilst the tiles are being painted, the grid is repainted.
+    */
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        // Draw the background.
+        super.paintComponent(g);
+        
+        // Ensure that the sprites are ready to be drawn.
+        f_atlas.Validate(super.getGraphicsConfiguration());
+        
+        // The distance between the top-left corners of adjacent tiles.
+        int l_pitch = f_size_tile + 2 * f_size_padding;
+        
+        // The position of the top-left corner of the first (visible) tile.
+        Rectangle l_origin = GetTileBounds(0, f_num_rows_hidden);
+        
+        // Determine the range of tiles that intersect the clip region.
+        int l_col_min = 0, l_col_max = f_num_columns - 1;
+        int l_row_min = f_num_rows_hidden, l_row_max = f_num_rows - 1;
+        
+        Rectangle l_clip = g.getClipBounds();
+        if (l_clip != null)
+        {
+            l_col_min = Math.max(l_col_min, Math.floorDiv(l_clip.x - l_origin.x, l_pitch));
+            l_col_max = Math.min(l_col_max, Math.floorDiv(l_clip.x + l_clip.width - l_origin.x, l_pitch));
+            l_row_min = Math.max(l_row_min, f_num_rows_hidden + Math.floorDiv(l_clip.y - l_origin.y, l_pitch));
+            l_row_max = Math.min(l_row_max, f_num_rows_hidden + Math.floorDiv(l_clip.y + l_clip.height - l_origin.y, 
+                                                                             l_pitch));
+        }
+            
+        for (int row = l_row_min; row <= l_row_max; ++row)
+        {
+            int l_y = l_origin.y + (row - f_num_rows_hidden) * l_pitch;
+            
+            for (int col = l_col_min; col <= l_col_max; ++col)
+            {
+                f_atlas.Draw(g, f_sprites[col][row], l_origin.x + col * l_pitch, l_y);
+            }
+        }
+        
+        if (f_atlas.IsContentsLost())
+        { super.repaint(); }
+        
     }
     
     
     
-// (e). Auxiliaries (1) ================================================================================================
+// (e). Auxiliaries (3) ================================================================================================
     
     /* Auxiliary of Constructors
      * Initialises f_board.
@@ -525,40 +605,80 @@ public class TetrisGrid
         if (l_size_padding == 0)
         { l_size_padding = 1; }
         
-        // Create a constraints object, which allows for the graphical elements to be arranged.
-        GridBagConstraints l_constraints = new GridBagConstraints();
+        f_size_tile = l_size_tile;
+        f_size_padding = l_size_padding;
+        f_num_rows_hidden = a_are_top_rows_visible ? 0 : 2;
         
-        // Modify the constraint's object such that there's padding around each tile.
-        l_constraints.insets = new Insets(l_size_padding, l_size_padding, l_size_padding, l_size_padding);
+        // Create the grid's state.
+        f_engine = new TetrisEngine(f_num_rows, f_num_columns);
         
-        // Create the grid's container.
-        f_tile_grid = new TetrisTile[f_num_columns][f_num_rows];
+        // Create the container of the sprites to be displayed by Render(...).
+        f_sprites_target = new byte[f_num_columns][f_num_rows];
         
-        // Populate the grid's container with tiles.
+        // No tiles are dirty initially.
+        f_dirty_rows = new int[f_num_rows];
+        f_dirty_row_min = -1;
+        
+        // Create the grid's container, in which every tile is initially empty.
+        f_sprites = new byte[f_num_columns][f_num_rows];
         for (int col = 0; col < f_num_columns; ++col)
         {   
-            // Set the grid's horizontal coordinate.
-            l_constraints.gridx = col;
-            
             for (int row = 0; row < f_num_rows; ++row)
             {
-                // Set the grid's vertical coordinate.
-                l_constraints.gridy = row;
-                
-                // Instantiate the tile.
-                f_tile_grid[col][row] = new TetrisTile(l_size_tile, f_colour_empty_tile);
-                
-                // Don't add the top two rows (the 0th and 1st row).
-                if (!a_are_top_rows_visible && row <= 1)
-                { continue; }
-                
-                // Add the tile to panel.
-                super.add(f_tile_grid[col][row], l_constraints);
+                f_sprites[col][row] = TileAtlas.S_SPRITE_EMPTY;
             }
         }
         
+        // Create the sprites (which are rendered when they're first painted).
+        f_atlas = new TileAtlas(l_size_tile, f_colour_empty_tile);
+        
+        // Set the size of the grid such that it fits all of the (visible) tiles and their padding, plus the border.
+        int l_pitch = l_size_tile + 2 * l_size_padding;
+        Insets l_insets = super.getInsets();
+        super.setPreferredSize(new Dimension(f_num_columns * l_pitch + l_insets.left + l_insets.right, 
+                                             l_num_rows_visible * l_pitch + l_insets.top + l_insets.bottom));
+        
+    }
+    
+    /* Auxiliary of Reset, DrawTetromino, UnDrawTetromino, and Render
+     * This method sets the sprite of the given tile; if the sprite changes, the tile is marked as dirty (and a call to 
+       Flush() is scheduled if there weren't already any dirty tiles).
+    */
+    private void SetSprite(int a_x, int a_y, byte a_sprite)
+    {
+        if (f_sprites[a_x][a_y] == a_sprite)
+        { return; }
+        
+        f_sprites[a_x][a_y] = a_sprite;
+        
+        if (f_dirty_row_min == -1)
+        {
+            f_dirty_row_min = f_dirty_row_max = a_y;
+            
+            SwingUtilities.invokeLater(this::Flush);
+        }
+        else
+        {
+            f_dirty_row_min = Math.min(f_dirty_row_min, a_y);
+            f_dirty_row_max = Math.max(f_dirty_row_max, a_y);
+        }
+        
+        f_dirty_rows[a_y] |= 1 << a_x;
+    }
+    
+    /* Auxiliary of Flush and paintComponent
+     * This method returns the bounds (pixels) of the given (visible) tile, excluding its padding.
+    */
+    private Rectangle GetTileBounds(int a_x, int a_y)
+    {
+        int l_pitch = f_size_tile + 2 * f_size_padding;
+        
+        int l_x_origin = (super.getWidth() - f_num_columns * l_pitch) / 2 + f_size_padding;
+        int l_y_origin = (super.getHeight() - (f_num_rows - f_num_rows_hidden) * l_pitch) / 2 + f_size_padding;
+        
+        return new Rectangle(l_x_origin + a_x * l_pitch, l_y_origin + (a_y - f_num_rows_hidden) * l_pitch, 
+                             f_size_tile, f_size_tile);
     }
     
     
 }
-
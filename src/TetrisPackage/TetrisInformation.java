@@ -10,26 +10,20 @@ import java.awt.Insets;
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
 
-import java.util.Scanner;
-
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-
 import Utils.TextValuePanel;
 
 
 /*
  * An object of this class can be used to display several key pieces of information relating to a game of Tetris, such
-   as the score and the next tetromino piece.
+   as the score and the upcoming tetrominos.
     
  * Composition:
      (a). Fields (9)
          (i). Static Fields (4) 
      (b). Constructors (1)
-     (c). Public Methods (12)
+     (c). Public Methods (13)
          (i). Accessors (4)
-         (ii). Mutators (7)
+         (ii). Mutators (8)
 */
 public class TetrisInformation
     extends JPanel
@@ -49,8 +43,8 @@ public class TetrisInformation
     // A label that displays the current level.
     private TextValuePanel f_tvp_level;
     
-    // A grid that shows the next tetromino.
-    private TetrisGrid f_grid_next_tetromino;
+    // A panel that shows the upcoming tetrominos.
+    private PreviewPanel f_previews;
     
     
 // (b)(i). Static Fields (4) -------------------------------------------------------------------------------------------
@@ -79,8 +73,9 @@ public class TetrisInformation
          > a_width: the panel's width.
          > a_height: the panel's height.
          > a_colour_background: the panel's background colour.
+         > a_num_previews: the number of upcoming tetrominos that are displayed (see PreviewPanel).
     */
-    public TetrisInformation(int a_width, int a_height, Color a_colour_background)
+    public TetrisInformation(int a_width, int a_height, Color a_colour_background, int a_num_previews)
     {
         super(new GridBagLayout());
         
@@ -103,38 +98,21 @@ public class TetrisInformation
         int l_height_elements = (a_height - 2 * l_padding_vertical - (s_num_elements - 1) * l_element_gap) / s_num_elements;
         
         
-        // Get the current high score.
-        
-        int l_high_score = 0;
-        File l_file_high_score = new File(Tetris.s_file_high_score);
-        Scanner l_scanner = null;
-        
-        try 
-        {
-            l_scanner = new Scanner(l_file_high_score);
-        
-            l_high_score = l_scanner.nextInt();
-        }
-        catch (Exception e)
-        { e.printStackTrace(); }
-        finally
-        { l_scanner.close(); }
-        
-        
-        // Create the TextValueCanvas objects.
+        // Create the TextValueCanvas objects (the high score is set once the leaderboard has been read).
         f_tvp_lines_cleared = new TextValuePanel("Lines", 0, l_width_elements, l_height_elements, 
                                                  Tetris.S_COLOUR_BORDERS_DEFAULT, Tetris.S_COLOUR_BACKGROUNDS_DEFAULT,
                                                  Tetris.S_COLOUR_FOREGROUNDS_DEFAULT);
         f_tvp_score = new TextValuePanel("Score", 0, l_width_elements, l_height_elements, Tetris.S_COLOUR_BORDERS_DEFAULT,
                                           Tetris.S_COLOUR_BACKGROUNDS_DEFAULT, Tetris.S_COLOUR_FOREGROUNDS_DEFAULT);
-        f_tvp_high_score = new TextValuePanel("High Score", l_high_score, l_width_elements, l_height_elements, 
+        f_tvp_high_score = new TextValuePanel("High Score", 0, l_width_elements, l_height_elements, 
                                               Tetris.S_COLOUR_BORDERS_DEFAULT, Tetris.S_COLOUR_BACKGROUNDS_DEFAULT,
                                               Tetris.S_COLOUR_FOREGROUNDS_DEFAULT);
         f_tvp_level = new TextValuePanel("Level", 0, l_width_elements, l_height_elements, Tetris.S_COLOUR_BORDERS_DEFAULT,
                                          Tetris.S_COLOUR_BACKGROUNDS_DEFAULT, Tetris.S_COLOUR_FOREGROUNDS_DEFAULT);
         
-        // Create the grid.
-        f_grid_next_tetromino = new TetrisGrid(l_height_elements, true, 6, 6);
+        // Create the preview.
+        f_previews = new PreviewPanel(l_width_elements, l_height_elements, a_num_previews, 
+                                      Tetris.S_COLOUR_BACKGROUNDS_DEFAULT);
         
         // Create a constraints object, which allows for the graphical elements to be arranged.
         GridBagConstraints l_constraints = new GridBagConstraints();
@@ -159,26 +137,26 @@ public class TetrisInformation
         l_constraints.insets = new Insets(0, l_padding_horizontal, l_element_gap, l_padding_horizontal);
         super.add(f_tvp_level, l_constraints); 
         
-        // Add f_grid_next_tetromino to the panel.
+        // Add f_previews to the panel.
         l_constraints.gridx = 0; l_constraints.gridy = 4; // (0,4).
         l_constraints.insets = new Insets(0, l_padding_horizontal, l_padding_vertical, l_padding_horizontal);
         l_constraints.anchor = GridBagConstraints.WEST;
-        super.add(f_grid_next_tetromino, l_constraints);
+        super.add(f_previews, l_constraints);
     }
     
     
     
-// (c). Public Methods (12) ============================================================================================
+// (c). Public Methods (13) ============================================================================================
     
     /*
-     * This method sets the values of the labels (and grid) to initial/empty values.
+     * This method sets the values of the labels (and preview) to initial/empty values.
     */
     public void Reset()
     {
         f_tvp_lines_cleared.SetValue(0);
         f_tvp_score.SetValue(0);
         f_tvp_level.SetValue(1);
-        f_grid_next_tetromino.Reset();
+        f_previews.Reset();
     }
     
     
@@ -189,13 +167,13 @@ public class TetrisInformation
     */
     public int GetNumLinesCleared()
     {
-        return f_tvp_lines_cleared.GetValue();
+        return (int)f_tvp_lines_cleared.GetValue();
     }
     
     /* Accessor of f_tvp_score
      * This method returns the value associated with f_tvp_score.
     */
-    public int GetScore()
+    public long GetScore()
     {
         return f_tvp_score.GetValue();
     }
@@ -203,7 +181,7 @@ public class TetrisInformation
     /* Accessor of f_tvp_high_score
      * This method returns the value associated with f_tvp_high_score.
     */
-    public int GetHighScore()
+    public long GetHighScore()
     {
         return f_tvp_high_score.GetValue();
     }
@@ -213,11 +191,11 @@ public class TetrisInformation
     */
     public int GetLevel()
     {
-        return f_tvp_level.GetValue();
+        return (int)f_tvp_level.GetValue();
     }
     
     
-// (c)(ii). Mutators (7) -----------------------------------------------------------------------------------------------
+// (c)(ii). Mutators (8) -----------------------------------------------------------------------------------------------
     
     /* Mutator of f_tvp_level
      * This method increments the value associated with f_tvp_level by 1.
@@ -227,19 +205,26 @@ public class TetrisInformation
         f_tvp_level.Increment();
     }
     
+    /* Mutator of f_tvp_level
+     * This method sets the value associated with f_tvp_level with the given value.
+     
+     * Parameters:
+         > a_level: the new value of f_tvp_level.
+    */
+    public void SetLevel(int a_level)
+    {
+        f_tvp_level.SetValue(a_level);
+    }
+    
     /* Mutator of f_tvp_score
      * This method increments the value associated with f_tvp_score by the given amount.
      
      * Parameters:
          > a_score: the amount by which f_tvp_score's value is to be increased.
     */
-    public void IncrementScore(int a_score)
+    public void IncrementScore(long a_score)
     {
-        int l_score_current = f_tvp_score.GetValue();
-        
-        l_score_current += a_score;
-        
-        f_tvp_score.SetValue(l_score_current);
+        f_tvp_score.SetValue(f_tvp_score.GetValue() + a_score);
     }
     
     /* Mutator of f_tvp_score
@@ -248,7 +233,7 @@ public class TetrisInformation
      * Parameters:
          > a_score: the new value of f_tvp_score.
     */
-    public void SetScore(int a_score)
+    public void SetScore(long a_score)
     {
         f_tvp_score.SetValue(a_score);
     }
@@ -261,11 +246,7 @@ public class TetrisInformation
     */
     public void IncrementLinesCleared(int a_line_clears)
     {
-        int l_num_line_clears = f_tvp_lines_cleared.GetValue();
-        
-        l_num_line_clears += a_line_clears;
-        
-        f_tvp_lines_cleared.SetValue(l_num_line_clears);
+        f_tvp_lines_cleared.SetValue(f_tvp_lines_cleared.GetValue() + a_line_clears);
     }
     
     /* Mutator of f_tvp_lines_cleared
@@ -279,50 +260,28 @@ public class TetrisInformation
         f_tvp_lines_cleared.SetValue(a_num_lines);
     }
     
-    /* Mutator of f_tvp_score
-     * This method sets the value associated with f_tvp_high_score with that of f_tvp_score and also updates the file in
-       which the high score is stored.
+    /* Mutator of f_tvp_high_score
+     * This method sets the value associated with f_tvp_high_score with the given value.
+     * Note that the high score is only displayed by the panel: it's stored by a Leaderboard.
+     
+     * Parameters:
+         > a_high_score: the new value of f_tvp_high_score.
     */
-    public void UpdateHighScore()
+    public void SetHighScore(long a_high_score)
     {
-        int l_high_score = f_tvp_score.GetValue();
-        
-        FileWriter l_writer = null;
-        try
-        {
-            l_writer = new FileWriter(Tetris.s_file_high_score);
-            
-            l_writer.write(String.valueOf(l_high_score));
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-        finally
-        {
-            try 
-            { l_writer.close(); }
-            catch (IOException e) 
-            { e.printStackTrace(); }
-        }
-        
-        f_tvp_high_score.SetValue(l_high_score);
+        f_tvp_high_score.SetValue(a_high_score);
     }
     
-    
-    /* Mutator of f_tvp_lines_cleared
-     * This method changes the tetromino displayed on f_grid_next_tetromino.
+    /* Mutator of f_previews
+     * This method changes the tetrominos displayed on f_previews to the upcoming tetrominos of the given snapshot; only
+       the tetrominos that have changed are redrawn.
      
      * Parameters:
-         > a_tetromino: the new tetromino to be displayed.
+         > a_snapshot: the snapshot whose upcoming tetrominos are displayed.
     */
-    public void SetNextTetromino(Tetromino a_tetromino)
+    public void SetNextTetrominos(GameSnapshot a_snapshot)
     {
-        // Remove the 'former next' tetromino.
-        f_grid_next_tetromino.Reset();
-        
-        // Draw the 'current next' tetromino.
-        f_grid_next_tetromino.DrawTetromino(a_tetromino, TetrisGrid.DrawPosition.CentreMid);
+        f_previews.Update(a_snapshot);
     }
     
     
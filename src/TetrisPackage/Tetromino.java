@@ -12,13 +12,13 @@ import Utils.Vector2D;
  
  * Composition:
      (a). Enums (1)
-     (b). Fields (17)
-         (i). Static Fields (14)
+     (b). Fields (22)
+         (i). Static Fields (18)
      (c). Constructors (1)
-     (d). Public Methods (9)
-         (i). Accessors (2)
-         (ii). Mutators (1)
-     (e). Auxiliaries (3)
+     (d). Public Methods (20)
+         (i). Accessors (6)
+         (ii). Mutators (2)
+     (e). Auxiliaries (1)
 */
 public class Tetromino
 {
@@ -31,16 +31,18 @@ public class Tetromino
     
     
     
-// (b). Fields (17) ====================================================================================================
+// (b). Fields (22) ====================================================================================================
     
     // The tetromino's type.
     private Type f_type;
     
     /*
-     * The positions of each tile.
-     * f_positions[0] is the position of the tile around which the others rotate.
+     * The position of the tile around which the others rotate (the tetromino's 'origin').
+     * The positions of the other tiles are determined by the origin, the type, and the rotation index (see 
+       s_table_tiles), so they needn't be stored.
     */
-    Vector2D f_positions[];
+    private int f_x;
+    private int f_y;
     
     /*
      * The value that indicates the current rotation state of the tetromino.
@@ -50,13 +52,16 @@ public class Tetromino
     private int f_index_rotation;
     
     
-// (b)(i). Static Fields (14) ------------------------------------------------------------------------------------------
+// (b)(i). Static Fields (18) ------------------------------------------------------------------------------------------
     
-    // Each tetromino is composed of four tiles (size of f_positions).
+    // Each tetromino is composed of four tiles.
     public static final int S_NUM_TILES = 4;
     
     // The number of rotation indexes (0 to 3) (i.e. the number of values f_index_rotation can take).
-    private static final int S_NUM_ROTATION_INDEXES = 4;
+    public static final int S_NUM_ROTATION_INDEXES = 4;
+    
+    // The number of types of tetromino.
+    public static final int S_NUM_TYPES = Type.values().length;
     
     // The colours corresponding to each Type of tetromino.
     private static final Color S_COLOUR_I = new Color(0,235,235); 
@@ -67,46 +72,178 @@ public class Tetromino
     private static final Color S_COLOUR_T = new Color(235,0,235); 
     private static final Color S_COLOUR_Z = new Color(235,0,0);
     
-    // Offsets for the J, L, S, T, and Z tetrominos.
-    private static final Vector2D s_offset_data_JLSTZ[][] = new Vector2D[][]
+    /*
+     * The position of each tile of each type of tetromino (in its spawn orientation), relative to the tile around
+       which the others rotate: i.e. s_shapes[type][i] is the {x,y} offset of the tile at index i.
+     * The diagrams show each shape, along with the index of each tile.
+    */
+    private static final int s_shapes[][][] = new int[][][]
     {  
-        { new Vector2D(0,0), new Vector2D(0,0),  new Vector2D(0,0), new Vector2D(0,0) },  // Offset 1
-        { new Vector2D(0,0), new Vector2D(1,0),  new Vector2D(0,0), new Vector2D(-1,0) }, // Offset 2
-        { new Vector2D(0,0), new Vector2D(1,1), new Vector2D(0,0), new Vector2D(-1,1) }, // Offset 3
-        { new Vector2D(0,0), new Vector2D(0,-2),  new Vector2D(0,0), new Vector2D(0,-2) }, // Offset 4
-        { new Vector2D(0,0), new Vector2D(1,-2),  new Vector2D(0,0), new Vector2D(-1,-2) } // Offset 5
+        // |/||/||/||/|
+        //  1  0  3  2
+        { {0,0}, {-1,0}, {2,0}, {1,0} },   // I
+        
+        // |/|
+        //  2
+        // |/||/||/|
+        //  1  0  3
+        { {0,0}, {-1,0}, {-1,-1}, {1,0} }, // J
+        
+        //       |/|
+        //        2
+        // |/||/||/|
+        //  3  0  1
+        { {0,0}, {1,0}, {1,-1}, {-1,0} },  // L
+        
+        // |/||/|
+        //  3  2
+        // |/||/|
+        //  0  1
+        { {0,0}, {1,0}, {1,-1}, {0,-1} },  // O
+        
+        //    |/||/|
+        //     2  3
+        // |/||/|
+        //  1  0
+        { {0,0}, {-1,0}, {0,-1}, {1,-1} }, // S
+        
+        //    |/|
+        //     2
+        // |/||/||/|
+        //  1  0  3
+        { {0,0}, {-1,0}, {0,-1}, {1,0} },  // T
+        
+        // |/||/|
+        //  2  1
+        //    |/||/|
+        //     0  3
+        { {0,0}, {0,-1}, {-1,-1}, {1,0} }  // Z
+    };
+    
+    // Offsets for the J, L, S, T, and Z tetrominos: i.e. s_offset_data_JLSTZ[offset][rotation index] is an {x,y} offset.
+    private static final int s_offset_data_JLSTZ[][][] = new int[][][]
+    {
+        { {0,0}, {0,0},  {0,0}, {0,0} },   // Offset 1
+        { {0,0}, {1,0},  {0,0}, {-1,0} },  // Offset 2
+        { {0,0}, {1,1},  {0,0}, {-1,1} },  // Offset 3
+        { {0,0}, {0,-2}, {0,0}, {0,-2} },  // Offset 4
+        { {0,0}, {1,-2}, {0,0}, {-1,-2} }  // Offset 5
     };
     
     // Offsets for the I tetromino.
-    private static final Vector2D s_offset_data_I[][] = new Vector2D[][]
+    private static final int s_offset_data_I[][][] = new int[][][]
     {  
-        { new Vector2D(0,0),  new Vector2D(-1,0), new Vector2D(-1,-1), new Vector2D(0,-1) }, // Offset 1
-        { new Vector2D(-1,0), new Vector2D(0,0),  new Vector2D(1,-1),  new Vector2D(0,-1) }, // Offset 2
-        { new Vector2D(2,0),  new Vector2D(0,0),  new Vector2D(-2,-1), new Vector2D(0,-1), }, // Offset 3
-        { new Vector2D(-1,0), new Vector2D(0,-1),  new Vector2D(1,0),  new Vector2D(0,1) }, // Offset 4
-        { new Vector2D(2,0),  new Vector2D(0,2), new Vector2D(-2,0), new Vector2D(0,-2) }  // Offset 5
+        { {0,0},  {-1,0}, {-1,-1}, {0,-1} }, // Offset 1
+        { {-1,0}, {0,0},  {1,-1},  {0,-1} }, // Offset 2
+        { {2,0},  {0,0},  {-2,-1}, {0,-1} }, // Offset 3
+        { {-1,0}, {0,-1}, {1,0},   {0,1} },  // Offset 4
+        { {2,0},  {0,2},  {-2,0},  {0,-2} }  // Offset 5
     };
     
     // Offset for the O tetromino.
-    private static final Vector2D s_offset_data_O[][] = new Vector2D[][]
+    private static final int s_offset_data_O[][][] = new int[][][]
     { 
-        //{new Vector2D(0,0), new Vector2D(0,-1), new Vector2D(-1,-1), new Vector2D(-1,0) } // Offset 1
-        {new Vector2D(0,0), new Vector2D(0,1), new Vector2D(-1,1), new Vector2D(-1,0) }
+        //{ {0,0}, {0,-1}, {-1,-1}, {-1,0} } // Offset 1
+        { {0,0}, {0,1}, {-1,1}, {-1,0} }
     };
     
-    // Clockwise rotation matrix.
-    private static final Vector2D s_matrix_rot_ccw[] = new Vector2D[]
-    { 
-        new Vector2D( 0, -1), // Column 1
-        new Vector2D( 1,  0)  // Column 2
-    };
+    /* Rotation Table
+     * The position of each tile relative to the tetromino's origin (the tile at index 0), for each type and rotation
+       index: i.e. the x and y offsets of tile i of a tetromino of type t at rotation index r are
+       s_table_tiles[t][r][2*i] and s_table_tiles[t][r][2*i + 1], respectively.
+     * Built (once) from s_shapes by rotating each shape clockwise by 90 degrees per rotation index.
+    */
+    private static final int s_table_tiles[][][] = new int[S_NUM_TYPES][S_NUM_ROTATION_INDEXES][2 * S_NUM_TILES];
+    
+    /* Kick Table
+     * The (SRS) offsets that are tried, in order, when rotating a tetromino: i.e. when rotating a tetromino of type t
+       from rotation index r in direction d (0 for clockwise, 1 for anti-clockwise), the x and y components of the
+       k-th offset are s_table_kicks[t][r][d][2*k] and s_table_kicks[t][r][d][2*k + 1], respectively.
+     * Built (once) from the offset data: each kick is the difference between the offsets of the old and new rotation
+       indexes.
+    */
+    private static final int s_table_kicks[][][][] = new int[S_NUM_TYPES][S_NUM_ROTATION_INDEXES][2][];
+    
+    /* Bottom-tiles Table
+     * The indexes of the tiles that are the lowest in their column, for each type and rotation index: i.e. bit i of 
+       s_table_bottoms[t][r] is set if no other tile of a tetromino of type t at rotation index r is beneath tile i.
+     * These are the only tiles that need to be considered when determining how far a tetromino can fall.
+    */
+    private static final int s_table_bottoms[][] = new int[S_NUM_TYPES][S_NUM_ROTATION_INDEXES];
     
-    // Anti-clockwise rotation matrix.
-    private static final Vector2D s_matrix_rot_cw[] = new Vector2D[]
+    // The ghost colours: i.e. the (dim) colours of the tiles that show where each type of tetromino will land.
+    private static final Color s_colours_ghost[] = new Color[S_NUM_TYPES];
+    
+    
+    // Build the rotation, kick, and bottom-tiles tables.
+    static
     { 
-        new Vector2D( 0, 1), // Column 1
-        new Vector2D(-1, 0)  // Column 2
-    };
+        for (int type = 0; type < S_NUM_TYPES; ++type)
+        {
+            // The offset data of the type.
+            int l_offset_data[][][] = (type == Type.O.ordinal()) ? s_offset_data_O :
+                                      (type == Type.I.ordinal()) ? s_offset_data_I : s_offset_data_JLSTZ;
+    
+            for (int rot = 0; rot < S_NUM_ROTATION_INDEXES; ++rot)
+            {
+                // Rotate each tile of the shape clockwise 'rot' times: i.e. (x,y) -> (-y,x).
+                for (int i = 0; i < S_NUM_TILES; ++i)
+                {
+                    int l_x = s_shapes[type][i][0];
+                    int l_y = s_shapes[type][i][1];
+                    
+                    for (int r = 0; r < rot; ++r)
+                    {
+                        int l_temp = l_x;
+                        l_x = -l_y;
+                        l_y = l_temp;
+                    }
+                    
+                    s_table_tiles[type][rot][2 * i] = l_x;
+                    s_table_tiles[type][rot][2 * i + 1] = l_y;
+                }
+                
+                // Calculate the kicks for both directions of rotation.
+                for (int dir = 0; dir < 2; ++dir)
+                {
+                    int l_rot_new = (dir == 0) ? (rot + 1) % S_NUM_ROTATION_INDEXES :
+                                                 (rot + S_NUM_ROTATION_INDEXES - 1) % S_NUM_ROTATION_INDEXES;
+                                                 
+                    int l_kicks[] = new int[2 * l_offset_data.length];
+                    
+                    for (int k = 0; k < l_offset_data.length; ++k)
+                    {
+                        l_kicks[2 * k] = l_offset_data[k][rot][0] - l_offset_data[k][l_rot_new][0];
+                        l_kicks[2 * k + 1] = l_offset_data[k][rot][1] - l_offset_data[k][l_rot_new][1];
+                    }
+                    
+                    s_table_kicks[type][rot][dir] = l_kicks;
+                }
+                
+                // Find the tiles that are the lowest in their column.
+                for (int i = 0; i < S_NUM_TILES; ++i)
+                {
+                    boolean l_is_bottom = true;
+                    
+                    for (int j = 0; j < S_NUM_TILES; ++j)
+                    {
+                        if (s_table_tiles[type][rot][2 * j] == s_table_tiles[type][rot][2 * i] && 
+                            s_table_tiles[type][rot][2 * j + 1] > s_table_tiles[type][rot][2 * i + 1])
+                        { l_is_bottom = false; }
+                    }
+                    
+                    if (l_is_bottom)
+                    { s_table_bottoms[type][rot] |= 1 << i; }
+                }
+                
+            }
+            
+            // The ghost colour is a quarter of the brightness of the tetromino's colour.
+            Color l_colour = GetColour(Type.values()[type]);
+            s_colours_ghost[type] = new Color(l_colour.getRed() / 4, l_colour.getGreen() / 4, l_colour.getBlue() / 4);
+        }
+        
+    }
     
     
     
@@ -119,7 +256,8 @@ public class Tetromino
     */
     public Tetromino(Type a_type)
     {
-        f_positions = new Vector2D[S_NUM_TILES];
+        f_x = 0;
+        f_y = 0;
         
         f_index_rotation = 0;
         
@@ -128,123 +266,174 @@ public class Tetromino
     
     
     
-// (d). Public Methods (9) =============================================================================================
+// (d). Public Methods (20) ============================================================================================
     
     /* Rotation Method
      * This method rotates the tetromino in the given direction.
      * The Super Rotation System (SRS) is used. For more information on how this system works, particularly the offsets 
        element, see https://tetris.fandom.com/wiki/SRS.
+     * The new tile positions and the offsets ('kicks') to try are looked up in s_table_tiles and s_table_kicks, so
+       no objects are created and at most five positions are checked.
     
      * Parameters:
          > a_clockwise: the direction of rotation.
          > a_try_offsets: a flag that, when true, indicates that the piece should be offset in the event that it cannot 
                           be directly rotated into a valid position.
-         > a_grid: the grid on which the tetromino is displayed.
+         > a_engine: the engine (i.e. board) on which the tetromino is to be rotated.
          
      * Return Value:
          > A boolean indicating whether or not the tetromino was successfully rotated. 
                            
     */
-    public boolean Rotate(boolean a_clockwise, boolean a_try_offsets, TetrisGrid a_grid)
+    public boolean Rotate(boolean a_clockwise, boolean a_try_offsets, TetrisEngine a_engine)
     {
-        if (a_try_offsets)
-        { a_grid.UnDrawTetromino(this); }
-        
         // The current rotation index (pre-rotation).
         int l_index_rotation_old = f_index_rotation;
         
-        // Increment/decrement f_index_rotation according to a_clockwise.
-        if (a_clockwise)
-        {
-            f_index_rotation = (f_index_rotation + 1) % S_NUM_ROTATION_INDEXES;
-        }
-        else
-        {
-            f_index_rotation = (f_index_rotation == 0) ? S_NUM_ROTATION_INDEXES - 1 : f_index_rotation - 1;
-        }
-        
-        for (int i = 0; i < f_positions.length; ++i)
+        // The rotation index post-rotation.
+        int l_index_rotation_new = a_clockwise ? (f_index_rotation + 1) % S_NUM_ROTATION_INDEXES :
+                                                 (f_index_rotation + S_NUM_ROTATION_INDEXES - 1) % S_NUM_ROTATION_INDEXES;
+                                                 
+        if (!a_try_offsets)
         {
-            RotateTilePosition(0, i, a_clockwise);
+            f_index_rotation = l_index_rotation_new;
+            return false;
         }
         
-        if (!a_try_offsets)
-        { return false; }
-        
-        // Try to find a valid placement for the tetromino by using the offset data (record result in l_is_rotation_possible).
-        boolean l_is_rotation_possible = OffSet(l_index_rotation_old, f_index_rotation, a_grid);
+        // The kicks to try (see s_table_kicks).
+        int l_kicks[] = s_table_kicks[f_type.ordinal()][l_index_rotation_old][a_clockwise ? 0 : 1];
         
-        // If the tetromino can't be rotated (even after trying all available offsets), rotate back to the original 
-        // position.
-        if (!l_is_rotation_possible)
+        // Try to find a valid placement for the tetromino by trying each kick in turn.
+        boolean l_is_rotation_possible = false;
+        for (int k = 0; k < l_kicks.length; k += 2)
         {
-            Rotate(!a_clockwise, false, a_grid);
+            if (CanBePlacedAt(f_x + l_kicks[k], f_y + l_kicks[k + 1], l_index_rotation_new, a_engine))
+            {
+                f_index_rotation = l_index_rotation_new;
+                f_x += l_kicks[k];
+                f_y += l_kicks[k + 1];
+                l_is_rotation_possible = true;
+                break;
+            }
         }
         
-        a_grid.DrawTetromino(this);
-        
+        // If the tetromino couldn't be rotated (even after trying all available kicks), it remains as it was.
         return l_is_rotation_possible;
     }
     
     /* Movement Method
      * This method moves the tetromino by the given movement vector.
-     * Note that, assuming that the tetromino can be moved, the position on the grid is updated.
      
      * Parameters:
          > a_movement: the vector that defines the movement.
-         > a_grid: the grid on which the tetromino is to be moved.
-         > a_update_grid: a flag that, when true, indicates that the grid is to be updated: i.e. the tetromino should 
-                          actually be moved on the grid, as opposed to just its position array being altered.
+         > a_engine: the engine (i.e. board) on which the tetromino is to be moved.
 
      * Return Value:
          > This method returns true if the tetromino was successfully moved; false if otherwise.
     */
-    public boolean Move(Vector2D a_movement, TetrisGrid a_grid, boolean a_update_grid)
+    public boolean Move(Vector2D a_movement, TetrisEngine a_engine)
     {
-        if (a_update_grid)
-        { a_grid.UnDrawTetromino(this); }
-        
-        boolean l_can_move = true;
-        
-        for (int i = 0; i < f_positions.length; ++i)
-        {
-            if (!CanMoveTilePosition(i, a_movement, a_grid))
-            {
-                //System.out.println("Invalid movement!");
-                l_can_move = false;
-                break;
-            }
-        }
+        return Move((int)a_movement.GetX(), (int)a_movement.GetY(), a_engine);
+    }
+    
+    /* Movement Method
+     * This method moves the tetromino by the given amount in each direction.
+     
+     * Parameters:
+         > a_dx: the amount by which the tetromino is to be moved horizontally.
+         > a_dy: the amount by which the tetromino is to be moved vertically (positive is down the screen).
+         > a_engine: the engine (i.e. board) on which the tetromino is to be moved.
+
+     * Return Value:
+         > This method returns true if the tetromino was successfully moved; false if otherwise.
+    */
+    public boolean Move(int a_dx, int a_dy, TetrisEngine a_engine)
+    {
+        boolean l_can_move = CanBePlacedAt(f_x + a_dx, f_y + a_dy, f_index_rotation, a_engine);
         
         if (l_can_move)
         {
-            for (int i = 0; i < f_positions.length; ++i)
-            {
-                f_positions[i].PlusEquals(a_movement);
-            }
+            f_x += a_dx;
+            f_y += a_dy;
         }
         
-        if (a_update_grid)
-        { a_grid.DrawTetromino(this); }
-        
         return l_can_move;
     }
     
     /*
      * This method returns true if the tetromino can be moved in the given direction; false if otherwise. 
     */
-    public boolean CanMove(Vector2D a_movement, TetrisGrid a_grid)
+    public boolean CanMove(Vector2D a_movement, TetrisEngine a_engine)
     {
-        for (int i = 0; i < f_positions.length; ++i)
+        return CanMove((int)a_movement.GetX(), (int)a_movement.GetY(), a_engine);
+    }
+        
+    /*
+     * This method returns true if the tetromino can be moved by the given amount in each direction; false if 
+       otherwise. 
+    */
+    public boolean CanMove(int a_dx, int a_dy, TetrisEngine a_engine)
+    {
+        return CanBePlacedAt(f_x + a_dx, f_y + a_dy, f_index_rotation, a_engine);
+    }
+    
+    /* Hard-drop Method
+     * This method moves the tetromino down the board as far as it can go, in a single step.
+     
+     * Parameters:
+         > a_engine: the engine (i.e. board) on which the tetromino is to be dropped.
+         
+     * Return Value:
+         > The number of rows by which the tetromino fell.
+    */
+    public int Drop(TetrisEngine a_engine)
+    {
+        int l_distance = GetDropDistance(a_engine);
+        
+        f_y += l_distance;
+        
+        return l_distance;
+    }
+        
+    /*
+     * This method adds the tetromino's tiles to the given engine: i.e. the tetromino becomes part of the board.
+     
+     * Parameters:
+         > a_engine: the engine (i.e. board) to which the tetromino is to be added.
+    */
+    public void Lock(TetrisEngine a_engine)
+    {
+        int l_tiles[] = s_table_tiles[f_type.ordinal()][f_index_rotation];
+        
+        for (int i = 0; i < 2 * S_NUM_TILES; i += 2)
+        { a_engine.SetCell(f_x + l_tiles[i], f_y + l_tiles[i + 1], f_type); }
+    }
+    
+    /*
+     * This method returns the number of rows the tetromino can fall before it lands on either an occupied tile or the 
+       bottom of the grid.
+     * Only the lowest tile of each of the tetromino's columns is considered (see s_table_bottoms), and the distance is 
+       determined from the surface beneath each of these tiles, so this is done in a single pass.
+     
+     * Parameters:
+         > a_engine: the engine (i.e. board) on which the tetromino is to be dropped.
+    */
+    public int GetDropDistance(TetrisEngine a_engine)
+    {
+        int l_tiles[] = s_table_tiles[f_type.ordinal()][f_index_rotation];
+        int l_bottoms = s_table_bottoms[f_type.ordinal()][f_index_rotation];
+        
+        int l_distance = Integer.MAX_VALUE;
+        
+        for (int i = 0; i < S_NUM_TILES; ++i)
         {
-            if (!CanMoveTilePosition(i, a_movement, a_grid))
-            {
-                //System.out.println("Invalid movement!");
-                return false;
-            }
+            if ((l_bottoms & (1 << i)) == 0)
+            { continue; }
+            
+            l_distance = Math.min(l_distance, a_engine.GetDropDistance(f_x + l_tiles[2 * i], f_y + l_tiles[2 * i + 1]));
         }
         
-        return true;
+        return l_distance;
     }
     
     /*
@@ -252,7 +441,32 @@ public class Tetromino
     */
     public Color GetColour()
     {
-        switch (f_type)
+        return GetColour(f_type);
+    }
+    
+    /*
+     * This method returns the colour of the 'ghost' of the tetromino's type: i.e. the colour of the tiles that show 
+       where the tetromino will land.
+    */
+    public Color GetColourGhost()
+    {
+        return s_colours_ghost[f_type.ordinal()];
+    }
+    
+    /*
+     * This method returns the colour of the 'ghost' of the given type of tetromino.
+    */
+    public static Color GetColourGhost(Type a_type)
+    {
+        return s_colours_ghost[a_type.ordinal()];
+    }
+    
+    /*
+     * This method returns the colour associated with the given type of tetromino. 
+    */
+    public static Color GetColour(Type a_type)
+    {
+        switch (a_type)
         {
             case I :
                 return S_COLOUR_I;
@@ -282,7 +496,7 @@ public class Tetromino
     }
     
     
-// (d)(i). Accessors (2) -----------------------------------------------------------------------------------------------
+// (d)(i). Accessors (6) -----------------------------------------------------------------------------------------------
     
     /* Accessor of f_type
     */
@@ -291,206 +505,98 @@ public class Tetromino
         return f_type;
     }
     
-    /* Accessor of f_position.
+    /* Accessor of f_x
+     * This method returns the x-coordinate of the tetromino's origin.
     */
-    public Vector2D[] GetPosition()
+    public int GetX()
     {
-        return f_positions;
+        return f_x;
     }
     
+    /* Accessor of f_y
+     * This method returns the y-coordinate of the tetromino's origin.
+    */
+    public int GetY()
+    {
+        return f_y;
+    }
     
-// (d)(ii). Mutators (1) -----------------------------------------------------------------------------------------------
+    /* Accessor of f_index_rotation
+    */
+    public int GetIndexRotation()
+    {
+        return f_index_rotation;
+    }
     
-    /* Mutator of f_positions
-     * This method sets the tetromino's position in accordance with the given coordinate.
-     
-     * Parameters:
-         > a_pos: the coordinate at which the tetromino's origin coordinate (f_positions[]) is set.
+    /*
+     * This method returns the x-coordinate of the tile at the given index (0 to S_NUM_TILES - 1).
     */
-    public void SetPosition(Vector2D a_pos)
+    public int GetTileX(int a_index)
     {
-        // Set the position of the 'centre piece'.
-        f_positions[0] = a_pos;
-        
-        // Set the positions of the other (three) tiles.
-        switch (f_type)
-        {
-            case I :
-                // |/||/||/||/|
-                //  1  0  3  2
-                f_positions[1] = f_positions[0].Plus(new Vector2D(-1,0));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(2,0));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(1,0));
-                break;
-                
-            case J :
-                // |/|
-                //  2
-                // |/||/||/|
-                //  1  0  3
-                f_positions[1] = f_positions[0].Plus(new Vector2D(-1,0));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(-1,-1));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(1,0));
-                break;
-                
-            case L :
-                //       |/|
-                //        2
-                // |/||/||/|
-                //  3  0  1
-                f_positions[1] = f_positions[0].Plus(new Vector2D(1,0));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(1,-1));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(-1,0));
-                break;
-                
-            case O :
-                // |/||/|
-                //  3  2
-                // |/||/|
-                //  0  1 
-                f_positions[1] = f_positions[0].Plus(new Vector2D(1,0));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(1,-1));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(0,-1));
-                break;
-                
-            case S :
-                //    |/||/|
-                //     2  3
-                // |/||/|
-                //  1  0 
-                f_positions[1] = f_positions[0].Plus(new Vector2D(-1,0));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(0,-1));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(1,-1));
-                break;
-                
-            case T :
-                //    |/|
-                //     2 
-                // |/||/||/|
-                //  1  0  3
-                f_positions[1] = f_positions[0].Plus(new Vector2D(-1,0));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(0,-1));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(1,0));
-                break;
-                
-            case Z :
-                // |/||/|
-                //  2  1
-                //    |/||/|
-                //     0  3
-                f_positions[1] = f_positions[0].Plus(new Vector2D(0,-1));
-                f_positions[2] = f_positions[0].Plus(new Vector2D(-1,-1));
-                f_positions[3] = f_positions[0].Plus(new Vector2D(1,0));
-                break;
-            
-        }
-        
+        return f_x + s_table_tiles[f_type.ordinal()][f_index_rotation][2 * a_index];
     }
     
+    /*
+     * This method returns the y-coordinate of the tile at the given index (0 to S_NUM_TILES - 1).
+    */
+    public int GetTileY(int a_index)
+    {
+        return f_y + s_table_tiles[f_type.ordinal()][f_index_rotation][2 * a_index + 1];
+    }
     
     
-// (e). Auxiliaries (3) ================================================================================================
+// (d)(ii). Mutators (2) -----------------------------------------------------------------------------------------------
     
-    /* Auxiliary of Rotate
-     * Rotates a coordinate in f_positions.
+    /* Mutator of f_x and f_y
+     * This method sets the tetromino's position in accordance with the given coordinate.
      
      * Parameters:
-         > a_index_origin: the index of f_positions corresponding to the coordinate that is considered the tetromino's 
-                           origin/centre.
-         > a_index_pos: the index of f_positions of the coordinate to be rotated about the coordinate at a_index_origin.
-         > a_clockwise: a flag that, when true, indicates that the coordinate should be rotated clockwise.
+         > a_x: the x-coordinate at which the tetromino's origin is set.
+         > a_y: the y-coordinate at which the tetromino's origin is set.
     */
-    private void RotateTilePosition(int a_index_origin, int a_index_pos, boolean a_clockwise)
+    public void SetPosition(int a_x, int a_y)
     {
-        // The position of f_positions[a_index_pos] relative to f_positions[a_index_origin].
-        Vector2D l_position_relative = f_positions[a_index_pos].Minus(f_positions[a_index_origin]);
-        
-        // The new position associated with index a_index_pos.
-        Vector2D l_position_new = new Vector2D();
-        
-        // The rotation matrix necessary to 
-        Vector2D l_matrix_rot[] = a_clockwise ? s_matrix_rot_cw : s_matrix_rot_ccw;
-        
-        // Rotate the X position of l_position_relative (store result in l_position_new).
-        l_position_new.SetX( (l_matrix_rot[0].GetX() * l_position_relative.GetX()) + 
-                             (l_matrix_rot[1].GetX() * l_position_relative.GetY()) );
-        
-        // Rotate the Y position of l_position_relative (store result in l_position_new).
-        l_position_new.SetY( (l_matrix_rot[0].GetY() * l_position_relative.GetX()) + 
-                             (l_matrix_rot[1].GetY() * l_position_relative.GetY()) );
-        
-        // Make l_position_new relative to the universal origin, not the relative origin f_positions[a_index_origin].
-        l_position_new.PlusEquals(f_positions[a_index_origin]);
-        
-        // Set the new position.
-        f_positions[a_index_pos] = l_position_new;
+        f_x = a_x;
+        f_y = a_y;
     }
     
-    /* Auxiliary of Rotate
-     * This method offsets the tetromino's position in accordance to the old and new rotation indexes.
+    /* Mutator of f_index_rotation
+     * This method sets the tetromino's rotation index directly (i.e. without checking whether it fits).
      
      * Parameters:
-         > a_index_rotation_old: the rotation index prior to rotation.
-         > a_index_rotation_new: the rotation index post rotation (i.e. the current rotation index).
-         > a_grid: the grid on which the tetromino is displayed.
-     
-     * Return Value:
-         * This method returns true if the piece was successfully offset into a new position; false if otherwise. 
+         > a_index_rotation: the rotation index (0 to S_NUM_ROTATION_INDEXES - 1).
     */
-    private boolean OffSet(int a_index_rotation_old, int a_index_rotation_new, TetrisGrid a_grid)
+    public void SetIndexRotation(int a_index_rotation)
     {
-        // The offset vector for l_index_rotation_old, l_index_rotation_new, and the relative offset, respectively.
-        Vector2D l_offset_old, l_offset_new, l_offset_relative;
-        
-        // The offset data used to determine the values of the above offsets.
-        Vector2D l_offset_data[][];
-        
-        if (f_type == Type.O)
-        { l_offset_data = s_offset_data_O; }
-        else if (f_type == Type.I)
-        { l_offset_data = s_offset_data_I; }
-        else
-        { l_offset_data = s_offset_data_JLSTZ; }
-        
-        // A flag that, when true, indicates that none of the offsets lead to a valid placement.
-        boolean l_can_offset = false;
-        
-        for (int index_offset = 0; index_offset < 5; ++index_offset)
-        {
-            // Get the offset vector for index_offset associated with l_index_rotation_old and l_index_rotation_new, respectively.
-            l_offset_old = l_offset_data[index_offset][a_index_rotation_old];
-            l_offset_new = l_offset_data[index_offset][a_index_rotation_new];
-            
-            // Calculate the relative offset between the old and new rotation indexes.
-            l_offset_relative = l_offset_old.Minus(l_offset_new);
-            
-            if (Move(l_offset_relative, a_grid, false))
-            {
-                return true;
-            }
-        }
-        
-        return false;
+        f_index_rotation = a_index_rotation;
     }
     
-    /* Auxiliary of Move
-     * If f_positions[a_index_pos] can be moved according to a_movement, true is returned; otherwise, false.
-      
+    
+    
+// (e). Auxiliaries (1) ================================================================================================
+    
+    /* Auxiliary of Rotate, Move, and CanMove
+     * This method returns true if the tetromino would fit on the grid were its origin at the given coordinate and its
+       rotation index the given value; false if otherwise.
+     
      * Parameters:
-         > a_index_pos: the index of the coordinate in f_positions that is to be moved.
-         > a_movement: the way in which to move the coordinate.
-         > a_grid: the grid on which the tetromino is displayed.
-         
-      * Return Value:
-         * This method returns true if the coordinate can be moved; false if otherwise.  
-         
+         > a_x: the x-coordinate of the tetromino's origin.
+         > a_y: the y-coordinate of the tetromino's origin.
+         > a_index_rotation: the rotation index.
+         > a_engine: the engine (i.e. board) on which the tetromino is to be placed.
     */
-    private boolean CanMoveTilePosition(int a_index_pos, Vector2D a_movement, TetrisGrid a_grid)
+    private boolean CanBePlacedAt(int a_x, int a_y, int a_index_rotation, TetrisEngine a_engine)
     {
-        Vector2D l_position_post_move = f_positions[a_index_pos].Plus(a_movement);
+        int l_tiles[] = s_table_tiles[f_type.ordinal()][a_index_rotation];
+     
+        for (int i = 0; i < 2 * S_NUM_TILES; i += 2)
+        {
+            if (!a_engine.CanBeMovedTo(a_x + l_tiles[i], a_y + l_tiles[i + 1]))
+            { return false; }
+        }
         
-        return a_grid.CanBeMovedTo(l_position_post_move);
+        return true;
     }
-
+    
     
 }
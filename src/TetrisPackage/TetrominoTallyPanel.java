@@ -17,25 +17,50 @@ import Utils.Label;
 
 /*
  * An object of this class can be used to display how many of each tetromino have spawned thus far in a Tetris game.
+ * The panel also maintains statistics about the distribution of the tetrominos, which are useful for assessing the
+   fairness of the randomiser: the current and longest 'drought' of each type (i.e. the number of consecutive
+   tetrominos of other types), and the chi-square statistic of the tallies with respect to a uniform distribution.
+   All of the statistics are updated in constant time per tetromino.
     
  * Composition:
-     (a). Fields (6)
+     (a). Fields (11)
          (i). Static Fields (4) 
      (b). Constructors (1)
-     (c). Public Methods (2)
+     (c). Public Methods (9)
+         (i). Accessors (5)
 */
 public class TetrominoTallyPanel
     extends JPanel
 {
 
-// (a). Fields (6) =====================================================================================================
+// (a). Fields (11) ====================================================================================================
     
     // Each grid displays one tetromino.
     private TetrisGrid f_grids[];
     
-    // Each Label stores the tally associated with the tetromino in a TetrisGrid object of f_tetrominos.
+    // Each Label displays the tally associated with the tetromino in a TetrisGrid object of f_tetrominos.
     private Label f_labels_tallies[];
     
+    // The number of each type of tetromino that has spawned (indexed by Tetromino.Type ordinal).
+    private int f_tallies[];
+    
+    // The total number of tetrominos that have spawned.
+    private int f_num_spawns;
+    
+    /*
+     * The value of f_num_spawns when each type of tetromino last spawned (0 if it hasn't spawned). The current drought
+       of a type is derived from this rather than stored, so that a spawn only updates the type that spawned.
+    */
+    private int f_spawns_last[];
+    
+    // The longest (completed) drought of each type of tetromino.
+    private int f_droughts_longest[];
+    
+    /*
+     * The sum of the squares of the tallies, from which the chi-square statistic is calculated (see GetChiSquare()).
+    */
+    private long f_sum_tallies_squared;
+    
     
 // (a)(i). Static Fields (4) -------------------------------------------------------------------------------------------
     
@@ -108,6 +133,11 @@ public class TetrominoTallyPanel
             f_grids[i].DrawTetromino(f_tetromino, DrawPosition.CentreMid);
         }
         
+        // Create the statistics.
+        f_tallies = new int[l_num_tetrominos];
+        f_spawns_last = new int[l_num_tetrominos];
+        f_droughts_longest = new int[l_num_tetrominos];
+        
         // Create the labels.
         f_labels_tallies = new Label[l_num_tetrominos];
         for (int i = 0; i < l_num_tetrominos; ++i)
@@ -145,18 +175,24 @@ public class TetrominoTallyPanel
     
     
     
-// (c). Public Methods (2) ============================================================================================
+// (c). Public Methods (9) =============================================================================================
     
     /*
-     * This method resets the tallies of each tetromino.
+     * This method resets the tallies (and statistics) of each tetromino.
     */
     public void Reset()
     {
-        for (Label l : f_labels_tallies)
+        for (int i = 0; i < f_tallies.length; ++i)
         {
-            l.SetText("x0");
+            f_tallies[i] = 0;
+            f_spawns_last[i] = 0;
+            f_droughts_longest[i] = 0;
+            
+            f_labels_tallies[i].SetText("x0");
         }
         
+        f_num_spawns = 0;
+        f_sum_tallies_squared = 0;
     }
     
     /*
@@ -164,26 +200,98 @@ public class TetrominoTallyPanel
     */
     public void IncrementTally(Tetromino a_tetromino)
     {
-        // Get the index of the label to increment.
-        int l_index_tetromino = a_tetromino.GetType().ordinal();
+        IncrementTally(a_tetromino.GetType().ordinal());
+    }
+  
+    /*
+     * This method increments the tally associated with the given type of tetromino by 1, and updates the statistics.
+     
+     * Parameters:
+         > a_index_type: the ordinal of the tetromino's type.
+    */
+    public void IncrementTally(int a_index_type)
+    {
+        // The drought of the type ends.
+        int l_drought = GetDrought(a_index_type);
+        if (l_drought > f_droughts_longest[a_index_type])
+        { f_droughts_longest[a_index_type] = l_drought; }
         
-        // An 'x' followed by the number tallied so far: e.g. "x12".
-        String l_tally_string = f_labels_tallies[l_index_tetromino].GetText();
+        // (t + 1)^2 = t^2 + 2t + 1.
+        f_sum_tallies_squared += 2 * f_tallies[a_index_type] + 1;
         
-        // Just the integer part of l_tally_string: e.g. if it's "x12", l_value_string will be "12".
-        String l_value_string = l_tally_string.substring(1);
+        ++f_tallies[a_index_type];
+        ++f_num_spawns;
+        f_spawns_last[a_index_type] = f_num_spawns;
         
-        // The current tally.
-        int l_value = Integer.parseInt(l_value_string);
+        // Update the label with the new tally.
+        f_labels_tallies[a_index_type].SetText("x" + f_tallies[a_index_type]);
+    }
+    
+    /*
+     * This method returns the chi-square statistic of the tallies with respect to a uniform distribution: i.e. the sum
+       of (tally - expected)^2 / expected over each type, where expected is the number of spawns divided by the number
+       of types. A fair randomiser yields values around the number of types minus one (i.e. 6); values that are
+       consistently much larger indicate a bias towards certain types.
+     * As the sum of the tallies is the number of spawns (n), the statistic simplifies to k * sum(tally^2) / n - n, where
+       k is the number of types, so it's calculated in constant time.
+       
+     * Return Value:
+         > The chi-square statistic, or 0 if no tetrominos have spawned.
+    */
+    public double GetChiSquare()
+    {
+        if (f_num_spawns == 0)
+        { return 0.0; }
         
-        // Increment the tally.
-        ++l_value;
+        return (double)f_tallies.length * f_sum_tallies_squared / f_num_spawns - f_num_spawns;
+    }
+    
+    
+// (c)(i). Accessors (5) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_tallies
+     * This method returns the tally associated with the given type (ordinal) of tetromino.
+    */
+    public int GetTally(int a_index_type)
+    {
+        return f_tallies[a_index_type];
+    }
+    
+    /* Accessor of f_num_spawns
+    */
+    public int GetNumSpawns()
+    {
+        return f_num_spawns;
+    }
+    
+    /* Accessor of f_spawns_last
+     * This method returns the current drought of the given type (ordinal) of tetromino: i.e. the number of tetrominos
+       that have spawned since it last spawned (or since the game began, if it hasn't spawned).
+    */
+    public int GetDrought(int a_index_type)
+    {
+        return f_num_spawns - f_spawns_last[a_index_type];
+    }
+    
+    /* Accessor of f_droughts_longest
+     * This method returns the longest drought of the given type (ordinal) of tetromino, including its current drought.
+    */
+    public int GetDroughtLongest(int a_index_type)
+    {
+        return Math.max(f_droughts_longest[a_index_type], GetDrought(a_index_type));
+    }
+    
+    /* Accessor of f_droughts_longest
+     * This method returns the longest drought of any type of tetromino (including current droughts).
+    */
+    public int GetDroughtLongest()
+    {
+        int l_drought_longest = 0;
         
-        // Form the new string.
-        String l_tally_string_updated = "x" + String.valueOf(l_value);
+        for (int i = 0; i < f_tallies.length; ++i)
+        { l_drought_longest = Math.max(l_drought_longest, GetDroughtLongest(i)); }
         
-        // Update the label with the new tally.
-        f_labels_tallies[l_index_tetromino].SetText(l_tally_string_updated);
+        return l_drought_longest;
     }
   
     
@@ -0,0 +1,274 @@
+package TetrisPackage;
+
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.VolatileImage;
+
+
+/*
+ * An object of this class is a 'sprite atlas' of the tiles that a TetrisGrid can display: i.e. an image that contains
+   one pre-rendered tile (a 'sprite') of each style, side by side. A grid paints its tiles by copying ('blitting')
+   the appropriate region of the atlas, so a tile costs the same to paint regardless of how detailed its style is.
+ * The sprites are: an empty tile, a bevelled tile of each type of tetromino, and a 'ghost' tile of each type of
+   tetromino. A sprite is identified by its index within the atlas, which for the tetromino tiles matches the type
+   values of TetrisEngine (i.e. the ordinal of the type plus one).
+ * The atlas is stored in a VolatileImage, which (where supported) resides in video memory. The contents of such an
+   image can be lost at any time (e.g. when the display mode changes), so the atlas is checked before each paint
+   (see Validate(...)) and re-rendered if necessary. If no graphics configuration is available (e.g. the grid isn't
+   displayable), the sprites are instead drawn directly.
+
+ * Composition:
+     (a). Fields (8)
+         (i). Static Fields (5)
+     (b). Constructors (1)
+     (c). Public Methods (5)
+     (d). Auxiliaries (4)
+*/
+public class TileAtlas
+{
+    
+// (a). Fields (8) =====================================================================================================
+    
+    // The dimension (pixels) of each (square) sprite.
+    private final int f_size_tile;
+    
+    // The colour of an empty tile.
+    private final Color f_colour_empty;
+    
+    // The atlas: i.e. sprite i occupies the square whose top-left corner is at (i * f_size_tile, 0).
+    private VolatileImage f_image;
+    
+    
+// (a)(i). Static Fields (5) -------------------------------------------------------------------------------------------
+    
+    // The index of the sprite of an empty tile.
+    public static final byte S_SPRITE_EMPTY = TetrisEngine.S_TYPE_EMPTY;
+    
+    // The number of sprites in the atlas: an empty tile, plus a regular and ghost tile per type of tetromino.
+    public static final int S_NUM_SPRITES = 1 + 2 * Tetromino.S_NUM_TYPES;
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    // The width of a tile's bevel (as a proportion of the tile's dimension).
+    private static final float s_bevel_proportion = 0.15f;
+    
+    /*
+     * The proportion by which the colour of a tile's bevel is blended towards white (its top and left edges) or black
+       (its bottom and right edges).
+    */
+    private static final float s_bevel_shade = 0.45f;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * Note that the atlas isn't rendered until Validate(...) is first called.
+     
+     * Parameters:
+         > a_size_tile: the dimension (pixels) of each tile.
+         > a_colour_empty: the colour of an empty tile.
+    */
+    public TileAtlas(int a_size_tile, Color a_colour_empty)
+    {
+        f_size_tile = a_size_tile;
+        f_colour_empty = a_colour_empty;
+    }
+    
+    
+    
+// (c). Public Methods (5) =============================================================================================
+    
+    /*
+     * This method returns the index of the sprite of the given type of tetromino.
+    */
+    public static byte GetSprite(Tetromino.Type a_type)
+    {
+        return (byte)(a_type.ordinal() + 1);
+    }
+    
+    /*
+     * This method returns the index of the sprite of the 'ghost' of the given type of tetromino.
+    */
+    public static byte GetSpriteGhost(Tetromino.Type a_type)
+    {
+        return (byte)(1 + Tetromino.S_NUM_TYPES + a_type.ordinal());
+    }
+    
+    /*
+     * This method ensures that the atlas is compatible with the given graphics configuration and that its contents
+       are intact, (re-)creating and (re-)rendering it if necessary. This should be called before the atlas is used
+       for a paint.
+       
+     * Parameters:
+         > a_gc: the graphics configuration of the component that's being painted (may be null).
+    */
+    public void Validate(GraphicsConfiguration a_gc)
+    {
+        if (a_gc == null)
+        {
+            // Draw the sprites directly.
+            f_image = null;
+            return;
+        }
+        
+        if (f_image == null)
+        {
+            Create(a_gc);
+            return;
+        }
+        
+        switch (f_image.validate(a_gc))
+        {
+            case VolatileImage.IMAGE_RESTORED:
+                // The surface was lost and has been restored, but its contents must be re-rendered.
+                Render();
+                break;
+                
+            case VolatileImage.IMAGE_INCOMPATIBLE:
+                f_image.flush();
+                Create(a_gc);
+                break;
+                
+            default:
+                break;
+        }
+        
+    }
+    
+    /*
+     * This method draws the given sprite at the given position.
+     
+     * Parameters:
+         > g: the graphics context upon which the sprite is drawn.
+         > a_sprite: the index of the sprite.
+         > a_x: the x-coordinate (pixels) of the top-left corner of the sprite.
+         > a_y: the y-coordinate (pixels) of the top-left corner of the sprite.
+    */
+    public void Draw(Graphics g, int a_sprite, int a_x, int a_y)
+    {
+        if (f_image == null)
+        {
+            DrawSprite(g, a_sprite, a_x, a_y);
+            return;
+        }
+        
+        int l_x_source = a_sprite * f_size_tile;
+        
+        g.drawImage(f_image, a_x, a_y, a_x + f_size_tile, a_y + f_size_tile,
+                    l_x_source, 0, l_x_source + f_size_tile, f_size_tile, null);
+    }
+    
+    /*
+     * This method returns a flag that, when true, indicates that the contents of the atlas were lost since it was last
+       validated: i.e. anything drawn from it since then may be incorrect, and should be painted again.
+    */
+    public boolean IsContentsLost()
+    {
+        return f_image != null && f_image.contentsLost();
+    }
+    
+    
+    
+// (d). Auxiliaries (4) ================================================================================================
+    
+    /* Auxiliary of Validate
+     * This method creates the atlas for the given graphics configuration and renders it.
+    */
+    private void Create(GraphicsConfiguration a_gc)
+    {
+        f_image = a_gc.createCompatibleVolatileImage(S_NUM_SPRITES * f_size_tile, f_size_tile, Transparency.OPAQUE);
+        
+        Render();
+    }
+    
+    /* Auxiliary of Validate and Create
+     * This method renders each sprite into the atlas.
+    */
+    private void Render()
+    {
+        Graphics2D l_graphics = f_image.createGraphics();
+        
+        for (int i = 0; i < S_NUM_SPRITES; ++i)
+        { DrawSprite(l_graphics, i, i * f_size_tile, 0); }
+        
+        l_graphics.dispose();
+    }
+    
+    /* Auxiliary of Draw and Render
+     * This method draws the given sprite at the given position.
+     * A tetromino's tile is a flat square of its colour surrounded by a bevel: the top and left edges are lighter, and
+       the bottom and right edges are darker. A ghost tile is a flat square of the ghost colour outlined by the
+       tetromino's colour.
+       
+     * Parameters:
+         > g: the graphics context upon which the sprite is drawn.
+         > a_sprite: the index of the sprite.
+         > a_x: the x-coordinate (pixels) of the top-left corner of the sprite.
+         > a_y: the y-coordinate (pixels) of the top-left corner of the sprite.
+    */
+    private void DrawSprite(Graphics g, int a_sprite, int a_x, int a_y)
+    {
+        int l_size = f_size_tile;
+        
+        if (a_sprite == S_SPRITE_EMPTY)
+        {
+            g.setColor(f_colour_empty);
+            g.fillRect(a_x, a_y, l_size, l_size);
+            return;
+        }
+        
+        boolean l_is_ghost = a_sprite > Tetromino.S_NUM_TYPES;
+        
+        Tetromino.Type l_type = s_types[(a_sprite - 1) % Tetromino.S_NUM_TYPES];
+        
+        Color l_colour = Tetromino.GetColour(l_type);
+        
+        if (l_is_ghost)
+        {
+            g.setColor(Tetromino.GetColourGhost(l_type));
+            g.fillRect(a_x, a_y, l_size, l_size);
+            
+            g.setColor(l_colour.darker());
+            g.drawRect(a_x, a_y, l_size - 1, l_size - 1);
+            return;
+        }
+        
+        int l_bevel = Math.max(1, (int)(l_size * s_bevel_proportion));
+        
+        // The lighter edges (top and left).
+        g.setColor(Blend(l_colour, Color.WHITE, s_bevel_shade));
+        g.fillRect(a_x, a_y, l_size, l_size);
+        
+        // The darker edges (bottom and right): a triangle that covers the bottom-right half of the tile.
+        g.setColor(Blend(l_colour, Color.BLACK, s_bevel_shade));
+        g.fillPolygon(new int[] { a_x + l_size, a_x + l_size, a_x },
+                      new int[] { a_y, a_y + l_size, a_y + l_size }, 3);
+                      
+        // The face of the tile.
+        g.setColor(l_colour);
+        g.fillRect(a_x + l_bevel, a_y + l_bevel, l_size - 2 * l_bevel, l_size - 2 * l_bevel);
+    }
+    
+    /* Auxiliary of DrawSprite
+     * This method returns the colour that's the given proportion of the way from one colour to another.
+     
+     * Parameters:
+         > a_from: the colour to blend from.
+         > a_to: the colour to blend towards.
+         > a_proportion: the proportion (0 to 1) of the way from a_from to a_to.
+    */
+    private static Color Blend(Color a_from, Color a_to, float a_proportion)
+    {
+        return new Color(Math.round(a_from.getRed() + (a_to.getRed() - a_from.getRed()) * a_proportion),
+                         Math.round(a_from.getGreen() + (a_to.getGreen() - a_from.getGreen()) * a_proportion),
+                         Math.round(a_from.getBlue() + (a_to.getBlue() - a_from.getBlue()) * a_proportion));
+    }
+    
+    
+}
@@ -0,0 +1,273 @@
+package TetrisPackage;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/*
+ * An object of this class is a bounded cache of the results of a search, keyed by the hash of the position that was
+   searched (e.g. a board's hash, see TetrisEngine.GetHash(), combined with the type of the tetromino to be placed):
+   i.e. when a search reaches a position that it (or another search) has already evaluated, the result can be reused
+   rather than recomputed.
+ * Each entry holds an evaluation (a float) and a 'best move' (an int, whose meaning is up to the search), which are
+   packed into a single long (see Pack(...), GetValue(...), and GetMove(...)), such that neither a lookup nor a store
+   creates any objects.
+ * The table is set-associative: a key maps to a bucket of S_BUCKET_SIZE entries, and an entry may be stored in any
+   slot of its bucket. When a bucket is full, the entry that was least recently stored or found is evicted, where
+   recency is measured in 'generations' (see NextGeneration()): e.g. a policy that begins a new generation per
+   decision evicts the entries of its oldest decisions first.
+ * The table may be shared by many threads (e.g. the threads of a BatchRunner). Rather than a single lock, the buckets
+   are guarded by a fixed number of locks ('stripes'), such that threads only contend when they access buckets of the
+   same stripe.
+
+ * Composition:
+     (a). Fields (12)
+         (i). Static Fields (4)
+     (b). Constructors (1)
+     (c). Public Methods (10)
+         (i). Accessors (3)
+     (d). Auxiliaries (1)
+*/
+public class TranspositionTable
+{
+    
+// (a). Fields (12) ====================================================================================================
+    
+    /* The Slots
+     * The key, entry, and age (the generation in which it was last stored or found) of each slot; the slots of bucket
+       'b' are those at indexes b * S_BUCKET_SIZE to (b + 1) * S_BUCKET_SIZE - 1.
+     * A slot whose age is 0 is empty.
+    */
+    private final long f_keys[];
+    private final long f_entries[];
+    private final int f_ages[];
+    
+    // The number of buckets minus one (the number of buckets is a power of two).
+    private final int f_bucket_mask;
+    
+    // The locks that guard the buckets: bucket 'b' is guarded by f_stripes[b & (f_stripes.length - 1)].
+    private final Object f_stripes[];
+    
+    // The current generation (see NextGeneration()).
+    private final AtomicInteger f_generation;
+    
+    // The number of lookups that found an entry and that didn't.
+    private final LongAdder f_num_hits;
+    private final LongAdder f_num_misses;
+    
+    
+// (a)(i). Static Fields (4) -------------------------------------------------------------------------------------------
+    
+    // The number of slots in each bucket.
+    public static final int S_BUCKET_SIZE = 4;
+    
+    // The value returned by Get(...) when the key isn't in the table.
+    public static final long S_MISS = Long.MIN_VALUE;
+    
+    // The default number of lock stripes.
+    private static final int s_num_stripes_default = 64;
+    
+    // The default (minimum) number of entries in a table.
+    public static final int S_CAPACITY_DEFAULT = 1 << 18;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_capacity: the (minimum) number of entries that the table can hold; it's rounded up such that the number
+                       of buckets is a power of two.
+    */
+    public TranspositionTable(int a_capacity)
+    {
+        // The number of buckets needed, rounded up to a power of two.
+        int l_num_buckets = (a_capacity + S_BUCKET_SIZE - 1) / S_BUCKET_SIZE;
+        l_num_buckets = Integer.highestOneBit(Math.max(1, l_num_buckets - 1)) * 2;
+        
+        f_keys = new long[l_num_buckets * S_BUCKET_SIZE];
+        f_entries = new long[l_num_buckets * S_BUCKET_SIZE];
+        f_ages = new int[l_num_buckets * S_BUCKET_SIZE];
+        f_bucket_mask = l_num_buckets - 1;
+        
+        f_stripes = new Object[Math.min(s_num_stripes_default, l_num_buckets)];
+        for (int i = 0; i < f_stripes.length; ++i)
+        { f_stripes[i] = new Object(); }
+        
+        f_generation = new AtomicInteger(1);
+        f_num_hits = new LongAdder();
+        f_num_misses = new LongAdder();
+    }
+    
+    
+    
+// (c). Public Methods (10) ============================================================================================
+    
+    /*
+     * This method returns the entry of the given key (S_MISS if it isn't in the table). A found entry becomes the
+       most recently used of its bucket.
+       
+     * Parameters:
+         > a_key: the key (i.e. the hash of the position).
+    */
+    public long Get(long a_key)
+    {
+        int l_bucket = Bucket(a_key);
+        int l_first = l_bucket * S_BUCKET_SIZE;
+        
+        synchronized (f_stripes[l_bucket & (f_stripes.length - 1)])
+        {
+            for (int l_slot = l_first; l_slot < l_first + S_BUCKET_SIZE; ++l_slot)
+            {
+                if (f_ages[l_slot] != 0 && f_keys[l_slot] == a_key)
+                {
+                    f_ages[l_slot] = f_generation.get();
+                    f_num_hits.increment();
+                    return f_entries[l_slot];
+                }
+            }
+        }
+        
+        f_num_misses.increment();
+        return S_MISS;
+    }
+    
+    /*
+     * This method stores the given entry under the given key: it replaces the key's existing entry if there is one,
+       or otherwise the oldest entry of the key's bucket.
+       
+     * Parameters:
+         > a_key: the key (i.e. the hash of the position).
+         > a_value: the position's evaluation.
+         > a_move: the position's best move.
+    */
+    public void Put(long a_key, float a_value, int a_move)
+    {
+        long l_entry = Pack(a_value, a_move);
+        
+        int l_bucket = Bucket(a_key);
+        int l_first = l_bucket * S_BUCKET_SIZE;
+        
+        synchronized (f_stripes[l_bucket & (f_stripes.length - 1)])
+        {
+            // The slot to replace: the key's slot, an empty slot, or (failing those) the oldest slot.
+            int l_victim = l_first;
+            
+            for (int l_slot = l_first; l_slot < l_first + S_BUCKET_SIZE; ++l_slot)
+            {
+                if (f_ages[l_slot] != 0 && f_keys[l_slot] == a_key)
+                {
+                    l_victim = l_slot;
+                    break;
+                }
+                
+                if (f_ages[l_slot] < f_ages[l_victim])
+                { l_victim = l_slot; }
+            }
+            
+            f_keys[l_victim] = a_key;
+            f_entries[l_victim] = l_entry;
+            f_ages[l_victim] = f_generation.get();
+        }
+        
+    }
+    
+    /*
+     * This method begins a new generation: the entries that are stored or found from now on are considered newer
+       than every entry stored or found before.
+    */
+    public void NextGeneration()
+    {
+        // Skip 0, which marks an empty slot, in the (unlikely) event that the generation overflows.
+        if (f_generation.incrementAndGet() == 0)
+        { f_generation.compareAndSet(0, 1); }
+    }
+    
+    /*
+     * This method empties the table and resets its statistics.
+    */
+    public void Clear()
+    {
+        for (int l_stripe = 0; l_stripe < f_stripes.length; ++l_stripe)
+        {
+            synchronized (f_stripes[l_stripe])
+            {
+                for (int l_bucket = l_stripe; l_bucket <= f_bucket_mask; l_bucket += f_stripes.length)
+                {
+                    for (int l_slot = l_bucket * S_BUCKET_SIZE; l_slot < (l_bucket + 1) * S_BUCKET_SIZE; ++l_slot)
+                    { f_ages[l_slot] = 0; }
+                }
+            }
+        }
+        
+        f_num_hits.reset();
+        f_num_misses.reset();
+    }
+    
+    /*
+     * This method packs the given evaluation and move into an entry.
+    */
+    public static long Pack(float a_value, int a_move)
+    {
+        // Adding zero turns -0.0 into 0.0, such that an entry can't equal S_MISS.
+        return ((long)Float.floatToIntBits(a_value + 0.0f) << 32) | (a_move & 0xFFFFFFFFL);
+    }
+    
+    /*
+     * This method returns the evaluation of the given entry.
+    */
+    public static float GetValue(long a_entry)
+    {
+        return Float.intBitsToFloat((int)(a_entry >>> 32));
+    }
+    
+    /*
+     * This method returns the move of the given entry.
+    */
+    public static int GetMove(long a_entry)
+    {
+        return (int)a_entry;
+    }
+    
+    
+// (c)(i). Accessors (3) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_num_hits
+    */
+    public long GetNumHits()
+    {
+        return f_num_hits.sum();
+    }
+    
+    /* Accessor of f_num_misses
+    */
+    public long GetNumMisses()
+    {
+        return f_num_misses.sum();
+    }
+    
+    /* Accessor of f_keys
+     * This method returns the number of entries that the table can hold.
+    */
+    public int GetCapacity()
+    {
+        return f_keys.length;
+    }
+    
+    
+    
+// (d). Auxiliaries (1) ================================================================================================
+    
+    /* Auxiliary of Get and Put
+     * This method returns the index of the bucket of the given key.
+    */
+    private int Bucket(long a_key)
+    {
+        // The keys are hashes, but their high bits are mixed in such that keys that differ only in them are spread.
+        return (int)(a_key ^ (a_key >>> 32)) & f_bucket_mask;
+    }
+    
+    
+}
@@ -0,0 +1,76 @@
+package TetrisPackage;
+
+
+import java.util.SplittableRandom;
+
+
+/*
+ * An object of this class is a randomizer that chooses each type of tetromino with equal probability, independently of
+   the previous tetrominos (see PieceRandomizer). Any number of the same type may therefore spawn consecutively.
+
+ * Composition:
+     (a). Fields (3)
+         (i). Static Fields (2)
+     (b). Constructors (1)
+     (c). Public Methods (3)
+*/
+public class UniformRandomizer
+    implements PieceRandomizer
+{
+    
+// (a). Fields (3) =====================================================================================================
+    
+    // The generator from which the types are drawn.
+    private SplittableRandom f_random;
+    
+    
+// (a)(i). Static Fields (2) -------------------------------------------------------------------------------------------
+    
+    // The tetromino types, indexed by ordinal.
+    private static final Tetromino.Type s_types[] = Tetromino.Type.values();
+    
+    // The seed that's used until Reset(...) is called.
+    private static final long s_seed_default = 0;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * Creates a randomizer with a default seed: i.e. Reset(...) should be called before the first tetromino is drawn.
+    */
+    public UniformRandomizer()
+    {
+        Reset(s_seed_default);
+    }
+    
+    
+    
+// (c). Public Methods (3) =============================================================================================
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public void Reset(long a_seed)
+    {
+        f_random = new SplittableRandom(a_seed);
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Tetromino.Type Next()
+    {
+        return s_types[f_random.nextInt(s_types.length)];
+    }
+    
+    /* Implementation of PieceRandomizer
+    */
+    @Override
+    public Kind GetKind()
+    {
+        return Kind.Uniform;
+    }
+    
+    
+}
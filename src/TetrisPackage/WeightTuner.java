@@ -0,0 +1,730 @@
+package TetrisPackage;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/*
+ * An object of this class tunes the weights of a HeuristicPolicy (or a LookaheadPolicy) by the cross-entropy method:
+   each generation, a population of weight vectors is sampled from a normal distribution (per weight), each of them
+   plays the same seeded games, and the distribution is refitted to the best ('elite') fraction of them.
+ * The fitness of a weight vector is its mean score per game. Each game is stopped after the maximum number of
+   tetrominos, which caps the number of lines that can be cleared (at 0.4 lines per tetromino): so once the candidates
+   are strong enough to reach the cap, their lines cleared barely differ, whereas their scores still do, as a score
+   rewards clearing several lines at once (and clearing lines sooner, as the level rises). The number of each
+   candidate's games that reached the cap is reported, as a sign that the cap should be raised.
+ * The weight vectors are normalised to unit length, as scaling them doesn't change any of a policy's choices. Noise,
+   which decays over the first s_num_noisy_generations generations, is added to the fitted deviations such that the
+   distribution doesn't collapse before it's found a good region.
+ * Every game of a generation (i.e. every candidate and seed) is a task on a work-stealing ForkJoinPool, so all of the
+   processors are kept busy even though games vary greatly in length. Each thread reuses its own game and (for a
+   LookaheadPolicy) transposition table: see Worker.
+ * The state of the search is written to a checkpoint file after each generation (via a temporary file that replaces
+   it by an atomic rename, as with Leaderboard), and a tuner resumes from its checkpoint if it exists. As each
+   generation's samples and seeds are derived from the tuner's seed and the generation's index, a resumed search is
+   identical to one that wasn't interrupted.
+ * The tuned weights are the elite's mean weights, each of which is reported with a 95% confidence interval (of the
+   mean). They're reported along with the best candidate found by any generation, and the fitness of each is measured
+   on a fixed set of held-out seeds (also with a 95% confidence interval).
+ * A search can be run from the command line: "java TetrisPackage.WeightTuner [--checkpoint file] [--generations n]
+   [--population n] [--games n] [--elite fraction] [--max-tetrominos m] [--seed s] [--threads t] [--lookahead]".
+
+ * Composition:
+     (a). Fields (26)
+         (i). Static Fields (7)
+     (b). Constructors (1)
+     (c). Public Methods (6)
+         (i). Accessors (3)
+     (d). Auxiliaries (15)
+     (e). Nested Classes (2)
+         (i). Static Nested Classes (1)
+         (ii). Inner Classes (1)
+*/
+public class WeightTuner
+{
+    
+// (a). Fields (26) ====================================================================================================
+    
+    // The checkpoint file, and the file to which it's written before replacing it.
+    private final Path f_path;
+    private final Path f_path_temp;
+    
+    // The number of candidates per generation, and the number of them that are elite.
+    private final int f_num_candidates;
+    private final int f_num_elite;
+    
+    // The number of games played by each candidate, and the number of tetrominos after which a game is stopped.
+    private final int f_num_games;
+    private final int f_max_tetrominos;
+    
+    // The seed from which each generation's samples and games are derived.
+    private final long f_seed;
+    
+    // A flag that, when true, indicates that the weights are those of a LookaheadPolicy (see Worker).
+    private final boolean f_is_lookahead;
+    
+    // The pool on which the games are played, and each of its threads' worker.
+    private final ForkJoinPool f_pool;
+    private final ThreadLocal<Worker> f_workers;
+    
+    /* The State
+     * The number of generations completed, and the mean and deviation of the distribution of each weight (indexed by
+       HeuristicPolicy.Feature.ordinal()); these are saved to the checkpoint.
+    */
+    private int f_generation;
+    private double f_mean[];
+    private double f_deviation[];
+    
+    // The half-width of the 95% confidence interval of each of f_mean's weights (from the latest elite).
+    private double f_mean_interval[];
+    
+    // The best candidate found thus far and its fitness; these are saved to the checkpoint.
+    private double f_best[];
+    private double f_fitness_best;
+    
+    /* The Generation
+     * The weights of each candidate of the generation that's being evaluated, the seed of each of its games, and the
+       result of each game (i.e. f_results[candidate][game]).
+    */
+    private double f_candidates[][];
+    private long f_seeds[];
+    private BatchRunner.GameResult f_results[][];
+    
+    
+// (a)(i). Static Fields (7) -------------------------------------------------------------------------------------------
+    
+    // The version of the checkpoint's format (version 1 measured fitness in lines, rather than score).
+    private static final int s_version = 2;
+    
+    // The initial deviation of each weight.
+    private static final double s_deviation_initial = 0.3;
+    
+    // The noise that's added to each deviation in the first generation, and the generation by which it's decayed to 0.
+    private static final double s_noise_initial = 0.1;
+    private static final int s_num_noisy_generations = 25;
+    
+    // The z-value of a 95% confidence interval.
+    private static final double s_z_95 = 1.96;
+    
+    // The seed from which the held-out seeds are derived (see Evaluate(...)).
+    private static final long s_seed_held_out = 0x4E1D0L;
+    
+    // The number of games on which the final weights are evaluated by main(...).
+    private static final int s_num_games_held_out = 100;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     * If the given checkpoint exists, the search resumes from it: the checkpoint must have been created with the same
+       settings.
+       
+     * Parameters:
+         > a_path: the checkpoint file.
+         > a_num_candidates: the number of candidates per generation.
+         > a_elite_fraction: the fraction of the candidates that are elite (at least two and at most all of them).
+         > a_num_games: the number of games played by each candidate.
+         > a_max_tetrominos: the number of tetrominos after which a game is stopped.
+         > a_seed: the seed from which each generation's samples and games are derived.
+         > a_is_lookahead: a flag that, when true, indicates that the weights are those of a LookaheadPolicy rather
+                           than a HeuristicPolicy.
+         > a_num_threads: the number of threads that play the games.
+    */
+    public WeightTuner(Path a_path, int a_num_candidates, double a_elite_fraction, int a_num_games,
+                       int a_max_tetrominos, long a_seed, boolean a_is_lookahead, int a_num_threads) throws IOException
+    {
+        if (a_num_candidates < 2 || a_num_games < 1 || a_max_tetrominos < 1)
+        { throw new IllegalArgumentException("There must be at least two candidates, and a game and tetromino each."); }
+        
+        f_path = a_path;
+        f_path_temp = f_path.resolveSibling(f_path.getFileName() + ".tmp");
+        f_num_candidates = a_num_candidates;
+        f_num_elite = Math.max(2, Math.min(a_num_candidates, (int)Math.round(a_num_candidates * a_elite_fraction)));
+        f_num_games = a_num_games;
+        f_max_tetrominos = a_max_tetrominos;
+        f_seed = a_seed;
+        f_is_lookahead = a_is_lookahead;
+        
+        f_pool = new ForkJoinPool(a_num_threads);
+        f_workers = ThreadLocal.withInitial(() -> new Worker(f_is_lookahead));
+        
+        f_generation = 0;
+        f_mean = Normalise(HeuristicPolicy.GetWeightsDefault());
+        f_deviation = new double[HeuristicPolicy.S_NUM_FEATURES];
+        Arrays.fill(f_deviation, s_deviation_initial);
+        f_mean_interval = new double[HeuristicPolicy.S_NUM_FEATURES];
+        f_best = f_mean.clone();
+        f_fitness_best = Double.NEGATIVE_INFINITY;
+        
+        f_candidates = new double[f_num_candidates][];
+        f_seeds = new long[f_num_games];
+        f_results = new BatchRunner.GameResult[f_num_candidates][f_num_games];
+        
+        Load();
+    }
+    
+    
+    
+// (c). Public Methods (6) =============================================================================================
+    
+    /*
+     * This method runs generations until the given number of them have been completed (including those completed
+       before the search was resumed), saving the checkpoint and reporting the progress after each one.
+       
+     * Parameters:
+         > a_num_generations: the total number of generations.
+    */
+    public void Run(int a_num_generations) throws IOException
+    {
+        while (f_generation < a_num_generations)
+        {
+            long l_time_start = System.nanoTime();
+            
+            SplittableRandom l_random = new SplittableRandom(f_seed + 0x9E3779B97F4A7C15L * (f_generation + 1));
+            
+            for (int i = 0; i < f_num_candidates; ++i)
+            { f_candidates[i] = Sample(l_random); }
+            
+            for (int i = 0; i < f_num_games; ++i)
+            { f_seeds[i] = l_random.nextLong(); }
+            
+            f_pool.invoke(new GameTask(0, f_num_candidates * f_num_games));
+            
+            double l_fitness_elite = Refit();
+            
+            ++f_generation;
+            
+            Save();
+            
+            System.out.printf("Generation %d (%.1fs): elite mean score %.0f, best-ever score %.0f%n", f_generation,
+                              (System.nanoTime() - l_time_start) / 1e9, l_fitness_elite, f_fitness_best);
+            System.out.println("    elite mean weights: " + Display(f_mean) + " +/- " + Display(f_mean_interval));
+            System.out.println("    best-ever weights:  " + Display(f_best));
+            System.out.println("    candidates (mean score, capped games of " + f_num_games + "): " +
+                               DisplayCandidates());
+        }
+    }
+    
+    /*
+     * This method plays the given weights on the given number of held-out seeds (which are the same for every call,
+       and disjoint from those of the generations in all likelihood).
+       
+     * Parameters:
+         > a_weights: the weights to evaluate.
+         > a_num_games: the number of games to play.
+         
+     * Return Value:
+         > The result of each game.
+    */
+    public BatchRunner.GameResult[] Evaluate(double a_weights[], int a_num_games)
+    {
+        SplittableRandom l_random = new SplittableRandom(s_seed_held_out);
+        
+        f_candidates = new double[][] { a_weights };
+        f_seeds = new long[a_num_games];
+        f_results = new BatchRunner.GameResult[1][a_num_games];
+        
+        for (int i = 0; i < a_num_games; ++i)
+        { f_seeds[i] = l_random.nextLong(); }
+        
+        f_pool.invoke(new GameTask(0, a_num_games));
+        
+        BatchRunner.GameResult l_results[] = f_results[0];
+        
+        f_candidates = new double[f_num_candidates][];
+        f_seeds = new long[f_num_games];
+        f_results = new BatchRunner.GameResult[f_num_candidates][f_num_games];
+        
+        return l_results;
+    }
+    
+    /*
+     * This method runs (or resumes) a search (see the class description for the arguments), and then reports the
+       tuned and best-ever weights, and their fitness (and that of the default weights) on the held-out seeds.
+    */
+    public static void main(String[] a_args) throws IOException
+    {
+        String l_path = "weights.checkpoint";
+        int l_num_generations = 50;
+        int l_num_candidates = 50;
+        double l_elite_fraction = 0.2;
+        int l_num_games = 20;
+        int l_max_tetrominos = 2000;
+        long l_seed = 1;
+        int l_num_threads = Runtime.getRuntime().availableProcessors();
+        boolean l_is_lookahead = false;
+        
+        for (int i = 0; i < a_args.length; ++i)
+        {
+            if (a_args[i].equals("--lookahead"))
+            {
+                l_is_lookahead = true;
+                continue;
+            }
+            
+            if (i + 1 == a_args.length)
+            { throw new IllegalArgumentException("Missing value of argument: " + a_args[i]); }
+            
+            String l_value = a_args[++i];
+            
+            switch (a_args[i - 1])
+            {
+                case "--checkpoint":
+                    l_path = l_value;
+                    break;
+                case "--generations":
+                    l_num_generations = Integer.parseInt(l_value);
+                    break;
+                case "--population":
+                    l_num_candidates = Integer.parseInt(l_value);
+                    break;
+                case "--elite":
+                    l_elite_fraction = Double.parseDouble(l_value);
+                    break;
+                case "--games":
+                    l_num_games = Integer.parseInt(l_value);
+                    break;
+                case "--max-tetrominos":
+                    l_max_tetrominos = Integer.parseInt(l_value);
+                    break;
+                case "--seed":
+                    l_seed = Long.parseLong(l_value);
+                    break;
+                case "--threads":
+                    l_num_threads = Integer.parseInt(l_value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + a_args[i - 1]);
+            }
+        }
+        
+        WeightTuner l_tuner = new WeightTuner(Paths.get(l_path), l_num_candidates, l_elite_fraction, l_num_games,
+                                              l_max_tetrominos, l_seed, l_is_lookahead, l_num_threads);
+                                              
+        l_tuner.Run(l_num_generations);
+        
+        System.out.println("Weights (" + Arrays.toString(HeuristicPolicy.Feature.values()) + "):");
+        System.out.println("    Tuned (elite mean): " + Format(l_tuner.GetMean()));
+        System.out.println("    95% confidence intervals: +/- " + Format(l_tuner.f_mean_interval));
+        System.out.printf("    Best-ever (mean score %.0f in its generation): %s%n", l_tuner.f_fitness_best,
+                          Format(l_tuner.GetBest()));
+                          
+        // Compare the tuned, best-ever, and default weights on the held-out seeds.
+        String l_names[] = { "Tuned", "Best-ever", "Default" };
+        double l_weights[][] = { l_tuner.GetMean(), l_tuner.GetBest(), Normalise(HeuristicPolicy.GetWeightsDefault()) };
+        
+        for (int i = 0; i < l_names.length; ++i)
+        {
+            BatchRunner.GameResult l_results[] = l_tuner.Evaluate(l_weights[i], s_num_games_held_out);
+            
+            double l_scores[] = Arrays.stream(l_results).mapToDouble(BatchRunner.GameResult::GetScore).toArray();
+            double l_lines[] = Arrays.stream(l_results).mapToDouble(BatchRunner.GameResult::GetNumLinesCleared)
+                                     .toArray();
+                                     
+            System.out.printf("%s weights: score %.0f +/- %.0f (95%% confidence), %.1f lines, %d of %d games capped " +
+                              "(held-out)%n", l_names[i], Mean(l_scores),
+                              s_z_95 * Deviation(l_scores) / Math.sqrt(l_scores.length), Mean(l_lines),
+                              CountCapped(l_results), l_results.length);
+        }
+        
+        l_tuner.f_pool.shutdown();
+    }
+    
+    
+// (c)(i). Accessors (3) -----------------------------------------------------------------------------------------------
+    
+    /* Accessor of f_mean
+     * This method returns a copy of the mean weights: i.e. the tuned weights.
+    */
+    public double[] GetMean()
+    {
+        return f_mean.clone();
+    }
+    
+    /* Accessor of f_best
+     * This method returns a copy of the best candidate found by any generation (which, as it's been measured on only
+       its generation's games, is a noisier estimate of the optimal weights than GetMean()).
+    */
+    public double[] GetBest()
+    {
+        return f_best.clone();
+    }
+    
+    /* Accessor of f_generation
+    */
+    public int GetGeneration()
+    {
+        return f_generation;
+    }
+    
+    
+    
+// (d). Auxiliaries (15) ===============================================================================================
+    
+    /* Auxiliary of Run(...)
+     * This method returns a (normalised) sample of the current distribution.
+    */
+    private double[] Sample(SplittableRandom a_random)
+    {
+        double l_weights[] = new double[f_mean.length];
+        
+        for (int i = 0; i < l_weights.length; ++i)
+        {
+            // Draw from a normal distribution via the Box-Muller transform.
+            double l_normal = Math.sqrt(-2 * Math.log(1 - a_random.nextDouble())) *
+                              Math.cos(2 * Math.PI * a_random.nextDouble());
+                              
+            l_weights[i] = f_mean[i] + f_deviation[i] * l_normal;
+        }
+        
+        return Normalise(l_weights);
+    }
+    
+    /* Auxiliary of Run(...)
+     * This method refits the distribution to the elite of the generation that's just been evaluated, and updates the
+       best candidate.
+       
+     * Return Value:
+         > The mean fitness of the elite.
+    */
+    private double Refit()
+    {
+        Integer l_order[] = Rank();
+        
+        double l_fitness_elite = 0;
+        for (int e = 0; e < f_num_elite; ++e)
+        { l_fitness_elite += Fitness(l_order[e]) / f_num_elite; }
+        
+        if (Fitness(l_order[0]) > f_fitness_best)
+        {
+            f_fitness_best = Fitness(l_order[0]);
+            f_best = f_candidates[l_order[0]].clone();
+        }
+        
+        double l_noise = s_noise_initial * Math.max(0, 1 - (double)f_generation / s_num_noisy_generations);
+        
+        for (int w = 0; w < f_mean.length; ++w)
+        {
+            double l_values[] = new double[f_num_elite];
+            
+            for (int e = 0; e < f_num_elite; ++e)
+            { l_values[e] = f_candidates[l_order[e]][w]; }
+            
+            f_mean[w] = Mean(l_values);
+            f_deviation[w] = Deviation(l_values) + l_noise;
+            f_mean_interval[w] = s_z_95 * Deviation(l_values) / Math.sqrt(f_num_elite);
+        }
+        
+        return l_fitness_elite;
+    }
+    
+    /* Auxiliary of Refit() and DisplayCandidates()
+     * This method returns the indexes of the current generation's candidates in descending order of fitness (ties are
+       broken by the order in which they were sampled).
+    */
+    private Integer[] Rank()
+    {
+        Integer l_order[] = new Integer[f_num_candidates];
+        double l_fitnesses[] = new double[f_num_candidates];
+        
+        for (int i = 0; i < f_num_candidates; ++i)
+        {
+            l_order[i] = i;
+            l_fitnesses[i] = Fitness(i);
+        }
+        
+        Arrays.sort(l_order, (a, b) -> Double.compare(l_fitnesses[b], l_fitnesses[a]));
+        
+        return l_order;
+    }
+    
+    /* Auxiliary of Refit() and Rank()
+     * This method returns the fitness of the given candidate of the current generation: i.e. its mean score.
+    */
+    private double Fitness(int a_candidate)
+    {
+        return Arrays.stream(f_results[a_candidate]).mapToLong(BatchRunner.GameResult::GetScore).average().orElse(0);
+    }
+    
+    /* Auxiliary of Run(...)
+     * This method writes the state to the checkpoint: the state is written to a temporary file, which is flushed to
+       the disk and then renamed to replace the checkpoint.
+    */
+    private void Save() throws IOException
+    {
+        Properties l_state = new Properties();
+        
+        l_state.setProperty("version", Integer.toString(s_version));
+        l_state.setProperty("settings", Settings());
+        l_state.setProperty("generation", Integer.toString(f_generation));
+        l_state.setProperty("mean", Format(f_mean));
+        l_state.setProperty("deviation", Format(f_deviation));
+        l_state.setProperty("interval", Format(f_mean_interval));
+        l_state.setProperty("best", Format(f_best));
+        l_state.setProperty("fitness_best", Double.toString(f_fitness_best));
+        
+        StringWriter l_contents = new StringWriter();
+        l_state.store(l_contents, "WeightTuner checkpoint");
+        
+        try (FileChannel l_channel = FileChannel.open(f_path_temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                      StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            l_channel.write(StandardCharsets.UTF_8.encode(l_contents.toString()));
+            l_channel.force(true);
+        }
+        
+        try
+        { Files.move(f_path_temp, f_path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING); }
+        catch (AtomicMoveNotSupportedException e)
+        { Files.move(f_path_temp, f_path, StandardCopyOption.REPLACE_EXISTING); }
+    }
+    
+    /* Auxiliary of the constructor
+     * This method reads the state from the checkpoint (if it exists).
+    */
+    private void Load() throws IOException
+    {
+        Properties l_state = new Properties();
+        
+        try (Reader l_reader = Files.newBufferedReader(f_path, StandardCharsets.UTF_8))
+        { l_state.load(l_reader); }
+        catch (NoSuchFileException e)
+        { return; }
+        
+        if (!Integer.toString(s_version).equals(l_state.getProperty("version")))
+        { throw new IOException("The checkpoint's version isn't supported: " + f_path); }
+        
+        if (!Settings().equals(l_state.getProperty("settings")))
+        { throw new IllegalStateException("The checkpoint was created with different settings: " + f_path); }
+        
+        f_generation = Integer.parseInt(l_state.getProperty("generation"));
+        f_mean = Parse(l_state.getProperty("mean"));
+        f_deviation = Parse(l_state.getProperty("deviation"));
+        f_mean_interval = Parse(l_state.getProperty("interval"));
+        f_best = Parse(l_state.getProperty("best"));
+        f_fitness_best = Double.parseDouble(l_state.getProperty("fitness_best"));
+        
+        System.out.println("Resuming from generation " + f_generation + " of " + f_path + '.');
+    }
+    
+    /* Auxiliary of Save() and Load()
+     * This method returns a description of the settings that determine the course of the search.
+    */
+    private String Settings()
+    {
+        return f_num_candidates + "," + f_num_elite + "," + f_num_games + "," + f_max_tetrominos + "," + f_seed + "," +
+               (f_is_lookahead ? "lookahead" : "heuristic");
+    }
+    
+    /* Auxiliary of Run(...)
+     * This method returns the fitness of each of the current generation's candidates, and the number of its games that
+       reached the cap, in descending order of fitness.
+    */
+    private String DisplayCandidates()
+    {
+        StringBuilder l_text = new StringBuilder();
+        
+        for (int l_candidate : Rank())
+        {
+            l_text.append(l_text.length() == 0 ? "" : ", ");
+            l_text.append(String.format("%.0f (%d)", Fitness(l_candidate), CountCapped(f_results[l_candidate])));
+        }
+        
+        return l_text.toString();
+    }
+    
+    /* Auxiliary of DisplayCandidates() and main(...)
+     * This method returns the number of the given games that were stopped by the cap (rather than being lost).
+    */
+    private static int CountCapped(BatchRunner.GameResult a_results[])
+    {
+        return (int)Arrays.stream(a_results).filter(r -> !r.IsGameOver()).count();
+    }
+    
+    /* Auxiliary of Run(...), Save(), and main(...)
+     * These methods return the given values as a comma-separated list: either exactly (such that they can be parsed
+       by Parse(...)), or rounded for display.
+    */
+    private static String Format(double a_values[])
+    {
+        StringBuilder l_text = new StringBuilder();
+        
+        for (int i = 0; i < a_values.length; ++i)
+        { l_text.append(i == 0 ? "" : ",").append(a_values[i]); }
+        
+        return l_text.toString();
+    }
+    
+    private static String Display(double a_values[])
+    {
+        StringBuilder l_text = new StringBuilder();
+        
+        for (int i = 0; i < a_values.length; ++i)
+        { l_text.append(i == 0 ? "" : ", ").append(String.format("%.4f", a_values[i])); }
+        
+        return l_text.toString();
+    }
+    
+    /* Auxiliary of Load()
+     * This method parses a comma-separated list of values (see Format(...)).
+    */
+    private static double[] Parse(String a_text)
+    {
+        return Arrays.stream(a_text.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+    
+    /* Auxiliary of the constructor, Sample(...), and main(...)
+     * This method scales the given weights to unit length (in place), and returns them.
+    */
+    private static double[] Normalise(double a_weights[])
+    {
+        double l_length = Math.sqrt(Arrays.stream(a_weights).map(w -> w * w).sum());
+        
+        for (int i = 0; i < a_weights.length && l_length != 0; ++i)
+        { a_weights[i] /= l_length; }
+        
+        return a_weights;
+    }
+    
+    /* Auxiliary of Refit() and main(...)
+     * These methods return the mean and the (sample) standard deviation of the given values.
+    */
+    private static double Mean(double a_values[])
+    {
+        return Arrays.stream(a_values).average().orElse(0);
+    }
+    
+    private static double Deviation(double a_values[])
+    {
+        if (a_values.length < 2)
+        { return 0; }
+        
+        double l_mean = Mean(a_values);
+        
+        return Math.sqrt(Arrays.stream(a_values).map(v -> (v - l_mean) * (v - l_mean)).sum() / (a_values.length - 1));
+    }
+    
+    
+    
+// (e). Nested Classes (2) =============================================================================================
+    
+    
+// (e)(i). Static Nested Classes (1) -----------------------------------------------------------------------------------
+    
+    /*
+     * An object of this class holds a thread's means of playing games: its game, its buffer of commands, and (if the
+       policies are LookaheadPolicies) its transposition table. As a table's entries are only valid for the weights
+       by which they were computed, the table is cleared whenever the thread's candidate changes; it's otherwise kept
+       across games, as the consecutive games of a thread are mostly those of the same candidate (see GameTask).
+    */
+    private static final class Worker
+    {
+        
+        private final TetrisGame f_game = new TetrisGame(GameClock.S_STEP_NANOS_DEFAULT);
+        
+        private final InputQueue.Command f_commands[] = new InputQueue.Command[MovePolicy.S_MAX_NUM_COMMANDS];
+        
+        // The transposition table, or null if the policies are HeuristicPolicies.
+        private final TranspositionTable f_table;
+        
+        // The weights for which the table's entries were computed (or null if none have been).
+        private double f_weights[];
+        
+        /* Constructor
+        */
+        public Worker(boolean a_is_lookahead)
+        {
+            f_table = a_is_lookahead ? new TranspositionTable(TranspositionTable.S_CAPACITY_DEFAULT) : null;
+        }
+        
+        /*
+         * This method plays a game with a policy of the given weights (see BatchRunner.Play(...)).
+        */
+        public BatchRunner.GameResult Play(double a_weights[], long a_seed, int a_max_tetrominos)
+        {
+            MovePolicy l_policy;
+            
+            if (f_table == null)
+            { l_policy = new HeuristicPolicy(a_weights, null); }
+            else
+            {
+                if (!Arrays.equals(a_weights, f_weights))
+                {
+                    f_table.Clear();
+                    f_weights = a_weights.clone();
+                }
+                
+                l_policy = new LookaheadPolicy(a_weights, f_table);
+            }
+            
+            return BatchRunner.Play(f_game, l_policy, a_seed, a_max_tetrominos, f_commands);
+        }
+        
+    }
+    
+    
+// (e)(ii). Inner Classes (1) ------------------------------------------------------------------------------------------
+    
+    /*
+     * An object of this class plays a range of the current generation's games (where game 'i' is the game of seed
+       f_seeds[i % f_seeds.length] played by candidate f_candidates[i / f_seeds.length]), by splitting the range in
+       half until it's a single game.
+    */
+    private final class GameTask
+        extends RecursiveAction
+    {
+        
+        // The range of games: from f_first (inclusive) to f_last (exclusive).
+        private final int f_first;
+        private final int f_last;
+        
+        private static final long serialVersionUID = 1L;
+        
+        /* Constructor
+        */
+        public GameTask(int a_first, int a_last)
+        {
+            f_first = a_first;
+            f_last = a_last;
+        }
+        
+        /* Implementation of RecursiveAction
+        */
+        @Override
+        protected void compute()
+        {
+            if (f_last - f_first > 1)
+            {
+                int l_middle = (f_first + f_last) >>> 1;
+                invokeAll(new GameTask(f_first, l_middle), new GameTask(l_middle, f_last));
+                return;
+            }
+            
+            int l_candidate = f_first / f_seeds.length;
+            int l_game = f_first % f_seeds.length;
+            
+            f_results[l_candidate][l_game] = f_workers.get().Play(f_candidates[l_candidate], f_seeds[l_game],
+                                                                   f_max_tetrominos);
+        }
+        
+    }
+    
+    
+}
@@ -0,0 +1,186 @@
+package Utils;
+
+
+import java.util.Arrays;
+
+
+/*
+ * A set of ints that's stored in a single (primitive) array: i.e. no objects are created when a value is added or
+   looked up, unlike a HashSet<Integer> (which boxes each value and allocates an entry for it).
+ * The set uses open addressing with linear probing: a value is stored in the first free slot at or after the slot to
+   which it hashes. The number of slots is a power of two, and is doubled whenever the set becomes half full, such
+   that probe sequences remain short.
+ * The value S_FREE marks a free slot; as it can't therefore be stored in a slot, whether or not it's in the set is
+   recorded separately.
+ * Values can't be removed individually, but the entire set can be cleared, which makes the set suitable as the
+   'visited' set of a search that's repeated many times.
+
+ * Composition:
+     (a). Fields (4)
+         (i). Static Fields (1)
+     (b). Constructors (1)
+     (c). Public Methods (4)
+     (d). Auxiliaries (2)
+*/
+public class IntHashSet
+{
+    
+// (a). Fields (4) =====================================================================================================
+    
+    // The slots in which the values are stored (S_FREE if a slot is free); its length is a power of two.
+    private int f_slots[];
+    
+    // The number of values in the set (including S_FREE, if it's in the set).
+    private int f_size;
+    
+    // A flag that, when true, indicates that S_FREE is in the set.
+    private boolean f_contains_free;
+    
+    
+// (a)(i). Static Fields (1) -------------------------------------------------------------------------------------------
+    
+    // The value that marks a free slot.
+    private static final int S_FREE = Integer.MIN_VALUE;
+    
+    
+    
+// (b). Constructors (1) ===============================================================================================
+    
+    /* Constructor
+     
+     * Parameters:
+         > a_capacity: the number of values that the set can hold before it needs to grow.
+    */
+    public IntHashSet(int a_capacity)
+    {
+        f_slots = new int[Integer.highestOneBit(Math.max(1, a_capacity) * 2 - 1) * 2];
+        
+        Clear();
+    }
+    
+    
+    
+// (c). Public Methods (4) =============================================================================================
+    
+    /*
+     * This method adds the given value to the set (if it's not already in the set).
+     
+     * Parameters:
+         > a_value: the value to add.
+         
+     * Return Value:
+         > True if the value was added; false if it was already in the set.
+    */
+    public boolean Add(int a_value)
+    {
+        if (a_value == S_FREE)
+        {
+            if (f_contains_free)
+            { return false; }
+            
+            f_contains_free = true;
+            ++f_size;
+            return true;
+        }
+        
+        int l_mask = f_slots.length - 1;
+        
+        for (int l_slot = Hash(a_value) & l_mask; ; l_slot = (l_slot + 1) & l_mask)
+        {
+            if (f_slots[l_slot] == a_value)
+            { return false; }
+            
+            if (f_slots[l_slot] == S_FREE)
+            {
+                f_slots[l_slot] = a_value;
+                
+                if (++f_size * 2 > f_slots.length)
+                { Grow(); }
+                
+                return true;
+            }
+        }
+    }
+    
+    /*
+     * This method returns true if the given value is in the set; false if otherwise.
+    */
+    public boolean Contains(int a_value)
+    {
+        if (a_value == S_FREE)
+        { return f_contains_free; }
+        
+        int l_mask = f_slots.length - 1;
+        
+        for (int l_slot = Hash(a_value) & l_mask; ; l_slot = (l_slot + 1) & l_mask)
+        {
+            if (f_slots[l_slot] == a_value)
+            { return true; }
+            
+            if (f_slots[l_slot] == S_FREE)
+            { return false; }
+        }
+    }
+    
+    /*
+     * This method removes every value from the set (without shrinking it).
+    */
+    public void Clear()
+    {
+        Arrays.fill(f_slots, S_FREE);
+        
+        f_size = 0;
+        f_contains_free = false;
+    }
+    
+    /*
+     * This method returns the number of values in the set.
+    */
+    public int Size()
+    {
+        return f_size;
+    }
+    
+    
+    
+// (d). Auxiliaries (2) ================================================================================================
+    
+    /* Auxiliary of Add, Contains, and Grow
+     * This method scrambles the bits of the given value, such that values which differ only in their high bits (e.g.
+       packed coordinates) are spread across the slots.
+    */
+    private static int Hash(int a_value)
+    {
+        int l_hash = a_value * 0x9E3779B9;
+        
+        return l_hash ^ (l_hash >>> 16);
+    }
+    
+    /* Auxiliary of Add
+     * This method doubles the number of slots, and re-inserts each value.
+    */
+    private void Grow()
+    {
+        int l_slots_old[] = f_slots;
+        
+        f_slots = new int[l_slots_old.length * 2];
+        Arrays.fill(f_slots, S_FREE);
+        
+        int l_mask = f_slots.length - 1;
+        
+        for (int l_value : l_slots_old)
+        {
+            if (l_value == S_FREE)
+            { continue; }
+            
+            int l_slot = Hash(l_value) & l_mask;
+            
+            while (f_slots[l_slot] != S_FREE)
+            { l_slot = (l_slot + 1) & l_mask; }
+            
+            f_slots[l_slot] = l_value;
+        }
+    }
+    
+    
+}
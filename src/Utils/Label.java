@@ -8,19 +8,26 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.util.HashMap;
 
 
 /*
  * An instance of this class is a graphical rectangle that can be drawn onto the screen with text displayed across it.
+ * The text is drawn at the largest font size at which it fits within the label. Finding this size requires measuring
+   the text at several sizes, so the 'fitted' font (and the text's position) is stored and only recalculated when the
+   label's size or text changes. The fitted fonts are also shared between labels via a cache that's keyed on the space
+   available for the text, the font family, and the length of the text: e.g. a label whose value changes from 99 to
+   100 measures the text once, whilst one that changes from 100 to 101 reuses the fitted font of the previous value.
 
  * Composition:
      (a). Enums (1)
-     (b). Fields (6)
-         (i). Static Fields (4)
+     (b). Fields (14)
+         (i). Static Fields (6)
      (c). Constructors (2)
      (d). Public Methods (4)
          (i). Accessors (1)
          (ii). Mutators (1)
+     (e). Auxiliaries (1)
 */
 public class Label
     extends Canvas 
@@ -34,7 +41,7 @@ public class Label
     
     
     
-// (b). Fields (6) =====================================================================================================
+// (b). Fields (14) ====================================================================================================
     
     /*
      * The text that's displayed upon the canvas. 
@@ -46,8 +53,23 @@ public class Label
     */
     private Alignment f_align;
     
+    /*
+     * The font at which f_text is drawn, and the coordinate of the text (its baseline).
+     * f_font is null if the text can't fit within the label at any size.
+    */
+    private Font f_font;
+    private int f_x_text;
+    private int f_y_text;
+    
+    /*
+     * The size of the label and the text for which f_font was fitted; if either changes, the font must be refitted.
+    */
+    private int f_width_fitted;
+    private int f_height_fitted;
+    private String f_text_fitted;
     
-// (b)(i). Static Fields (4) -------------------------------------------------------------------------------------------
+    
+// (b)(i). Static Fields (6) -------------------------------------------------------------------------------------------
     
     // The size of the padding above and below the text/value.
     /*
@@ -66,6 +88,18 @@ public class Label
     // The default foreground/text colour.
     private static final Color s_colour_text_default = Color.WHITE;
     
+    // The family of the font at which the text is drawn.
+    private static final String s_font_family = "Arial";
+    
+    /* Fitted Font Cache
+     * The largest font that fits each combination of the space available for the text (width and height), font family,
+       and text length.
+     * As characters differ in width, a font that fits one string may not fit another of the same length; when this
+       occurs the font is refitted and the (smaller) result replaces the cached font.
+     * The cache is only accessed when painting, which occurs on the event dispatch thread.
+    */
+    private static final HashMap<String, Font> s_fonts_fitted = new HashMap<String, Font>();
+    
     private static final long serialVersionUID = 1L;
     
     
@@ -145,22 +179,96 @@ public class Label
         g.setColor(getBackground());
         g.fillRect(0, 0, getWidth(), getHeight());
         
+        Dimension l_size = super.getPreferredSize();
+        
+        // Refit the font if the label's size or text has changed since it was last fitted.
+        if (l_size.width != f_width_fitted || l_size.height != f_height_fitted || !f_text.equals(f_text_fitted))
+        {
+            Fit(g, l_size.width, l_size.height);
+        }
+        
+        // Check if the text doesn't fit at any size.
+        if (f_font == null)
+        { return; }
+        
+        // Set the font and colour for f_text.
+        g.setFont(f_font);
+        g.setColor(getForeground());
+        
+        // Draw f_text.
+        g.drawString(f_text, f_x_text, f_y_text);
+    }
+    
+    
+// (d)(i). Accessors (1) -----------------------------------------------------------------------------------------------
+    
+    /* Accesor of f_text
+    */
+    public String GetText()
+    {
+        return f_text;
+    }
+    
+    
+// (d)(ii). Mutators (1) -----------------------------------------------------------------------------------------------
+    
+    /* Mutator of f_text
+    */
+    public void SetText(String a_text)
+    {
+        if (a_text.equals(f_text))
+        { return; }
+        
+        f_text = a_text;
+        
+        // Update the graphics to account for the change of text.
+        super.repaint();
+    }
+    
+    
+    
+// (e). Auxiliaries (1) ================================================================================================
+    
+    /* Auxiliary of update()
+     * This method finds the largest font at which f_text fits within the label (excluding its padding), and the
+       coordinate at which the text is drawn.
+     * The search begins at the cached font for the label's size and text length (if there is one), so when the cached
+       font fits (which is almost always the case) the text is measured only once.
+     
+     * Parameters:
+         > g: the graphics context upon which the text is drawn.
+         > a_width: the label's width (pixels).
+         > a_height: the label's height (pixels).
+    */
+    private void Fit(Graphics g, int a_width, int a_height)
+    {
+        f_width_fitted = a_width;
+        f_height_fitted = a_height;
+        f_text_fitted = f_text;
+        f_font = null;
+        
         // The horizontal and vertical padding.
-        int l_padding_horizontal = (int)( super.getPreferredSize().width * s_padding_proportion_horizontal );
-        int l_padding_vertical = (int)( super.getPreferredSize().height * s_padding_proportion_vertical );
+        int l_padding_horizontal = (int)( a_width * s_padding_proportion_horizontal );
+        int l_padding_vertical = (int)( a_height * s_padding_proportion_vertical );
         
         // The text's maximum width.
-        int l_width_max = (int)( super.getPreferredSize().width - 2 * l_padding_horizontal );
+        int l_width_max = a_width - 2 * l_padding_horizontal;
         
         // The font's maximum height.
-        int l_height_max = (int)( super.getPreferredSize().height - 2 * l_padding_vertical );
-
-        // Print the text upon the canvas at the appropriate font.
-        for (int height = l_height_max; height > 1; --height)
+        int l_height_max = a_height - 2 * l_padding_vertical;
+        
+        String l_key = s_font_family + ":" + l_width_max + "x" + l_height_max + ":" + f_text.length();
+        
+        Font l_font_cached = s_fonts_fitted.get(l_key);
+        
+        int l_height_start = (l_font_cached != null) ? l_font_cached.getSize() : l_height_max;
+        
+        for (int height = l_height_start; height > 1; --height)
         {
-            g.setFont(new Font("Arial", Font.PLAIN, height));         
+            Font l_font = (height == l_height_start && l_font_cached != null) ? 
+                          l_font_cached : new Font(s_font_family, Font.PLAIN, height);
             
-            FontMetrics l_font_metrics = g.getFontMetrics();
+            FontMetrics l_font_metrics = g.getFontMetrics(l_font);
             
             // The highest height of a character of the current font.
             int l_height_text = l_font_metrics.getAscent();
@@ -169,61 +277,32 @@ public class Label
             if (l_height_text > l_height_max)
             { continue; }
             
-            // The width of l_text_full under the current font.
+            // The width of f_text under the current font.
             int l_width_text = l_font_metrics.stringWidth(f_text);
             
             // Check if the width is too wide.
             if (l_width_text > l_width_max)
             { continue; }
             
-            // X and Y coordinate of the text.
-            int l_x = 0;
-            int l_y = 0;
+            f_font = l_font;
             
             // Set the coordinates.
             if (f_align == Alignment.Left)
             {
-                l_x = l_padding_horizontal;
-                l_y = l_padding_vertical + l_height_text;
+                f_x_text = l_padding_horizontal;
+                f_y_text = l_padding_vertical + l_height_text;
             }
             else if (f_align == Alignment.Centre)
             {
-                l_x = l_padding_horizontal + (l_width_max - l_width_text) / 2;
-                l_y = l_padding_vertical + l_height_text;
+                f_x_text = l_padding_horizontal + (l_width_max - l_width_text) / 2;
+                f_y_text = l_padding_vertical + l_height_text;
             }
             
-            // Set the colour for l_text_string.
-            g.setColor(getForeground());
-            
-            // Draw l_text_string.
-            g.drawString(f_text, l_x, l_y);
+            if (l_font != l_font_cached)
+            { s_fonts_fitted.put(l_key, l_font); }
             
             break;
         }
-
-    }
-    
-    
-// (d)(i). Accessors (1) -----------------------------------------------------------------------------------------------
-    
-    /* Accesor of f_text
-    */
-    public String GetText()
-    {
-        return f_text;
-    }
-    
-    
-// (d)(ii). Mutators (1) -----------------------------------------------------------------------------------------------
-    
-    /* Mutator of f_text
-    */
-    public void SetText(String a_text)
-    {
-        f_text = a_text;
-        
-        // Update the graphics to account for the change of text.
-        super.repaint();
     }
     
     
@@ -18,9 +18,11 @@ import javax.swing.JPanel;
 
 /*
  * A GUI element to display text and a corresponding integer value.
+ * The value is stored as a primitive field: the value label is merely a view of it, and is only updated when the
+   value changes.
  
   * Composition:
-     (a). Fields (7)
+     (a). Fields (8)
          (i). Static Fields (5)
      (b). Constructors (2)
      (c). Public Methods (4)
@@ -31,12 +33,15 @@ public class TextValuePanel
     extends JPanel 
 {   
     
-// (a). Fields (7) =====================================================================================================
+// (a). Fields (8) =====================================================================================================
     
     private Label f_lbl_text;
     
     private Label f_lbl_value;
     
+    // The value that's displayed by f_lbl_value.
+    private long f_value;
+    
     
 // (a)(i). Static Fields (5) -------------------------------------------------------------------------------------------
     
@@ -59,11 +64,13 @@ public class TextValuePanel
     
 // (b). Constructors (2) ===============================================================================================
 
-    public TextValuePanel(String a_text , int a_value, int a_width, int a_height, 
+    public TextValuePanel(String a_text , long a_value, int a_width, int a_height, 
                           Color a_color_back, Color a_color_labels, Color a_color_font)
     {
         super(new GridBagLayout());
         
+        f_value = a_value;
+        
         // The horizontal and vertical padding.
         int l_padding_horizontal = (int)( a_width * s_padding_proportion_horizontal );
         int l_padding_vertical = (int)( a_height * s_padding_proportion_vertical );
@@ -99,10 +106,12 @@ public class TextValuePanel
         super.setBackground(a_color_back);
     }
     
-    public TextValuePanel(String a_text , int a_value, int a_width, int a_height)
+    public TextValuePanel(String a_text , long a_value, int a_width, int a_height)
     {
         super(new GridBagLayout());
         
+        f_value = a_value;
+        
         // The horizontal and vertical padding.
         int l_padding_horizontal = (int)( a_width * s_padding_proportion_horizontal );
         int l_padding_vertical = (int)( a_height * s_padding_proportion_vertical );
@@ -145,43 +154,44 @@ public class TextValuePanel
     
 // (c)(i). Accessors (1) -----------------------------------------------------------------------------------------------
     
-    /* Accesor of f_lbl_value
-     * This accessor returns the value of the label f_lbl_value.
+    /* Accessor of f_value
+     * This accessor returns the value displayed by the label f_lbl_value.
     */
-    public int GetValue()
+    public long GetValue()
     {
-        return Integer.parseInt(f_lbl_value.GetText());
+        return f_value;
     }
     
     
 // (c)(ii). Mutators (3) -----------------------------------------------------------------------------------------------
     
-    /* Mutator of f_lbl_value
-     * This mutator changes the value of the label f_lbl_value.
+    /* Mutator of f_value
+     * This mutator changes the value, and updates the label f_lbl_value if the value has changed.
     */
-    public void SetValue(int a_value)
+    public void SetValue(long a_value)
     {
+        if (a_value == f_value)
+        { return; }
+        
+        f_value = a_value;
+        
         f_lbl_value.SetText(String.valueOf(a_value));
     }
     
-    /* Mutator of f_lbl_value
-     * This mutator increments the value of the label f_lbl_value by one.
+    /* Mutator of f_value
+     * This mutator increments the value by one.
     */
     public void Increment() 
     {
-        int l_value = Integer.parseInt(f_lbl_value.GetText()) + 1;
-        
-        SetValue(l_value);
+        SetValue(f_value + 1);
     }
     
-    /* Mutator of f_lbl_value
-     * This mutator decrements the value of the label f_lbl_value by one.
+    /* Mutator of f_value
+     * This mutator decrements the value by one.
     */
     public void Decrement() 
     {
-        int l_value = Integer.parseInt(f_lbl_value.GetText()) - 1;
-        
-        SetValue(l_value);
+        SetValue(f_value - 1);
     }
     
     